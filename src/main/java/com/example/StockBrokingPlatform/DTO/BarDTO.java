@@ -0,0 +1,71 @@
+package com.example.StockBrokingPlatform.DTO;
+
+import com.example.StockBrokingPlatform.money.PriceJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+public class BarDTO {
+    // epoch milliseconds the bar starts at
+    private long time;
+    @JsonSerialize(using = PriceJson.Serializer.class)
+    @JsonDeserialize(using = PriceJson.Deserializer.class)
+    private long open;
+    @JsonSerialize(using = PriceJson.Serializer.class)
+    @JsonDeserialize(using = PriceJson.Deserializer.class)
+    private long high;
+    @JsonSerialize(using = PriceJson.Serializer.class)
+    @JsonDeserialize(using = PriceJson.Deserializer.class)
+    private long low;
+    @JsonSerialize(using = PriceJson.Serializer.class)
+    @JsonDeserialize(using = PriceJson.Deserializer.class)
+    private long close;
+    private long volume;
+
+    public long getTime() {
+        return time;
+    }
+
+    public void setTime(long time) {
+        this.time = time;
+    }
+
+    public long getOpen() {
+        return open;
+    }
+
+    public void setOpen(long open) {
+        this.open = open;
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public void setHigh(long high) {
+        this.high = high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    public void setLow(long low) {
+        this.low = low;
+    }
+
+    public long getClose() {
+        return close;
+    }
+
+    public void setClose(long close) {
+        this.close = close;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    public void setVolume(long volume) {
+        this.volume = volume;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.StockBrokingPlatform.DTO;
+
+public class BulkCancelResultDTO {
+    // orders taken out of the books
+    private long cancelled;
+    // rows moved from PENDING or PARTIALLY_FILLED to CANCELLED in the database
+    private long rowsUpdated;
+
+    public long getCancelled() {
+        return cancelled;
+    }
+
+    public void setCancelled(long cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    public long getRowsUpdated() {
+        return rowsUpdated;
+    }
+
+    public void setRowsUpdated(long rowsUpdated) {
+        this.rowsUpdated = rowsUpdated;
+    }
+}
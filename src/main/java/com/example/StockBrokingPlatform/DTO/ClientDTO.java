@@ -2,6 +2,9 @@ package com.example.StockBrokingPlatform.DTO;
 
 
 import com.example.StockBrokingPlatform.model.Client;
+import com.example.StockBrokingPlatform.money.PriceJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 public class ClientDTO {
     private Long id;
@@ -12,6 +15,14 @@ public class ClientDTO {
     private String pan;
     private Client.KYCStatus kycStatus;
     private Client.ClientStatus status;
+    // optional pre-trade limits in rupees; left out means the platform default
+    @JsonSerialize(using = PriceJson.Serializer.class)
+    @JsonDeserialize(using = PriceJson.Deserializer.class)
+    private Long maxOrderValue;
+    @JsonSerialize(using = PriceJson.Serializer.class)
+    @JsonDeserialize(using = PriceJson.Deserializer.class)
+    private Long exposureLimit;
+    private Client.Tier tier;
 
     public Long getId() {
         return id;
@@ -76,4 +87,28 @@ public class ClientDTO {
     public void setStatus(Client.ClientStatus status) {
         this.status = status;
     }
+
+    public Long getMaxOrderValue() {
+        return maxOrderValue;
+    }
+
+    public void setMaxOrderValue(Long maxOrderValue) {
+        this.maxOrderValue = maxOrderValue;
+    }
+
+    public Long getExposureLimit() {
+        return exposureLimit;
+    }
+
+    public void setExposureLimit(Long exposureLimit) {
+        this.exposureLimit = exposureLimit;
+    }
+
+    public Client.Tier getTier() {
+        return tier;
+    }
+
+    public void setTier(Client.Tier tier) {
+        this.tier = tier;
+    }
 }
@@ -1,6 +1,9 @@
 package com.example.StockBrokingPlatform.DTO;
 
 import com.example.StockBrokingPlatform.model.Instrument;
+import com.example.StockBrokingPlatform.money.PriceJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 public class InstrumentDTO {
     private Long id;
@@ -8,7 +11,12 @@ public class InstrumentDTO {
     private String companyName;
     private Instrument.Exchange exchange;
     private Instrument.ExchangeType exchangeType;
-    private Double currentPrice;
+    @JsonSerialize(using = PriceJson.Serializer.class)
+    @JsonDeserialize(using = PriceJson.Deserializer.class)
+    private long currentPrice;
+    @JsonSerialize(using = PriceJson.Serializer.class)
+    @JsonDeserialize(using = PriceJson.Deserializer.class)
+    private long tickSize;
     private Integer lotSize;
 
     public String getSymbol() {
@@ -51,14 +59,22 @@ public class InstrumentDTO {
         this.exchangeType = exchangeType;
     }
 
-    public Double getCurrentPrice() {
+    public long getCurrentPrice() {
         return currentPrice;
     }
 
-    public void setCurrentPrice(Double currentPrice) {
+    public void setCurrentPrice(long currentPrice) {
         this.currentPrice = currentPrice;
     }
 
+    public long getTickSize() {
+        return tickSize;
+    }
+
+    public void setTickSize(long tickSize) {
+        this.tickSize = tickSize;
+    }
+
     public Integer getLotSize() {
         return lotSize;
     }
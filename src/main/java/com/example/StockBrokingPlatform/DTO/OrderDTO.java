@@ -1,6 +1,9 @@
 package com.example.StockBrokingPlatform.DTO;
 
 import com.example.StockBrokingPlatform.model.Order;
+import com.example.StockBrokingPlatform.money.PriceJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import java.time.LocalDateTime;
 
@@ -9,11 +12,21 @@ public class OrderDTO {
     private Long clientId;
     private Long instrumentId;
     private Order.OrderType orderType;
-    private Integer quantity;
-    private Double price;
+    private int quantity;
+    @JsonSerialize(using = PriceJson.Serializer.class)
+    @JsonDeserialize(using = PriceJson.Deserializer.class)
+    private long price;
     private Order.OrderStatus status;
     private LocalDateTime orderDate;
     private Order.Validity validity;
+    private int filledQuantity;
+    @JsonSerialize(using = PriceJson.Serializer.class)
+    @JsonDeserialize(using = PriceJson.Deserializer.class)
+    private long averagePrice;
+    // optional on modify: the amendment only applies if the order is still at this version
+    private Long version;
+    // optional on place: retrying with the same id returns the original order instead of a new one
+    private String clientOrderId;
 
     public Long getId() {
         return id;
@@ -39,19 +52,19 @@ public class OrderDTO {
         this.clientId = clientId;
     }
 
-    public Integer getQuantity() {
+    public int getQuantity() {
         return quantity;
     }
 
-    public void setQuantity(Integer quantity) {
+    public void setQuantity(int quantity) {
         this.quantity = quantity;
     }
 
-    public Double getPrice() {
+    public long getPrice() {
         return price;
     }
 
-    public void setPrice(Double price) {
+    public void setPrice(long price) {
         this.price = price;
     }
 
@@ -86,4 +99,36 @@ public class OrderDTO {
     public void setValidity(Order.Validity validity) {
         this.validity = validity;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public int getFilledQuantity() {
+        return filledQuantity;
+    }
+
+    public void setFilledQuantity(int filledQuantity) {
+        this.filledQuantity = filledQuantity;
+    }
+
+    public long getAveragePrice() {
+        return averagePrice;
+    }
+
+    public void setAveragePrice(long averagePrice) {
+        this.averagePrice = averagePrice;
+    }
+
+    public String getClientOrderId() {
+        return clientOrderId;
+    }
+
+    public void setClientOrderId(String clientOrderId) {
+        this.clientOrderId = clientOrderId;
+    }
 }
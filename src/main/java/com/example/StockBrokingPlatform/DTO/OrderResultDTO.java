@@ -0,0 +1,58 @@
+package com.example.StockBrokingPlatform.DTO;
+
+/**
+ * Outcome of one leg of a batch placement: the accepted order, or why it was rejected.
+ */
+public class OrderResultDTO {
+    private int index;
+    private boolean accepted;
+    private OrderDTO order;
+    private String error;
+
+    public static OrderResultDTO accepted(int index, OrderDTO order) {
+        OrderResultDTO result = new OrderResultDTO();
+        result.setIndex(index);
+        result.setAccepted(true);
+        result.setOrder(order);
+        return result;
+    }
+
+    public static OrderResultDTO rejected(int index, String error) {
+        OrderResultDTO result = new OrderResultDTO();
+        result.setIndex(index);
+        result.setError(error);
+        return result;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public boolean isAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(boolean accepted) {
+        this.accepted = accepted;
+    }
+
+    public OrderDTO getOrder() {
+        return order;
+    }
+
+    public void setOrder(OrderDTO order) {
+        this.order = order;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
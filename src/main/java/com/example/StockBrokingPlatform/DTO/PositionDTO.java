@@ -0,0 +1,81 @@
+package com.example.StockBrokingPlatform.DTO;
+
+import com.example.StockBrokingPlatform.money.PriceJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+public class PositionDTO {
+    private Long clientId;
+    private Long instrumentId;
+    // negative when short
+    private long netQuantity;
+    @JsonSerialize(using = PriceJson.Serializer.class)
+    @JsonDeserialize(using = PriceJson.Deserializer.class)
+    private long averageCost;
+    @JsonSerialize(using = PriceJson.Serializer.class)
+    @JsonDeserialize(using = PriceJson.Deserializer.class)
+    private long realisedPnl;
+    // the instrument's current price the position is marked at
+    @JsonSerialize(using = PriceJson.Serializer.class)
+    @JsonDeserialize(using = PriceJson.Deserializer.class)
+    private long markPrice;
+    @JsonSerialize(using = PriceJson.Serializer.class)
+    @JsonDeserialize(using = PriceJson.Deserializer.class)
+    private long unrealisedPnl;
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(Long clientId) {
+        this.clientId = clientId;
+    }
+
+    public Long getInstrumentId() {
+        return instrumentId;
+    }
+
+    public void setInstrumentId(Long instrumentId) {
+        this.instrumentId = instrumentId;
+    }
+
+    public long getNetQuantity() {
+        return netQuantity;
+    }
+
+    public void setNetQuantity(long netQuantity) {
+        this.netQuantity = netQuantity;
+    }
+
+    public long getAverageCost() {
+        return averageCost;
+    }
+
+    public void setAverageCost(long averageCost) {
+        this.averageCost = averageCost;
+    }
+
+    public long getRealisedPnl() {
+        return realisedPnl;
+    }
+
+    public void setRealisedPnl(long realisedPnl) {
+        this.realisedPnl = realisedPnl;
+    }
+
+    public long getMarkPrice() {
+        return markPrice;
+    }
+
+    public void setMarkPrice(long markPrice) {
+        this.markPrice = markPrice;
+    }
+
+    public long getUnrealisedPnl() {
+        return unrealisedPnl;
+    }
+
+    public void setUnrealisedPnl(long unrealisedPnl) {
+        this.unrealisedPnl = unrealisedPnl;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.StockBrokingPlatform.DTO;
+
+public class TickIngestResultDTO {
+    // queued for the price table
+    private int accepted;
+    // dropped because the ingestion stage was full
+    private int dropped;
+
+    public int getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(int accepted) {
+        this.accepted = accepted;
+    }
+
+    public int getDropped() {
+        return dropped;
+    }
+
+    public void setDropped(int dropped) {
+        this.dropped = dropped;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.StockBrokingPlatform.DTO;
+
+import com.example.StockBrokingPlatform.model.Order;
+import com.example.StockBrokingPlatform.money.PriceJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.LocalDateTime;
+
+public class TradeDTO {
+    private Long id;
+    private Long instrumentId;
+    private Long buyOrderId;
+    private Long sellOrderId;
+    private Long buyClientId;
+    private Long sellClientId;
+    private Order.OrderType aggressorSide;
+    private int quantity;
+    @JsonSerialize(using = PriceJson.Serializer.class)
+    @JsonDeserialize(using = PriceJson.Deserializer.class)
+    private long price;
+    private LocalDateTime tradeTime;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getInstrumentId() {
+        return instrumentId;
+    }
+
+    public void setInstrumentId(Long instrumentId) {
+        this.instrumentId = instrumentId;
+    }
+
+    public Long getBuyOrderId() {
+        return buyOrderId;
+    }
+
+    public void setBuyOrderId(Long buyOrderId) {
+        this.buyOrderId = buyOrderId;
+    }
+
+    public Long getSellOrderId() {
+        return sellOrderId;
+    }
+
+    public void setSellOrderId(Long sellOrderId) {
+        this.sellOrderId = sellOrderId;
+    }
+
+    public Long getBuyClientId() {
+        return buyClientId;
+    }
+
+    public void setBuyClientId(Long buyClientId) {
+        this.buyClientId = buyClientId;
+    }
+
+    public Long getSellClientId() {
+        return sellClientId;
+    }
+
+    public void setSellClientId(Long sellClientId) {
+        this.sellClientId = sellClientId;
+    }
+
+    public Order.OrderType getAggressorSide() {
+        return aggressorSide;
+    }
+
+    public void setAggressorSide(Order.OrderType aggressorSide) {
+        this.aggressorSide = aggressorSide;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public long getPrice() {
+        return price;
+    }
+
+    public void setPrice(long price) {
+        this.price = price;
+    }
+
+    public LocalDateTime getTradeTime() {
+        return tradeTime;
+    }
+
+    public void setTradeTime(LocalDateTime tradeTime) {
+        this.tradeTime = tradeTime;
+    }
+}
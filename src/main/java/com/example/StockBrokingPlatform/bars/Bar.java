@@ -0,0 +1,13 @@
+package com.example.StockBrokingPlatform.bars;
+
+/**
+ * One OHLCV bar; {@code start} is epoch milliseconds and prices are fixed-point.
+ */
+public record Bar(long start, long open, long high, long low, long close, long volume) {
+
+    // This bar followed by a later one of the same bucket
+    Bar merge(Bar later) {
+        return new Bar(start, open, Math.max(high, later.high), Math.min(low, later.low), later.close,
+                volume + later.volume);
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.StockBrokingPlatform.bars;
+
+import com.example.StockBrokingPlatform.marketdata.Tick;
+import com.example.StockBrokingPlatform.marketdata.TickIngestor;
+import com.example.StockBrokingPlatform.model.Trade;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Builds 1s, 1m, 5m and 1d OHLCV bars per instrument as ticks and trades arrive, so charts
+ * are read from ready-made bars instead of raw ticks. Bars are kept in per-instrument ring
+ * buffers sized to a session; every {@code market-data.bars.flush-interval-ms} the
+ * one-minute bars touched since the last flush are appended as one block to a columnar file
+ * per day ({@code market-data.bars.dir}). A day's file is compacted into a single block once
+ * the day is over, and today's and yesterday's files are loaded back on startup.
+ * <p>
+ * Ranges older than what the ring buffers hold are rolled up from the day files, so they
+ * are available for every interval but one second. Days start at midnight in the
+ * system time zone, as the trading session does.
+ */
+@Component
+public class BarAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(BarAggregator.class);
+
+    private static final BarInterval[] INTERVALS = BarInterval.values();
+
+    private final TickIngestor tickIngestor;
+    private final Path directory;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final Map<Long, InstrumentBars> instruments = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    // [start, end) of the day most bars fall in, so the common case skips the calendar
+    private volatile long[] currentDay = {0, 0};
+    // start of the current day as of the last flush, to compact the day before once it ends
+    private long flushedDay;
+
+    @Autowired
+    public BarAggregator(TickIngestor tickIngestor, @Value("${market-data.bars.dir:data/bars}") String directory) {
+        this.tickIngestor = tickIngestor;
+        this.directory = Paths.get(directory);
+    }
+
+    @PostConstruct
+    public void start() {
+        LocalDate today = LocalDate.now(zone);
+        recover(today.minusDays(1), true);
+        recover(today, false);
+        load(today.minusDays(1));
+        load(today);
+        tickIngestor.onTick(this::onTick);
+    }
+
+    public void onTick(Tick tick) {
+        add(tick.instrumentId(), tick.timestamp(), tick.price(), tick.quantity());
+    }
+
+    public void onTrade(Trade trade) {
+        add(trade.getInstrumentId(), trade.getTradeTime().atZone(zone).toInstant().toEpochMilli(),
+                trade.getPrice(), trade.getQuantity());
+    }
+
+    private void add(long instrumentId, long time, long price, long quantity) {
+        long dayStart = dayStart(time);
+        instruments.computeIfAbsent(instrumentId, id -> new InstrumentBars())
+                .add(time, dayStart, price, quantity);
+        dirty.set(true);
+    }
+
+    /**
+     * Bars of the interval starting in [from, to), oldest first. One-second bars are only
+     * held for the last fifteen minutes.
+     */
+    public List<Bar> bars(long instrumentId, BarInterval interval, long from, long to) {
+        InstrumentBars bars = instruments.get(instrumentId);
+        long horizon = bars == null ? Long.MAX_VALUE : bars.horizon(interval);
+        List<Bar> result = new ArrayList<>();
+        if (from < horizon && interval != BarInterval.ONE_SECOND) {
+            result.addAll(fromFiles(instrumentId, interval, from, Math.min(to, horizon)));
+        }
+        if (bars != null && horizon < to) {
+            result.addAll(bars.range(interval, Math.max(from, horizon), to));
+        }
+        return result;
+    }
+
+    // Rolls the day files' one-minute bars up to the interval
+    private List<Bar> fromFiles(long instrumentId, BarInterval interval, long from, long to) {
+        TreeMap<Long, Bar> rolled = new TreeMap<>();
+        LocalDate last = day(to - 1);
+        for (LocalDate day = day(from); !day.isAfter(last); day = day.plusDays(1)) {
+            try {
+                BarFile.read(BarFile.path(directory, day), instrumentId, (id, minutes) -> {
+                    for (Bar minute : minutes) {
+                        long start = interval.bucketStart(minute.start(), zone);
+                        if (start >= from && start < to) {
+                            Bar bar = new Bar(start, minute.open(), minute.high(), minute.low(), minute.close(),
+                                    minute.volume());
+                            rolled.merge(start, bar, Bar::merge);
+                        }
+                    }
+                });
+            } catch (IOException | IllegalStateException ex) {
+                log.warn("Skipping unreadable bar file for {}: {}", day, ex.getMessage());
+            }
+        }
+        return new ArrayList<>(rolled.values());
+    }
+
+    /**
+     * Appends the one-minute bars touched since the last flush to their day files, one block
+     * per day, and compacts the file of a day that has ended.
+     */
+    @Scheduled(fixedDelayString = "${market-data.bars.flush-interval-ms:60000}",
+            initialDelayString = "${market-data.bars.flush-interval-ms:60000}")
+    public synchronized void flush() {
+        long today = currentDay[0];
+        if (flushedDay != 0 && today > flushedDay) {
+            compact(day(flushedDay));
+        }
+        flushedDay = today;
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        Map<Long, Map<Long, List<Bar>>> byDay = new TreeMap<>();
+        instruments.forEach((instrumentId, bars) -> {
+            for (Bar bar : bars.drainTouched()) {
+                byDay.computeIfAbsent(dayStart(bar.start()), day -> new TreeMap<>())
+                        .computeIfAbsent(instrumentId, id -> new ArrayList<>()).add(bar);
+            }
+        });
+        byDay.forEach((dayStart, columns) -> {
+            LocalDate day = day(dayStart);
+            try {
+                BarFile.append(BarFile.path(directory, day), dayStart, columns);
+            } catch (IOException ex) {
+                // written with the next flush instead
+                columns.forEach((instrumentId, bars) -> instruments.get(instrumentId).touch(bars));
+                dirty.set(true);
+                log.error("Failed to write bars for {}", day, ex);
+                return;
+            }
+            if (dayStart < today) {
+                // a late bar for a finished day
+                compact(day);
+            }
+        });
+    }
+
+    private void compact(LocalDate day) {
+        try {
+            BarFile.compact(BarFile.path(directory, day));
+        } catch (IOException | IllegalStateException ex) {
+            log.warn("Failed to compact bar file for {}: {}", day, ex.getMessage());
+        }
+    }
+
+    // Cuts off a half-written block and, for a finished day, compacts the file; a file that
+    // cannot be read is moved aside so appends start a new one
+    private void recover(LocalDate day, boolean finished) {
+        Path file = BarFile.path(directory, day);
+        try {
+            if (BarFile.recover(file) > 1 && finished) {
+                BarFile.compact(file);
+            }
+        } catch (IllegalStateException ex) {
+            log.warn("Moving aside unreadable bar file for {}: {}", day, ex.getMessage());
+            try {
+                Files.move(file, file.resolveSibling(file.getFileName() + ".unreadable"),
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException moveEx) {
+                log.error("Failed to move aside bar file for {}", day, moveEx);
+            }
+        } catch (IOException ex) {
+            log.warn("Failed to recover bar file for {}: {}", day, ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+
+    // Seeds the ring buffers from a day file
+    private void load(LocalDate day) {
+        try {
+            BarFile.read(BarFile.path(directory, day), null, (instrumentId, minutes) -> {
+                InstrumentBars bars = instruments.computeIfAbsent(instrumentId, id -> new InstrumentBars());
+                minutes.forEach(minute -> bars.merge(minute, zone));
+            });
+        } catch (IOException | IllegalStateException ex) {
+            log.warn("Ignoring unreadable bar file for {}: {}", day, ex.getMessage());
+        }
+    }
+
+    private long dayStart(long time) {
+        long[] day = currentDay;
+        if (time >= day[0] && time < day[1]) {
+            return day[0];
+        }
+        long start = BarInterval.dayStart(time, zone);
+        if (start > day[0]) {
+            long end = day(start).plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            currentDay = new long[]{start, end};
+        }
+        return start;
+    }
+
+    private LocalDate day(long time) {
+        return Instant.ofEpochMilli(time).atZone(zone).toLocalDate();
+    }
+
+    // One instrument's series; ticks and trades for it may arrive on different threads
+    private static final class InstrumentBars {
+        private final BarSeries[] series = new BarSeries[INTERVALS.length];
+        // starts of the one-minute bars changed since the last flush
+        private Set<Long> touched = new TreeSet<>();
+
+        InstrumentBars() {
+            for (BarInterval interval : INTERVALS) {
+                series[interval.ordinal()] = new BarSeries(interval);
+            }
+        }
+
+        synchronized void add(long time, long dayStart, long price, long quantity) {
+            for (BarInterval interval : INTERVALS) {
+                long start = interval == BarInterval.ONE_DAY ? dayStart
+                        : Math.floorDiv(time, interval.getMillis()) * interval.getMillis();
+                if (series[interval.ordinal()].merge(start, price, price, price, price, quantity)
+                        && interval == BarInterval.ONE_MINUTE) {
+                    touched.add(start);
+                }
+            }
+        }
+
+        // A stored one-minute bar, into every interval but one second
+        synchronized void merge(Bar minute, ZoneId zone) {
+            for (BarInterval interval : INTERVALS) {
+                if (interval != BarInterval.ONE_SECOND) {
+                    series[interval.ordinal()].merge(interval.bucketStart(minute.start(), zone),
+                            minute.open(), minute.high(), minute.low(), minute.close(), minute.volume());
+                }
+            }
+        }
+
+        // The current version of every one-minute bar touched since the last call
+        synchronized List<Bar> drainTouched() {
+            List<Bar> bars = new ArrayList<>(touched.size());
+            BarSeries minutes = series[BarInterval.ONE_MINUTE.ordinal()];
+            for (long start : touched) {
+                Bar bar = minutes.get(start);
+                if (bar != null) {
+                    bars.add(bar);
+                }
+            }
+            touched = new TreeSet<>();
+            return bars;
+        }
+
+        // Bars whose write failed, to be written again
+        synchronized void touch(List<Bar> bars) {
+            bars.forEach(bar -> touched.add(bar.start()));
+        }
+
+        synchronized List<Bar> range(BarInterval interval, long from, long to) {
+            return series[interval.ordinal()].range(from, to);
+        }
+
+        synchronized long horizon(BarInterval interval) {
+            return series[interval.ordinal()].horizon();
+        }
+    }
+}
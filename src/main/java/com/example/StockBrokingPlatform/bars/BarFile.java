@@ -0,0 +1,252 @@
+package com.example.StockBrokingPlatform.bars;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * One day of one-minute bars for every instrument: a header, then blocks appended one per
+ * flush. A block holds the bars written by that flush column by column: per instrument its
+ * id and bar count, then the minute of day of every bar, then every open, high, low, close
+ * and volume, followed by a CRC32C of the block. A minute written again in a later block
+ * replaces the earlier version; {@link #compact} folds a finished day into one block.
+ */
+final class BarFile {
+
+    private static final int MAGIC = 0x4F484C43;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 4 + 4 + 8;
+    private static final int INSTRUMENT_HEADER_SIZE = 8 + 4;
+    // minute of day, then five longs
+    private static final int BAR_SIZE = 2 + 5 * 8;
+    // minutes in the longest day, one with a daylight saving shift
+    private static final int MAX_BARS = 25 * 60;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String PREFIX = "bars-";
+    private static final String SUFFIX = ".bin";
+
+    private BarFile() {
+    }
+
+    static Path path(Path directory, LocalDate day) {
+        return directory.resolve(PREFIX + day + SUFFIX);
+    }
+
+    /**
+     * Appends a block with the bars to the day's file, creating the file if needed. A failed
+     * append is cut off again, so the file only ever ends in a whole block.
+     *
+     * @param bars one-minute bars per instrument, all within the day
+     */
+    static void append(Path file, long dayStart, Map<Long, List<Bar>> bars) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long end = channel.size();
+            try {
+                channel.position(end);
+                OutputStream raw = Channels.newOutputStream(channel);
+                if (end == 0) {
+                    DataOutputStream header = new DataOutputStream(raw);
+                    header.writeInt(MAGIC);
+                    header.writeInt(VERSION);
+                    header.writeLong(dayStart);
+                }
+                writeBlock(raw, dayStart, bars);
+                channel.force(true);
+            } catch (IOException | RuntimeException ex) {
+                channel.truncate(end);
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Rewrites the file as a single block holding the latest version of every bar, through a
+     * temporary file renamed into place. A file with one block or none is left alone.
+     */
+    static void compact(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        long[] dayStart = new long[1];
+        Map<Long, TreeMap<Long, Bar>> latest = new TreeMap<>();
+        int blocks = scan(file, null, (start, instrumentId, bars) -> {
+            dayStart[0] = start;
+            bars.forEach(bar -> latest.computeIfAbsent(instrumentId, id -> new TreeMap<>()).put(bar.start(), bar));
+        }).blocks();
+        if (blocks <= 1) {
+            return;
+        }
+        Map<Long, List<Bar>> columns = new TreeMap<>();
+        latest.forEach((instrumentId, bars) -> columns.put(instrumentId, new ArrayList<>(bars.values())));
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.deleteIfExists(temp);
+        append(temp, dayStart[0], columns);
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Cuts off a block left half written, e.g. by a crash during an append, so later appends
+     * follow the last whole one. Returns the number of whole blocks.
+     *
+     * @throws IllegalStateException if the file is not a bar file of this version
+     */
+    static int recover(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        Scan scan = scan(file, null, (dayStart, instrumentId, bars) -> {
+        });
+        if (scan.length() < Files.size(file)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(scan.length());
+                channel.force(true);
+            }
+        }
+        return scan.blocks();
+    }
+
+    /**
+     * Hands every instrument's bars in the file to the consumer, latest version of each
+     * minute, oldest first; a missing file has none.
+     *
+     * @param instrumentId only this instrument's bars, or null for all of them
+     * @throws IllegalStateException if the file is not a bar file of this version
+     */
+    static void read(Path file, Long instrumentId, BiConsumer<Long, List<Bar>> consumer) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        Map<Long, TreeMap<Long, Bar>> latest = new TreeMap<>();
+        scan(file, instrumentId, (dayStart, id, bars) ->
+                bars.forEach(bar -> latest.computeIfAbsent(id, key -> new TreeMap<>()).put(bar.start(), bar)));
+        latest.forEach((id, bars) -> consumer.accept(id, new ArrayList<>(bars.values())));
+    }
+
+    private interface BlockConsumer {
+        void accept(long dayStart, long instrumentId, List<Bar> bars);
+    }
+
+    private record Scan(int blocks, long length) {
+    }
+
+    // Streams the whole blocks in order and stops at the first damaged or truncated one
+    private static Scan scan(Path file, Long instrumentId, BlockConsumer consumer) throws IOException {
+        long size = Files.size(file);
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE)) {
+            CheckedInputStream checked = new CheckedInputStream(raw, new CRC32C());
+            DataInputStream in = new DataInputStream(checked);
+            if (size < HEADER_SIZE || in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IllegalStateException("not a bar file or unsupported version");
+            }
+            long dayStart = in.readLong();
+            long length = HEADER_SIZE;
+            int blocks = 0;
+            while (length < size) {
+                checked.getChecksum().reset();
+                List<Long> ids = new ArrayList<>();
+                List<List<Bar>> blockBars = new ArrayList<>();
+                // instrument count and trailer
+                long blockLength = 4 + 4;
+                try {
+                    int instrumentCount = in.readInt();
+                    if (instrumentCount < 0) {
+                        break;
+                    }
+                    for (int i = 0; i < instrumentCount; i++) {
+                        long id = in.readLong();
+                        int count = in.readInt();
+                        blockLength += INSTRUMENT_HEADER_SIZE + (long) count * BAR_SIZE;
+                        if (count < 0 || count > MAX_BARS || length + blockLength > size) {
+                            return new Scan(blocks, length);
+                        }
+                        ByteBuffer columns = ByteBuffer.allocate(count * BAR_SIZE);
+                        in.readFully(columns.array());
+                        if (instrumentId == null || instrumentId == id) {
+                            ids.add(id);
+                            blockBars.add(decode(columns, dayStart, count));
+                        }
+                    }
+                    int expected = (int) checked.getChecksum().getValue();
+                    if (new DataInputStream(raw).readInt() != expected) {
+                        break;
+                    }
+                } catch (EOFException ex) {
+                    break;
+                }
+                for (int i = 0; i < ids.size(); i++) {
+                    consumer.accept(dayStart, ids.get(i), blockBars.get(i));
+                }
+                length += blockLength;
+                blocks++;
+            }
+            return new Scan(blocks, length);
+        }
+    }
+
+    private static void writeBlock(OutputStream raw, long dayStart, Map<Long, List<Bar>> bars) throws IOException {
+        CheckedOutputStream checked = new CheckedOutputStream(raw, new CRC32C());
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked, BUFFER_SIZE));
+        out.writeInt(bars.size());
+        for (Map.Entry<Long, List<Bar>> entry : bars.entrySet()) {
+            List<Bar> instrumentBars = entry.getValue();
+            out.writeLong(entry.getKey());
+            out.writeInt(instrumentBars.size());
+            for (Bar bar : instrumentBars) {
+                out.writeShort((short) ((bar.start() - dayStart) / 60_000));
+            }
+            for (Bar bar : instrumentBars) {
+                out.writeLong(bar.open());
+            }
+            for (Bar bar : instrumentBars) {
+                out.writeLong(bar.high());
+            }
+            for (Bar bar : instrumentBars) {
+                out.writeLong(bar.low());
+            }
+            for (Bar bar : instrumentBars) {
+                out.writeLong(bar.close());
+            }
+            for (Bar bar : instrumentBars) {
+                out.writeLong(bar.volume());
+            }
+        }
+        out.flush();
+        // the trailer goes straight to the file, after everything it covers
+        new DataOutputStream(raw).writeInt((int) checked.getChecksum().getValue());
+    }
+
+    private static List<Bar> decode(ByteBuffer columns, long dayStart, int count) {
+        List<Bar> bars = new ArrayList<>(count);
+        int opens = count * 2;
+        int step = count * 8;
+        for (int b = 0; b < count; b++) {
+            int at = opens + b * 8;
+            bars.add(new Bar(dayStart + columns.getShort(b * 2) * 60_000L,
+                    columns.getLong(at), columns.getLong(at + step), columns.getLong(at + 2 * step),
+                    columns.getLong(at + 3 * step), columns.getLong(at + 4 * step)));
+        }
+        return bars;
+    }
+}
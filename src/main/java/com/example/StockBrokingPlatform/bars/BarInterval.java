@@ -0,0 +1,64 @@
+package com.example.StockBrokingPlatform.bars;
+
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * Bar sizes kept in memory, each with how many bars of history its ring buffer holds; older
+ * bars are rolled up from the day files.
+ */
+public enum BarInterval {
+    // fifteen minutes
+    ONE_SECOND("1s", 1_000L, 900),
+    // a trading session of eight hours
+    ONE_MINUTE("1m", 60_000L, 480),
+    FIVE_MINUTES("5m", 300_000L, 96),
+    // today and yesterday, the days loaded back on startup
+    ONE_DAY("1d", 86_400_000L, 2);
+
+    private final String code;
+    private final long millis;
+    private final int capacity;
+
+    BarInterval(String code, long millis, int capacity) {
+        this.code = code;
+        this.millis = millis;
+        this.capacity = capacity;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the interval with the code, e.g. {@code 5m}, or null if there is none
+     */
+    public static BarInterval of(String code) {
+        for (BarInterval interval : values()) {
+            if (interval.code.equals(code)) {
+                return interval;
+            }
+        }
+        return null;
+    }
+
+    // Start of the bar the time falls in; days start at midnight in the zone
+    long bucketStart(long time, ZoneId zone) {
+        if (this != ONE_DAY) {
+            return Math.floorDiv(time, millis) * millis;
+        }
+        return dayStart(time, zone);
+    }
+
+    static long dayStart(long time, ZoneId zone) {
+        return Instant.ofEpochMilli(time).atZone(zone).toLocalDate().atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.StockBrokingPlatform.bars;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Ring buffer of one instrument's bars of one interval, stored column by column. A bar's
+ * slot follows from its start, so updating the current bar is a few array writes; a bar
+ * replaces whatever older bar shared its slot. The columns are allocated with the first
+ * bar. Not thread-safe.
+ */
+final class BarSeries {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long intervalMs;
+    private final int capacity;
+    private long[] start;
+    private long[] open;
+    private long[] high;
+    private long[] low;
+    private long[] close;
+    private long[] volume;
+    private long latest = EMPTY;
+
+    BarSeries(BarInterval interval) {
+        this.intervalMs = interval.getMillis();
+        this.capacity = interval.getCapacity();
+    }
+
+    /**
+     * Folds the bar into the one with the same start.
+     *
+     * @return false if that bar has already been overwritten by a newer one
+     */
+    boolean merge(long barStart, long barOpen, long barHigh, long barLow, long barClose, long barVolume) {
+        if (start == null) {
+            allocate();
+        }
+        int slot = slot(barStart);
+        if (start[slot] == barStart) {
+            high[slot] = Math.max(high[slot], barHigh);
+            low[slot] = Math.min(low[slot], barLow);
+            close[slot] = barClose;
+            volume[slot] += barVolume;
+            return true;
+        }
+        if (start[slot] != EMPTY && start[slot] > barStart) {
+            return false;
+        }
+        start[slot] = barStart;
+        latest = Math.max(latest, barStart);
+        open[slot] = barOpen;
+        high[slot] = barHigh;
+        low[slot] = barLow;
+        close[slot] = barClose;
+        volume[slot] = barVolume;
+        return true;
+    }
+
+    // The bar starting at the time, or null if it is not held
+    Bar get(long barStart) {
+        if (start == null) {
+            return null;
+        }
+        int slot = slot(barStart);
+        return start[slot] == barStart ? bar(slot) : null;
+    }
+
+    // Bars starting in [from, to), oldest first
+    List<Bar> range(long from, long to) {
+        List<Bar> bars = new ArrayList<>();
+        if (start == null) {
+            return bars;
+        }
+        for (int slot = 0; slot < start.length; slot++) {
+            if (start[slot] != EMPTY && start[slot] >= from && start[slot] < to) {
+                bars.add(bar(slot));
+            }
+        }
+        bars.sort(Comparator.comparingLong(Bar::start));
+        return bars;
+    }
+
+    /**
+     * Time from which every bar is still held; older ones may have been overwritten.
+     * Long.MAX_VALUE if the series is empty.
+     */
+    long horizon() {
+        if (latest == EMPTY) {
+            return Long.MAX_VALUE;
+        }
+        return latest - (capacity - 1) * intervalMs;
+    }
+
+    private void allocate() {
+        start = new long[capacity];
+        open = new long[capacity];
+        high = new long[capacity];
+        low = new long[capacity];
+        close = new long[capacity];
+        volume = new long[capacity];
+        Arrays.fill(start, EMPTY);
+    }
+
+    private int slot(long barStart) {
+        return (int) Math.floorMod(Math.floorDiv(barStart, intervalMs), (long) capacity);
+    }
+
+    private Bar bar(int slot) {
+        return new Bar(start[slot], open[slot], high[slot], low[slot], close[slot], volume[slot]);
+    }
+}
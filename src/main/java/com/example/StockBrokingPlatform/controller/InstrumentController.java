@@ -40,8 +40,14 @@ public class InstrumentController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<InstrumentDTO>> searchBySymbolOrCompanyName(@RequestParam(required = false) String symbol, @RequestParam(required = false) String companyName) {
-        return ResponseEntity.ok(instrumentService.searchBySymbolOrCompanyName(symbol, companyName));
+    public ResponseEntity<List<InstrumentDTO>> searchBySymbolOrCompanyName(@RequestParam(required = false) String symbol, @RequestParam(required = false) String companyName,
+                                                                           @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(instrumentService.searchBySymbolOrCompanyName(symbol, companyName, limit));
+    }
+
+    @GetMapping("/autocomplete")
+    public List<InstrumentDTO> autocomplete(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        return instrumentService.autocomplete(q, limit);
     }
 
     @GetMapping("/exchange-type/{exchangeType}")
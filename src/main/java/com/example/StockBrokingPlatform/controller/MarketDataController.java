@@ -0,0 +1,45 @@
+package com.example.StockBrokingPlatform.controller;
+
+import com.example.StockBrokingPlatform.DTO.BarDTO;
+import com.example.StockBrokingPlatform.DTO.TickDTO;
+import com.example.StockBrokingPlatform.DTO.TickIngestResultDTO;
+import com.example.StockBrokingPlatform.service.MarketDataService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/market-data")
+public class MarketDataController {
+
+    @Autowired
+    private MarketDataService marketDataService;
+
+    // Prices become visible once the ingestion stage has applied them, hence 202
+    @PostMapping("/ticks")
+    public ResponseEntity<TickIngestResultDTO> publishTicks(@RequestBody List<TickDTO> ticks) {
+        return ResponseEntity.accepted().body(marketDataService.publishTicks(ticks));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPrices(@RequestParam List<Long> instrumentIds) {
+        return marketDataService.streamPrices(instrumentIds);
+    }
+
+    @GetMapping(value = "/stream/client/{clientId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamWatchListPrices(@PathVariable Long clientId) {
+        return marketDataService.streamWatchListPrices(clientId);
+    }
+
+    @GetMapping("/bars/{instrumentId}")
+    public List<BarDTO> getBars(@PathVariable Long instrumentId,
+                                @RequestParam(defaultValue = "1m") String interval,
+                                @RequestParam long from,
+                                @RequestParam(required = false) Long to) {
+        return marketDataService.getBars(instrumentId, interval, from, to);
+    }
+}
@@ -1,28 +1,87 @@
 package com.example.StockBrokingPlatform.controller;
 
+import com.example.StockBrokingPlatform.DTO.BulkCancelResultDTO;
 import com.example.StockBrokingPlatform.DTO.OrderDTO;
+import com.example.StockBrokingPlatform.DTO.OrderResultDTO;
 import com.example.StockBrokingPlatform.model.Order;
 import com.example.StockBrokingPlatform.service.OrderService;
+import com.example.StockBrokingPlatform.throttle.OrderThrottle;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    static final String NEXT_AFTER_ID = "X-Next-After-Id";
+    static final String NEXT_BEFORE_ID = "X-Next-Before-Id";
+
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderThrottle orderThrottle;
+
     @PostMapping
     public OrderDTO placeOrder(@RequestBody OrderDTO dto) {
+        orderThrottle.acquire(dto.getClientId(), 1);
         return orderService.placeOrder(dto);
     }
 
+    // Each leg counts against its client's rate limit
+    @PostMapping("/batch")
+    public List<OrderResultDTO> placeOrders(@RequestBody List<OrderDTO> dtos) {
+        Map<Long, Integer> legsByClient = new HashMap<>();
+        for (OrderDTO dto : dtos) {
+            if (dto.getClientId() != null) {
+                legsByClient.merge(dto.getClientId(), 1, Integer::sum);
+            }
+        }
+        orderThrottle.acquire(legsByClient);
+        return orderService.placeOrders(dtos);
+    }
+
     @GetMapping
-    public List<OrderDTO> getAllOrders() {
-        return orderService.getAllOrders();
+    public ResponseEntity<List<OrderDTO>> getOrders(@RequestParam(defaultValue = "0") long afterId,
+                                                    @RequestParam(defaultValue = "100") int limit) {
+        List<OrderDTO> page = orderService.getOrders(afterId, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == limit) {
+            response.header(NEXT_AFTER_ID, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportOrders(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ObjectWriter writer = objectMapper.writerFor(OrderDTO.class);
+        try (OutputStream out = new BufferedOutputStream(response.getOutputStream())) {
+            orderService.exportOrders(order -> {
+                try {
+                    out.write(writer.writeValueAsBytes(order));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
     }
 
     @GetMapping("/{id}")
@@ -40,9 +99,24 @@ public class OrderController {
         orderService.cancelOrder(id);
     }
 
+    @PostMapping("/bulk-cancel")
+    public BulkCancelResultDTO cancelOrders(@RequestParam(required = false) Order.OrderStatus status,
+                                            @RequestParam(required = false) Order.Validity validity,
+                                            @RequestParam(required = false) Long instrumentId,
+                                            @RequestParam(required = false) Long clientId) {
+        return orderService.cancelOrders(status, validity, instrumentId, clientId);
+    }
+
     @GetMapping("/client/{clientId}")
-    public List<OrderDTO> getOrdersByClient(@PathVariable Long clientId) {
-        return orderService.getOrdersByClientId(clientId);
+    public ResponseEntity<List<OrderDTO>> getOrdersByClient(@PathVariable Long clientId,
+                                                            @RequestParam(required = false) Long beforeId,
+                                                            @RequestParam(defaultValue = "100") int limit) {
+        List<OrderDTO> page = orderService.getOrdersByClientId(clientId, beforeId == null ? Long.MAX_VALUE : beforeId, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == limit) {
+            response.header(NEXT_BEFORE_ID, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
     }
 
     @GetMapping("/pending")
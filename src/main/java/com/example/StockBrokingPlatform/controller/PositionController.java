@@ -0,0 +1,26 @@
+package com.example.StockBrokingPlatform.controller;
+
+import com.example.StockBrokingPlatform.DTO.PositionDTO;
+import com.example.StockBrokingPlatform.service.PositionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/positions")
+public class PositionController {
+
+    @Autowired
+    private PositionService positionService;
+
+    @GetMapping("/client/{clientId}")
+    public List<PositionDTO> getPositions(@PathVariable Long clientId) {
+        return positionService.getPositions(clientId);
+    }
+
+    @GetMapping("/client/{clientId}/instrument/{instrumentId}")
+    public PositionDTO getPosition(@PathVariable Long clientId, @PathVariable Long instrumentId) {
+        return positionService.getPosition(clientId, instrumentId);
+    }
+}
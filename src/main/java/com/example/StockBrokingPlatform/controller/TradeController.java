@@ -0,0 +1,33 @@
+package com.example.StockBrokingPlatform.controller;
+
+import com.example.StockBrokingPlatform.DTO.TradeDTO;
+import com.example.StockBrokingPlatform.service.TradeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/trades")
+public class TradeController {
+
+    @Autowired
+    private TradeService tradeService;
+
+    @GetMapping
+    public ResponseEntity<List<TradeDTO>> getTrades(@RequestParam(defaultValue = "0") long afterId,
+                                                    @RequestParam(defaultValue = "100") int limit) {
+        List<TradeDTO> page = tradeService.getTrades(afterId, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == limit) {
+            response.header(OrderController.NEXT_AFTER_ID, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    @GetMapping("/order/{orderId}")
+    public List<TradeDTO> getTradesByOrder(@PathVariable Long orderId) {
+        return tradeService.getTradesByOrderId(orderId);
+    }
+}
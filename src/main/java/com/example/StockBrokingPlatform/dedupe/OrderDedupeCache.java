@@ -0,0 +1,144 @@
+package com.example.StockBrokingPlatform.dedupe;
+
+import com.example.StockBrokingPlatform.DTO.OrderDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the result of every order placed with a client order id for a short window,
+ * so a retried submission is answered from memory with the original order instead of
+ * being validated, risk checked and placed again. A retry that arrives while the first
+ * attempt is still running waits for it. Failed placements are forgotten, so they can be
+ * retried. Entries are evicted oldest first once they leave the window
+ * ({@code order.dedupe.window-seconds}) or the cache is full ({@code order.dedupe.max-entries}).
+ */
+@Component
+public class OrderDedupeCache {
+
+    private record Key(long clientId, String clientOrderId) {
+    }
+
+    private record Entry(Key key, long createdAt, CompletableFuture<OrderDTO> result) {
+    }
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    // insertion order, for eviction; may still hold entries of failed placements
+    private final Queue<Entry> arrivals = new ConcurrentLinkedQueue<>();
+    private final LongSupplier clock;
+    private final long windowNanos;
+    private final int maxEntries;
+    private final Counter hits;
+
+    @Autowired
+    public OrderDedupeCache(MeterRegistry meterRegistry,
+                            @Value("${order.dedupe.window-seconds:300}") long windowSeconds,
+                            @Value("${order.dedupe.max-entries:100000}") int maxEntries) {
+        this(meterRegistry, System::nanoTime, TimeUnit.SECONDS.toNanos(windowSeconds), maxEntries);
+    }
+
+    OrderDedupeCache(MeterRegistry meterRegistry, LongSupplier clock, long windowNanos, int maxEntries) {
+        this.clock = clock;
+        this.windowNanos = windowNanos;
+        this.maxEntries = Math.max(1, maxEntries);
+        hits = Counter.builder("orders.dedupe.hits")
+                .description("Order submissions answered with the result of an earlier one")
+                .register(meterRegistry);
+        Gauge.builder("orders.dedupe.entries", entries, Map::size)
+                .description("Client order ids remembered for deduplication")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code placement} unless the same client order id was placed within the window,
+     * in which case the original result is returned (after waiting for it if needed).
+     */
+    public OrderDTO place(long clientId, String clientOrderId, Supplier<OrderDTO> placement) {
+        Key key = new Key(clientId, clientOrderId);
+        Entry entry = new Entry(key, clock.getAsLong(), new CompletableFuture<>());
+        evict(entry.createdAt());
+        Entry existing;
+        while ((existing = entries.putIfAbsent(key, entry)) != null) {
+            if (!expired(existing, entry.createdAt())) {
+                hits.increment();
+                return join(existing.result());
+            }
+            entries.remove(key, existing);
+        }
+        arrivals.add(entry);
+        try {
+            OrderDTO result = placement.get();
+            entry.result().complete(result);
+            return result;
+        } catch (RuntimeException ex) {
+            entries.remove(key, entry);
+            entry.result().completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * The successful result remembered for the client order id, or null if there is none
+     * (or its placement has not finished).
+     */
+    public OrderDTO get(long clientId, String clientOrderId) {
+        Entry entry = entries.get(new Key(clientId, clientOrderId));
+        if (entry == null || expired(entry, clock.getAsLong())
+                || !entry.result().isDone() || entry.result().isCompletedExceptionally()) {
+            return null;
+        }
+        hits.increment();
+        return entry.result().join();
+    }
+
+    // Records an order placed outside place(), e.g. a batch leg
+    public void remember(long clientId, String clientOrderId, OrderDTO result) {
+        Entry entry = new Entry(new Key(clientId, clientOrderId), clock.getAsLong(), CompletableFuture.completedFuture(result));
+        evict(entry.createdAt());
+        if (entries.putIfAbsent(entry.key(), entry) == null) {
+            arrivals.add(entry);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        Entry oldest;
+        while ((oldest = arrivals.peek()) != null && (expired(oldest, now) || entries.size() >= maxEntries)) {
+            if (arrivals.remove(oldest)) {
+                entries.remove(oldest.key(), oldest);
+            }
+        }
+    }
+
+    private boolean expired(Entry entry, long now) {
+        return now - entry.createdAt() >= windowNanos;
+    }
+
+    private static OrderDTO join(CompletableFuture<OrderDTO> result) {
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            // the original attempt failed; its caller and this one see the same error
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.StockBrokingPlatform.engine;
+
+import com.example.StockBrokingPlatform.model.Order;
+
+/**
+ * A single match between an incoming (aggressor) order and a resting order. Trades
+ * always print at the resting order's price.
+ */
+public record Fill(long instrumentId,
+                   long aggressorOrderId,
+                   long restingOrderId,
+                   Order.OrderType aggressorSide,
+                   long price,
+                   int quantity,
+                   int aggressorRemaining,
+                   int restingRemaining) {
+
+    public long buyOrderId() {
+        return aggressorSide == Order.OrderType.BUY ? aggressorOrderId : restingOrderId;
+    }
+
+    public long sellOrderId() {
+        return aggressorSide == Order.OrderType.SELL ? aggressorOrderId : restingOrderId;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.StockBrokingPlatform.engine;
+
+import com.example.StockBrokingPlatform.model.Order;
+import com.example.StockBrokingPlatform.money.Prices;
+
+import java.time.LocalDateTime;
+
+/**
+ * In-memory view of an order resting in an {@link OrderBook}. Instances are linked
+ * directly into their price level so cancels and fills never search a queue.
+ */
+public class LiveOrder {
+    private final long orderId;
+    private final long clientId;
+    private final long instrumentId;
+    private final Order.OrderType side;
+    private final Order.Validity validity;
+    private final LocalDateTime orderDate;
+    private long price;
+    private int quantity;
+    private int remainingQuantity;
+    private long averagePrice;
+    private String clientOrderId;
+    // journal sequence of the record that put the order at the back of its price level
+    private long priority;
+
+    PriceLevel level;
+    LiveOrder prev;
+    LiveOrder next;
+
+    public LiveOrder(long orderId, long clientId, long instrumentId, Order.OrderType side, long price, int quantity) {
+        this(orderId, clientId, instrumentId, side, Order.Validity.DAY, null, price, quantity, quantity);
+    }
+
+    public LiveOrder(long orderId, long clientId, long instrumentId, Order.OrderType side, Order.Validity validity,
+                     LocalDateTime orderDate, long price, int quantity, int remainingQuantity) {
+        this.orderId = orderId;
+        this.clientId = clientId;
+        this.instrumentId = instrumentId;
+        this.side = side;
+        this.validity = validity;
+        this.orderDate = orderDate;
+        this.price = price;
+        this.quantity = quantity;
+        this.remainingQuantity = remainingQuantity;
+    }
+
+    public static LiveOrder from(Order order) {
+        LiveOrder live = new LiveOrder(order.getId(), order.getClient().getId(), order.getInstrument().getId(),
+                order.getOrderType(), order.getValidity(), order.getOrderDate(),
+                order.getPrice(), order.getQuantity(), order.getQuantity() - order.getFilledQuantity());
+        live.setAveragePrice(order.getAveragePrice());
+        live.setClientOrderId(order.getClientOrderId());
+        return live;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public long getClientId() {
+        return clientId;
+    }
+
+    public long getInstrumentId() {
+        return instrumentId;
+    }
+
+    public Order.OrderType getSide() {
+        return side;
+    }
+
+    public Order.Validity getValidity() {
+        return validity;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public long getPrice() {
+        return price;
+    }
+
+    void setPrice(long price) {
+        this.price = price;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public int getRemainingQuantity() {
+        return remainingQuantity;
+    }
+
+    void setRemainingQuantity(int remainingQuantity) {
+        this.remainingQuantity = remainingQuantity;
+    }
+
+    public int getFilledQuantity() {
+        return quantity - remainingQuantity;
+    }
+
+    public long getAveragePrice() {
+        return averagePrice;
+    }
+
+    public void setAveragePrice(long averagePrice) {
+        this.averagePrice = averagePrice;
+    }
+
+    public String getClientOrderId() {
+        return clientOrderId;
+    }
+
+    public void setClientOrderId(String clientOrderId) {
+        this.clientOrderId = clientOrderId;
+    }
+
+    /**
+     * Time priority across restarts: resting a book's orders in ascending priority rebuilds
+     * every price level in its original queue order.
+     */
+    public long getPriority() {
+        return priority;
+    }
+
+    public void setPriority(long priority) {
+        this.priority = priority;
+    }
+
+    // Folds a fill into the average price; the caller then takes it off the remaining quantity
+    void addFill(long price, int quantity) {
+        averagePrice = Prices.weightedAverage(averagePrice, getFilledQuantity(), price, quantity);
+    }
+
+    public boolean isResting() {
+        return level != null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.StockBrokingPlatform.engine;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds one {@link OrderBook} per instrument. Books are not locked: every call for an
+ * instrument must come from the shard that owns it (see {@link OrderShards}). Matching is
+ * purely in memory; persisting the outcome is left to the caller.
+ */
+@Component
+public class MatchingEngine {
+
+    private final Map<Long, OrderBook> books = new ConcurrentHashMap<>();
+
+    public List<Fill> submit(LiveOrder order) {
+        return bookFor(order.getInstrumentId()).match(order);
+    }
+
+    public void rest(LiveOrder order) {
+        bookFor(order.getInstrumentId()).rest(order);
+    }
+
+    public List<Fill> amend(long instrumentId, long orderId, long price, int quantity, long priority) {
+        return bookFor(instrumentId).amend(orderId, price, quantity, priority);
+    }
+
+    public boolean cancel(long instrumentId, long orderId) {
+        OrderBook book = books.get(instrumentId);
+        return book != null && book.cancel(orderId) != null;
+    }
+
+    public OrderBook getBook(long instrumentId) {
+        return books.get(instrumentId);
+    }
+
+    public Collection<OrderBook> books() {
+        return books.values();
+    }
+
+    private OrderBook bookFor(long instrumentId) {
+        return books.computeIfAbsent(instrumentId, OrderBook::new);
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.StockBrokingPlatform.engine;
+
+import com.example.StockBrokingPlatform.model.Order;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Price-time priority limit order book for a single instrument. Not thread-safe:
+ * callers must make sure only one thread mutates a given book at a time.
+ */
+public class OrderBook {
+    private final long instrumentId;
+    private final TreeMap<Long, PriceLevel> bids = new TreeMap<>(Comparator.reverseOrder());
+    private final TreeMap<Long, PriceLevel> asks = new TreeMap<>();
+    private final Map<Long, LiveOrder> orders = new HashMap<>();
+
+    public OrderBook(long instrumentId) {
+        this.instrumentId = instrumentId;
+    }
+
+    public long getInstrumentId() {
+        return instrumentId;
+    }
+
+    /**
+     * Matches the incoming order against the opposite side and rests any remainder.
+     */
+    public List<Fill> match(LiveOrder incoming) {
+        List<Fill> fills = sweep(incoming);
+        if (incoming.getRemainingQuantity() > 0) {
+            rest(incoming);
+        }
+        return fills;
+    }
+
+    /**
+     * Adds an order to the book without matching it, e.g. when rebuilding after a restart.
+     */
+    public void rest(LiveOrder order) {
+        if (orders.containsKey(order.getOrderId())) {
+            return;
+        }
+        sideOf(order.getSide())
+                .computeIfAbsent(order.getPrice(), PriceLevel::new)
+                .append(order);
+        orders.put(order.getOrderId(), order);
+    }
+
+    public LiveOrder cancel(long orderId) {
+        LiveOrder order = orders.remove(orderId);
+        if (order != null) {
+            unlink(order);
+        }
+        return order;
+    }
+
+    /**
+     * Changes price and/or total quantity of a resting order; what has already been filled
+     * counts against the new quantity. A reduction at the same price keeps time priority;
+     * anything else re-queues the order with the given priority and may trade.
+     */
+    public List<Fill> amend(long orderId, long price, int quantity, long priority) {
+        LiveOrder order = orders.get(orderId);
+        if (order == null) {
+            return Collections.emptyList();
+        }
+        int remaining = Math.max(quantity - order.getFilledQuantity(), 0);
+        if (keepsPriority(order, price, quantity)) {
+            order.level.reduce(order, order.getRemainingQuantity() - remaining);
+            order.setQuantity(quantity);
+            if (remaining == 0) {
+                cancel(orderId);
+            }
+            return Collections.emptyList();
+        }
+        cancel(orderId);
+        order.setPrice(price);
+        order.setQuantity(quantity);
+        order.setRemainingQuantity(remaining);
+        order.setPriority(priority);
+        return match(order);
+    }
+
+    // Whether amending the order to this price and total quantity leaves it where it is in the queue
+    public static boolean keepsPriority(LiveOrder order, long price, int quantity) {
+        return price == order.getPrice() && quantity - order.getFilledQuantity() <= order.getRemainingQuantity();
+    }
+
+    public LiveOrder get(long orderId) {
+        return orders.get(orderId);
+    }
+
+    public int size() {
+        return orders.size();
+    }
+
+    /**
+     * Visits resting orders side by side, best price first and in time priority within a
+     * level, so re-resting them in the same order reproduces the book exactly.
+     */
+    public void forEach(Consumer<LiveOrder> visitor) {
+        visit(bids, visitor);
+        visit(asks, visitor);
+    }
+
+    public Long bestBid() {
+        return bids.isEmpty() ? null : bids.firstKey();
+    }
+
+    public Long bestAsk() {
+        return asks.isEmpty() ? null : asks.firstKey();
+    }
+
+    public long quantityAt(Order.OrderType side, long price) {
+        PriceLevel level = sideOf(side).get(price);
+        return level == null ? 0 : level.totalQuantity;
+    }
+
+    private List<Fill> sweep(LiveOrder incoming) {
+        TreeMap<Long, PriceLevel> opposite = incoming.getSide() == Order.OrderType.BUY ? asks : bids;
+        List<Fill> fills = new ArrayList<>();
+        while (incoming.getRemainingQuantity() > 0 && !opposite.isEmpty()) {
+            PriceLevel level = opposite.firstEntry().getValue();
+            if (!crosses(incoming, level.price)) {
+                break;
+            }
+            while (incoming.getRemainingQuantity() > 0 && !level.isEmpty()) {
+                LiveOrder resting = level.head;
+                int quantity = Math.min(incoming.getRemainingQuantity(), resting.getRemainingQuantity());
+                resting.addFill(level.price, quantity);
+                incoming.addFill(level.price, quantity);
+                level.reduce(resting, quantity);
+                incoming.setRemainingQuantity(incoming.getRemainingQuantity() - quantity);
+                fills.add(new Fill(instrumentId, incoming.getOrderId(), resting.getOrderId(), incoming.getSide(),
+                        level.price, quantity, incoming.getRemainingQuantity(), resting.getRemainingQuantity()));
+                if (resting.getRemainingQuantity() == 0) {
+                    level.remove(resting);
+                    orders.remove(resting.getOrderId());
+                }
+            }
+            if (level.isEmpty()) {
+                opposite.remove(level.price);
+            }
+        }
+        return fills;
+    }
+
+    private boolean crosses(LiveOrder incoming, long restingPrice) {
+        return incoming.getSide() == Order.OrderType.BUY
+                ? incoming.getPrice() >= restingPrice
+                : incoming.getPrice() <= restingPrice;
+    }
+
+    private static void visit(TreeMap<Long, PriceLevel> side, Consumer<LiveOrder> visitor) {
+        for (PriceLevel level : side.values()) {
+            for (LiveOrder order = level.head; order != null; order = order.next) {
+                visitor.accept(order);
+            }
+        }
+    }
+
+    private void unlink(LiveOrder order) {
+        PriceLevel level = order.level;
+        level.remove(order);
+        if (level.isEmpty()) {
+            sideOf(order.getSide()).remove(level.price);
+        }
+    }
+
+    private TreeMap<Long, PriceLevel> sideOf(Order.OrderType side) {
+        return side == Order.OrderType.BUY ? bids : asks;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.StockBrokingPlatform.engine;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Routes every order command for an instrument to the single thread that owns it, so
+ * order books and order rows for that instrument are only ever mutated by one writer.
+ */
+@Component
+public class OrderShards {
+
+    private final ExecutorService[] executors;
+    private final Thread[] threads;
+
+    public OrderShards(@Value("${order.pipeline.shards:0}") int shardCount) {
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        this.executors = new ExecutorService[count];
+        this.threads = new Thread[count];
+        for (int i = 0; i < count; i++) {
+            int shard = i;
+            executors[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "order-shard-" + shard);
+                thread.setDaemon(true);
+                threads[shard] = thread;
+                return thread;
+            });
+        }
+    }
+
+    public int shardCount() {
+        return executors.length;
+    }
+
+    public int shardOf(long instrumentId) {
+        long h = instrumentId * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(h ^ (h >>> 32), (long) executors.length);
+    }
+
+    /**
+     * Runs the command on the instrument's shard and waits for its result. Commands issued
+     * from the owning shard itself run inline.
+     */
+    public <T> T execute(long instrumentId, Supplier<T> command) {
+        return await(submit(instrumentId, command));
+    }
+
+    /**
+     * Queues the command on the instrument's shard without waiting, so commands for
+     * different shards can run in parallel; collect the result with {@link #await(Future)}.
+     */
+    public <T> Future<T> submit(long instrumentId, Supplier<T> command) {
+        int shard = shardOf(instrumentId);
+        if (Thread.currentThread() == threads[shard]) {
+            return CompletableFuture.completedFuture(command.get());
+        }
+        return executors[shard].submit(command::get);
+    }
+
+    /**
+     * Runs the command on the calling thread while every shard is parked between commands,
+     * so it sees all books at one point in the order stream. Must not be called from a shard.
+     */
+    public <T> T whilePaused(Supplier<T> command) {
+        for (Thread thread : threads) {
+            if (Thread.currentThread() == thread) {
+                throw new IllegalStateException("Shards cannot be paused from a shard thread");
+            }
+        }
+        CountDownLatch parked = new CountDownLatch(executors.length);
+        CountDownLatch resume = new CountDownLatch(1);
+        for (ExecutorService executor : executors) {
+            executor.execute(() -> {
+                parked.countDown();
+                try {
+                    resume.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        try {
+            parked.await();
+            return command.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while pausing order shards", ex);
+        } finally {
+            resume.countDown();
+        }
+    }
+
+    /**
+     * Waits for a submitted command and rethrows whatever it threw.
+     */
+    public static <T> T await(Future<T> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for order shard", ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService executor : executors) {
+            executor.shutdown();
+        }
+    }
+}
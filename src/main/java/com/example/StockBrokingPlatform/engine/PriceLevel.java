@@ -0,0 +1,58 @@
+package com.example.StockBrokingPlatform.engine;
+
+/**
+ * FIFO queue of orders at one price, kept as an intrusive doubly linked list so that
+ * append, pop and cancel are all O(1).
+ */
+class PriceLevel {
+    final long price;
+    LiveOrder head;
+    LiveOrder tail;
+    long totalQuantity;
+    int orderCount;
+
+    PriceLevel(long price) {
+        this.price = price;
+    }
+
+    void append(LiveOrder order) {
+        order.level = this;
+        order.prev = tail;
+        order.next = null;
+        if (tail == null) {
+            head = order;
+        } else {
+            tail.next = order;
+        }
+        tail = order;
+        totalQuantity += order.getRemainingQuantity();
+        orderCount++;
+    }
+
+    void remove(LiveOrder order) {
+        if (order.prev == null) {
+            head = order.next;
+        } else {
+            order.prev.next = order.next;
+        }
+        if (order.next == null) {
+            tail = order.prev;
+        } else {
+            order.next.prev = order.prev;
+        }
+        totalQuantity -= order.getRemainingQuantity();
+        orderCount--;
+        order.level = null;
+        order.prev = null;
+        order.next = null;
+    }
+
+    void reduce(LiveOrder order, int quantity) {
+        order.setRemainingQuantity(order.getRemainingQuantity() - quantity);
+        totalQuantity -= quantity;
+    }
+
+    boolean isEmpty() {
+        return head == null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.StockBrokingPlatform.exception;
+
+public class OrderThrottledException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public OrderThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
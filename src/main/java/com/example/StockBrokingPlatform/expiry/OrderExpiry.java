@@ -0,0 +1,146 @@
+package com.example.StockBrokingPlatform.expiry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiConsumer;
+
+/**
+ * Tracks the deadline of every resting DAY order on a {@link TimingWheel} and reports the
+ * orders that reached it, grouped by instrument, to the registered handler.
+ * <p>
+ * Shard threads schedule and cancel through lock-free queues; a single "order-expiry"
+ * thread owns the wheel, applies those commands and advances it once per tick.
+ */
+@Component
+public class OrderExpiry {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExpiry.class);
+
+    private final long tickMillis;
+    private final LocalTime sessionClose;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final TimingWheel wheel;
+    private final Map<Long, TimingWheel.Timer> timers = new ConcurrentHashMap<>();
+    private final Queue<TimingWheel.Timer> added = new ConcurrentLinkedQueue<>();
+    private final Queue<TimingWheel.Timer> cancelled = new ConcurrentLinkedQueue<>();
+    private volatile BiConsumer<Long, List<Long>> handler;
+    private volatile boolean running;
+    private Thread thread;
+
+    public OrderExpiry(@Value("${order.expiry.tick-ms:1000}") long tickMillis,
+                       @Value("${order.expiry.wheel-size:512}") int wheelSize,
+                       @Value("${order.expiry.session-close:15:30}") String sessionClose) {
+        this.tickMillis = tickMillis;
+        this.sessionClose = LocalTime.parse(sessionClose);
+        this.wheel = new TimingWheel(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    /**
+     * Registers what to do with expired orders: called with an instrument id and the ids of
+     * its orders that expired on the same tick.
+     */
+    public void onExpired(BiConsumer<Long, List<Long>> handler) {
+        this.handler = handler;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "order-expiry");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * End of the session an order placed at {@code orderDate} belongs to: today's close, or
+     * the next day's if it was placed after the close.
+     */
+    public LocalDateTime sessionEnd(LocalDateTime orderDate) {
+        LocalDateTime close = orderDate.toLocalDate().atTime(sessionClose);
+        return orderDate.isBefore(close) ? close : close.plusDays(1);
+    }
+
+    public void scheduleDayExpiry(long orderId, long instrumentId, LocalDateTime orderDate) {
+        LocalDateTime placed = orderDate != null ? orderDate : LocalDateTime.now();
+        schedule(orderId, instrumentId, sessionEnd(placed).atZone(zone).toInstant().toEpochMilli());
+    }
+
+    public void schedule(long orderId, long instrumentId, long deadlineMillis) {
+        TimingWheel.Timer timer = new TimingWheel.Timer(orderId, instrumentId, deadlineMillis);
+        TimingWheel.Timer previous = timers.put(orderId, timer);
+        if (previous != null) {
+            cancelled.add(previous);
+        }
+        added.add(timer);
+    }
+
+    public void cancel(long orderId) {
+        TimingWheel.Timer timer = timers.remove(orderId);
+        if (timer != null) {
+            cancelled.add(timer);
+        }
+    }
+
+    public int size() {
+        return timers.size();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                tick();
+                Thread.sleep(tickMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Order expiry tick failed", ex);
+            }
+        }
+    }
+
+    void tick() {
+        TimingWheel.Timer timer;
+        while ((timer = added.poll()) != null) {
+            if (timers.get(timer.orderId) == timer) {
+                wheel.add(timer);
+            }
+        }
+        while ((timer = cancelled.poll()) != null) {
+            wheel.cancel(timer);
+        }
+        Map<Long, List<Long>> expired = new LinkedHashMap<>();
+        wheel.advanceTo(System.currentTimeMillis(), fired -> {
+            if (timers.remove(fired.orderId, fired)) {
+                expired.computeIfAbsent(fired.instrumentId, id -> new ArrayList<>()).add(fired.orderId);
+            }
+        });
+        BiConsumer<Long, List<Long>> current = handler;
+        if (current != null) {
+            expired.forEach(current);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+}
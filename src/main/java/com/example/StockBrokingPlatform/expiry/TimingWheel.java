@@ -0,0 +1,140 @@
+package com.example.StockBrokingPlatform.expiry;
+
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: a ring of buckets, one per tick, each holding an intrusive doubly
+ * linked list of deadlines. Scheduling and cancelling are O(1); deadlines further out than
+ * one revolution carry a round count and are skipped until it reaches zero. Not
+ * thread-safe: owned by the thread that calls {@link #advanceTo}.
+ */
+public class TimingWheel {
+
+    public static final class Timer {
+        final long orderId;
+        final long instrumentId;
+        final long deadlineMillis;
+        long rounds;
+        Bucket bucket;
+        Timer prev;
+        Timer next;
+
+        public Timer(long orderId, long instrumentId, long deadlineMillis) {
+            this.orderId = orderId;
+            this.instrumentId = instrumentId;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        public long orderId() {
+            return orderId;
+        }
+
+        public long instrumentId() {
+            return instrumentId;
+        }
+    }
+
+    static final class Bucket {
+        Timer head;
+        Timer tail;
+
+        void add(Timer timer) {
+            timer.bucket = this;
+            timer.prev = tail;
+            if (tail == null) {
+                head = timer;
+            } else {
+                tail.next = timer;
+            }
+            tail = timer;
+        }
+
+        void remove(Timer timer) {
+            if (timer.prev == null) {
+                head = timer.next;
+            } else {
+                timer.prev.next = timer.next;
+            }
+            if (timer.next == null) {
+                tail = timer.prev;
+            } else {
+                timer.next.prev = timer.prev;
+            }
+            timer.bucket = null;
+            timer.prev = null;
+            timer.next = null;
+        }
+    }
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final Bucket[] buckets;
+    private final int mask;
+    // next tick to be processed
+    private long tick;
+    private int size;
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.buckets = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.mask = wheelSize - 1;
+    }
+
+    public Timer schedule(long orderId, long instrumentId, long deadlineMillis) {
+        Timer timer = new Timer(orderId, instrumentId, deadlineMillis);
+        add(timer);
+        return timer;
+    }
+
+    /**
+     * Adds a timer created elsewhere, e.g. on another thread and handed over to the owner.
+     */
+    public void add(Timer timer) {
+        // ceiling, so a timer never fires before its deadline; past deadlines fire on the next tick
+        long deadlineTick = Math.max(tick, Math.floorDiv(timer.deadlineMillis - startMillis + tickMillis - 1, tickMillis));
+        timer.rounds = (deadlineTick - tick) / buckets.length;
+        buckets[(int) (deadlineTick & mask)].add(timer);
+        size++;
+    }
+
+    public void cancel(Timer timer) {
+        if (timer.bucket != null) {
+            timer.bucket.remove(timer);
+            size--;
+        }
+    }
+
+    /**
+     * Processes every tick up to {@code nowMillis}, handing each expired timer to {@code expired}.
+     */
+    public void advanceTo(long nowMillis, Consumer<Timer> expired) {
+        long target = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        while (tick <= target) {
+            Bucket bucket = buckets[(int) (tick & mask)];
+            Timer timer = bucket.head;
+            while (timer != null) {
+                Timer next = timer.next;
+                if (timer.rounds <= 0) {
+                    bucket.remove(timer);
+                    size--;
+                    expired.accept(timer);
+                } else {
+                    timer.rounds--;
+                }
+                timer = next;
+            }
+            tick++;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.StockBrokingPlatform.index;
+
+/**
+ * Growable FIFO ring of longs, stored unboxed. Not thread safe.
+ */
+class LongQueue {
+
+    private long[] values = new long[16];
+    private int head;
+    private int size;
+
+    void add(long value) {
+        if (size == values.length) {
+            long[] grown = new long[values.length << 1];
+            for (int i = 0; i < size; i++) {
+                grown[i] = values[(head + i) & (values.length - 1)];
+            }
+            values = grown;
+            head = 0;
+        }
+        values[(head + size) & (values.length - 1)] = value;
+        size++;
+    }
+
+    long peek() {
+        if (size == 0) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        return values[head];
+    }
+
+    long poll() {
+        long value = peek();
+        head = (head + 1) & (values.length - 1);
+        size--;
+        return value;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+}
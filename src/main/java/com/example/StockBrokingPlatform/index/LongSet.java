@@ -0,0 +1,124 @@
+package com.example.StockBrokingPlatform.index;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Open-addressing set of positive longs (linear probing, 0 marks a free slot), so ids are
+ * stored unboxed in one array. Not thread safe.
+ */
+class LongSet {
+
+    private static final long FREE = 0;
+
+    private long[] slots;
+    private int size;
+
+    LongSet() {
+        this(16);
+    }
+
+    LongSet(int expected) {
+        int capacity = 16;
+        while (capacity < expected * 2) {
+            capacity <<= 1;
+        }
+        slots = new long[capacity];
+    }
+
+    boolean add(long value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("Only positive values can be stored: " + value);
+        }
+        if ((size + 1) * 2 > slots.length) {
+            rehash(slots.length << 1);
+        }
+        int mask = slots.length - 1;
+        for (int i = slot(value, mask); ; i = (i + 1) & mask) {
+            if (slots[i] == value) {
+                return false;
+            }
+            if (slots[i] == FREE) {
+                slots[i] = value;
+                size++;
+                return true;
+            }
+        }
+    }
+
+    boolean contains(long value) {
+        int mask = slots.length - 1;
+        for (int i = slot(value, mask); slots[i] != FREE; i = (i + 1) & mask) {
+            if (slots[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean remove(long value) {
+        int mask = slots.length - 1;
+        int i = slot(value, mask);
+        while (slots[i] != value) {
+            if (slots[i] == FREE) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        // shift later members of the probe run back so lookups never stop at the hole
+        int hole = i;
+        for (int j = (hole + 1) & mask; slots[j] != FREE; j = (j + 1) & mask) {
+            int home = slot(slots[j], mask);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                slots[hole] = slots[j];
+                hole = j;
+            }
+        }
+        slots[hole] = FREE;
+        size--;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // The members in slot order, without copying them out
+    void forEach(LongConsumer consumer) {
+        for (long slot : slots) {
+            if (slot != FREE) {
+                consumer.accept(slot);
+            }
+        }
+    }
+
+    /**
+     * The members in ascending order.
+     */
+    long[] toSortedArray() {
+        long[] values = new long[size];
+        int n = 0;
+        for (long slot : slots) {
+            if (slot != FREE) {
+                values[n++] = slot;
+            }
+        }
+        Arrays.sort(values);
+        return values;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = slots;
+        slots = new long[capacity];
+        size = 0;
+        for (long value : old) {
+            if (value != FREE) {
+                add(value);
+            }
+        }
+    }
+
+    private static int slot(long value, int mask) {
+        return (int) ((value * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
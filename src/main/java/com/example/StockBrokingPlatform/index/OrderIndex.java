@@ -0,0 +1,410 @@
+package com.example.StockBrokingPlatform.index;
+
+import com.example.StockBrokingPlatform.model.Order;
+import com.example.StockBrokingPlatform.persistence.OrderRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Latest state of the open orders and of the orders closed within the retention window
+ * ({@code order.index.closed-retention-seconds}), with each client's orders in id order and
+ * its client order ids, so lookups, recent client listings and duplicate client order id
+ * checks never touch the orders table. Closed orders are evicted once they leave the window,
+ * together with their client order ids, so memory follows the open orders and the recent
+ * flow rather than history; each client remembers the highest id it no longer holds, below
+ * which only the table is complete. The order service updates it on the shard thread with
+ * every state change it makes, before the row is written behind, and seeds it from the open
+ * orders once recovery has restored the table.
+ * <p>
+ * Rows are striped by order id and clients by client id, each stripe behind its own lock. A
+ * client stripe lock may be held while taking an order stripe lock, never the other way round.
+ */
+@Component
+public class OrderIndex {
+
+    private static final int STRIPE_BITS = 6;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+
+    private static final class OrderStripe {
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+        LongObjectMap<OrderRow> rows = new LongObjectMap<>();
+        LongSet open = new LongSet();
+        // (closed at, id) pairs in the order the orders closed
+        LongQueue closed = new LongQueue();
+    }
+
+    private static final class ClientOrders {
+        final SortedLongArray ids = new SortedLongArray();
+        final Map<String, Long> byClientOrderId = new HashMap<>();
+        // highest id of the client's orders that only the table holds
+        long historyThrough;
+
+        ClientOrders(long historyThrough) {
+            this.historyThrough = historyThrough;
+        }
+    }
+
+    private static final class ClientStripe {
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+        LongObjectMap<ClientOrders> clients = new LongObjectMap<>();
+    }
+
+    /**
+     * A client's orders below an id, newest first, and the highest id below which the rest
+     * of the client's history is only in the table (0 if there is none).
+     */
+    public record ClientPage(List<OrderRow> rows, long historyThrough) {
+    }
+
+    private final OrderStripe[] orderStripes = new OrderStripe[STRIPES];
+    private final ClientStripe[] clientStripes = new ClientStripe[STRIPES];
+    private final LongSupplier clock;
+    private final long retentionNanos;
+    // highest order id in the table when the index was loaded
+    private volatile long loadedThrough;
+
+    @Autowired
+    public OrderIndex(@Value("${order.index.closed-retention-seconds:3600}") long retentionSeconds) {
+        this(System::nanoTime, TimeUnit.SECONDS.toNanos(retentionSeconds));
+    }
+
+    OrderIndex(LongSupplier clock, long retentionNanos) {
+        this.clock = clock;
+        this.retentionNanos = retentionNanos;
+        for (int i = 0; i < STRIPES; i++) {
+            orderStripes[i] = new OrderStripe();
+            clientStripes[i] = new ClientStripe();
+        }
+    }
+
+    public void put(OrderRow row) {
+        ClientStripe clientStripe = clientStripe(row.clientId());
+        clientStripe.lock.writeLock().lock();
+        try {
+            ClientOrders client = client(clientStripe, row.clientId());
+            if (client.ids.add(row.id()) && row.clientOrderId() != null) {
+                client.byClientOrderId.put(row.clientOrderId(), row.id());
+            }
+            OrderStripe stripe = orderStripe(row.id());
+            stripe.lock.writeLock().lock();
+            try {
+                update(stripe, row);
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+        } finally {
+            clientStripe.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reserves a client order id for an order that is about to be journaled. Returns the id
+     * of the order already holding it, or null if the claim succeeded; the ids of orders at or
+     * below {@link #historyThrough} are only in the table.
+     */
+    public Long claimClientOrderId(long clientId, String clientOrderId, long orderId) {
+        ClientStripe clientStripe = clientStripe(clientId);
+        clientStripe.lock.writeLock().lock();
+        try {
+            Long holder = client(clientStripe, clientId).byClientOrderId.putIfAbsent(clientOrderId, orderId);
+            return holder == null || holder == orderId ? null : holder;
+        } finally {
+            clientStripe.lock.writeLock().unlock();
+        }
+    }
+
+    // Drops a claim whose order was never accepted
+    public void releaseClientOrderId(long clientId, String clientOrderId, long orderId) {
+        ClientStripe clientStripe = clientStripe(clientId);
+        clientStripe.lock.writeLock().lock();
+        try {
+            ClientOrders client = clientStripe.clients.get(clientId);
+            if (client != null) {
+                client.byClientOrderId.remove(clientOrderId, orderId);
+            }
+        } finally {
+            clientStripe.lock.writeLock().unlock();
+        }
+    }
+
+    // The id of the indexed order holding the client order id, open or recently closed
+    public Long byClientOrderId(long clientId, String clientOrderId) {
+        ClientStripe clientStripe = clientStripe(clientId);
+        clientStripe.lock.readLock().lock();
+        try {
+            ClientOrders client = clientStripe.clients.get(clientId);
+            return client == null ? null : client.byClientOrderId.get(clientOrderId);
+        } finally {
+            clientStripe.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The highest id of the client's orders the index does not hold, 0 if it holds them all.
+     */
+    public long historyThrough(long clientId) {
+        ClientStripe clientStripe = clientStripe(clientId);
+        clientStripe.lock.readLock().lock();
+        try {
+            ClientOrders client = clientStripe.clients.get(clientId);
+            return client == null ? loadedThrough : client.historyThrough;
+        } finally {
+            clientStripe.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves the orders that are still open to CANCELLED, as a bulk cancel does in the table.
+     */
+    public void cancelOpen(List<Long> orderIds) {
+        for (Long id : orderIds) {
+            OrderStripe stripe = orderStripe(id);
+            stripe.lock.writeLock().lock();
+            try {
+                OrderRow row = stripe.rows.get(id);
+                if (row != null && isOpen(row)) {
+                    update(stripe, row.withStatus(Order.OrderStatus.CANCELLED));
+                }
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // the table drops a client's orders along with the client
+    public void removeClient(long clientId) {
+        ClientStripe clientStripe = clientStripe(clientId);
+        clientStripe.lock.writeLock().lock();
+        try {
+            ClientOrders client = clientStripe.clients.remove(clientId);
+            if (client == null) {
+                return;
+            }
+            for (int i = 0; i < client.ids.size(); i++) {
+                long id = client.ids.get(i);
+                OrderStripe stripe = orderStripe(id);
+                stripe.lock.writeLock().lock();
+                try {
+                    // any entry left in the closed queue finds no row and is skipped
+                    stripe.rows.remove(id);
+                    stripe.open.remove(id);
+                } finally {
+                    stripe.lock.writeLock().unlock();
+                }
+            }
+        } finally {
+            clientStripe.lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        clear(0);
+    }
+
+    /**
+     * Empties the index before it is loaded from a table whose highest order id is
+     * {@code historyThrough}; listings and client order id checks below it need the table.
+     */
+    public void clear(long historyThrough) {
+        for (ClientStripe clientStripe : clientStripes) {
+            clientStripe.lock.writeLock().lock();
+            try {
+                clientStripe.clients = new LongObjectMap<>();
+            } finally {
+                clientStripe.lock.writeLock().unlock();
+            }
+        }
+        for (OrderStripe stripe : orderStripes) {
+            stripe.lock.writeLock().lock();
+            try {
+                stripe.rows = new LongObjectMap<>();
+                stripe.open = new LongSet();
+                stripe.closed = new LongQueue();
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+        }
+        loadedThrough = historyThrough;
+    }
+
+    /**
+     * The order if it is open or closed within the retention window, otherwise null.
+     */
+    public OrderRow get(long orderId) {
+        OrderStripe stripe = orderStripe(orderId);
+        stripe.lock.readLock().lock();
+        try {
+            return stripe.rows.get(orderId);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} of the client's indexed orders with ids below {@code beforeId},
+     * newest first. Orders at or below {@link ClientPage#historyThrough} are left to the
+     * table, even if some are still indexed, so the two never overlap.
+     */
+    public ClientPage byClient(long clientId, long beforeId, int limit) {
+        ClientStripe clientStripe = clientStripe(clientId);
+        clientStripe.lock.readLock().lock();
+        try {
+            ClientOrders client = clientStripe.clients.get(clientId);
+            if (client == null) {
+                return new ClientPage(List.of(), loadedThrough);
+            }
+            List<OrderRow> rows = new ArrayList<>(Math.min(limit, client.ids.size()));
+            for (int i = client.ids.indexBelow(beforeId);
+                 i >= 0 && rows.size() < limit && client.ids.get(i) > client.historyThrough; i--) {
+                OrderRow row = get(client.ids.get(i));
+                if (row != null) {
+                    rows.add(row);
+                }
+            }
+            return new ClientPage(rows, client.historyThrough);
+        } finally {
+            clientStripe.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The PENDING and PARTIALLY_FILLED orders, in id order.
+     */
+    public List<OrderRow> open() {
+        List<OrderRow> open = new ArrayList<>();
+        for (OrderStripe stripe : orderStripes) {
+            stripe.lock.readLock().lock();
+            try {
+                stripe.open.forEach(id -> open.add(stripe.rows.get(id)));
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        open.sort(Comparator.comparingLong(OrderRow::id));
+        return open;
+    }
+
+    // Every order it holds, open or closed
+    public int size() {
+        int size = 0;
+        for (OrderStripe stripe : orderStripes) {
+            stripe.lock.readLock().lock();
+            try {
+                size += stripe.rows.size();
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Evicts the orders that closed more than the retention window ago, with their client
+     * order ids. Returns how many were evicted.
+     */
+    @Scheduled(fixedDelayString = "${order.index.sweep-interval-ms:60000}",
+            initialDelayString = "${order.index.sweep-interval-ms:60000}")
+    public int evictClosed() {
+        long now = clock.getAsLong();
+        int evicted = 0;
+        for (OrderStripe stripe : orderStripes) {
+            List<OrderRow> expired = new ArrayList<>();
+            stripe.lock.writeLock().lock();
+            try {
+                while (!stripe.closed.isEmpty() && now - stripe.closed.peek() >= retentionNanos) {
+                    stripe.closed.poll();
+                    OrderRow row = stripe.rows.get(stripe.closed.poll());
+                    if (row != null && !isOpen(row)) {
+                        expired.add(row);
+                    }
+                }
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+            // dropped under the client's lock, which has to be taken first
+            for (OrderRow row : expired) {
+                if (evict(row)) {
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    private boolean evict(OrderRow row) {
+        ClientStripe clientStripe = clientStripe(row.clientId());
+        clientStripe.lock.writeLock().lock();
+        try {
+            ClientOrders client = clientStripe.clients.get(row.clientId());
+            if (client == null) {
+                return false;
+            }
+            OrderStripe stripe = orderStripe(row.id());
+            stripe.lock.writeLock().lock();
+            try {
+                if (stripe.rows.remove(row.id()) == null) {
+                    return false;
+                }
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+            client.ids.remove(row.id());
+            if (row.clientOrderId() != null) {
+                client.byClientOrderId.remove(row.clientOrderId(), row.id());
+            }
+            client.historyThrough = Math.max(client.historyThrough, row.id());
+            return true;
+        } finally {
+            clientStripe.lock.writeLock().unlock();
+        }
+    }
+
+    // Called with the stripe's write lock held
+    private void update(OrderStripe stripe, OrderRow row) {
+        OrderRow previous = stripe.rows.put(row.id(), row);
+        if (isOpen(row)) {
+            stripe.open.add(row.id());
+        } else if (previous == null || isOpen(previous)) {
+            stripe.open.remove(row.id());
+            stripe.closed.add(clock.getAsLong());
+            stripe.closed.add(row.id());
+        }
+    }
+
+    private ClientOrders client(ClientStripe clientStripe, long clientId) {
+        ClientOrders client = clientStripe.clients.get(clientId);
+        if (client == null) {
+            client = new ClientOrders(loadedThrough);
+            clientStripe.clients.put(clientId, client);
+        }
+        return client;
+    }
+
+    private static boolean isOpen(OrderRow row) {
+        return row.status() == null || row.status().isOpen();
+    }
+
+    private OrderStripe orderStripe(long orderId) {
+        return orderStripes[stripe(orderId)];
+    }
+
+    private ClientStripe clientStripe(long clientId) {
+        return clientStripes[stripe(clientId)];
+    }
+
+    private static int stripe(long id) {
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> (64 - STRIPE_BITS));
+    }
+}
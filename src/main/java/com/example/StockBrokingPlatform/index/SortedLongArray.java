@@ -0,0 +1,62 @@
+package com.example.StockBrokingPlatform.index;
+
+import java.util.Arrays;
+
+/**
+ * Growable array of distinct longs kept in ascending order. Appending a value above the
+ * current maximum, the usual case for newly allocated ids, is O(1); anything else shifts
+ * the tail. Not thread safe.
+ */
+class SortedLongArray {
+
+    private long[] values = new long[4];
+    private int size;
+
+    boolean add(long value) {
+        if (size > 0 && value <= values[size - 1]) {
+            int i = Arrays.binarySearch(values, 0, size, value);
+            if (i >= 0) {
+                return false;
+            }
+            insert(-i - 1, value);
+            return true;
+        }
+        insert(size, value);
+        return true;
+    }
+
+    boolean remove(long value) {
+        int i = Arrays.binarySearch(values, 0, size, value);
+        if (i < 0) {
+            return false;
+        }
+        System.arraycopy(values, i + 1, values, i, size - i - 1);
+        size--;
+        return true;
+    }
+
+    long get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Index of the largest value below {@code value}, or -1 if there is none.
+     */
+    int indexBelow(long value) {
+        int i = Arrays.binarySearch(values, 0, size, value);
+        return (i >= 0 ? i : -i - 1) - 1;
+    }
+
+    private void insert(int index, long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size << 1);
+        }
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+    }
+}
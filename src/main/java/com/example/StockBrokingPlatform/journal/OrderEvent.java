@@ -0,0 +1,282 @@
+package com.example.StockBrokingPlatform.journal;
+
+import com.example.StockBrokingPlatform.engine.LiveOrder;
+import com.example.StockBrokingPlatform.model.Order;
+import com.example.StockBrokingPlatform.model.Trade;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * One journal record: the command that was applied plus the full state of the order
+ * after it, so replay only has to keep the last record seen for each order id.
+ * Enums are stored by ordinal; new constants must only ever be appended. The client order
+ * id takes a fixed slot (length byte plus ASCII) so every record stays the same size.
+ * <p>
+ * The FILLED record of a resting order also carries the trade of that fill (id, the
+ * aggressor's order and client, quantity, price and time), so the trade tape can be rebuilt
+ * from the journal; the slot is zero in every other record.
+ */
+public class OrderEvent {
+
+    public enum Type {
+        PLACED, MODIFIED, CANCELLED, STATUS_CHANGED, FILLED
+    }
+
+    static final int CLIENT_ORDER_ID_SIZE = 1 + 36;
+    static final int TRADE_SIZE = 8 + 8 + 8 + 4 + 8 + 8;
+    static final int PAYLOAD_SIZE = 8 + 1 + 8 + 8 + 8 + 1 + 1 + 1 + 4 + 8 + 8 + 4 + 8 + CLIENT_ORDER_ID_SIZE + TRADE_SIZE;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private long sequence;
+    private final Type type;
+    private final long orderId;
+    private final long clientId;
+    private final long instrumentId;
+    private final Order.OrderType orderType;
+    private final Order.Validity validity;
+    private final Order.OrderStatus status;
+    private final int quantity;
+    private final long price;
+    private final LocalDateTime orderDate;
+    private final int filledQuantity;
+    private final long averagePrice;
+    private final String clientOrderId;
+    // 0 unless this is the resting side's record of a fill
+    private long tradeId;
+    private long counterOrderId;
+    private long counterClientId;
+    private int tradeQuantity;
+    private long tradePrice;
+    private LocalDateTime tradeTime;
+
+    public OrderEvent(Type type, long orderId, long clientId, long instrumentId, Order.OrderType orderType,
+                      Order.Validity validity, Order.OrderStatus status, int quantity, long price,
+                      LocalDateTime orderDate, int filledQuantity, long averagePrice, String clientOrderId) {
+        this.type = type;
+        this.orderId = orderId;
+        this.clientId = clientId;
+        this.instrumentId = instrumentId;
+        this.orderType = orderType;
+        this.validity = validity;
+        this.status = status;
+        this.quantity = quantity;
+        this.price = price;
+        this.orderDate = orderDate;
+        this.filledQuantity = filledQuantity;
+        this.averagePrice = averagePrice;
+        this.clientOrderId = clientOrderId;
+    }
+
+    public static OrderEvent of(Type type, Order order) {
+        return new OrderEvent(type, order.getId(), order.getClient().getId(), order.getInstrument().getId(),
+                order.getOrderType(), order.getValidity(), order.getOrderStatus(),
+                order.getQuantity(), order.getPrice(), order.getOrderDate(),
+                order.getFilledQuantity(), order.getAveragePrice(), order.getClientOrderId());
+    }
+
+    /**
+     * The resting order's FILLED record for one fill, carrying the trade; the other side of
+     * the trade is the aggressor.
+     */
+    public static OrderEvent filled(Order resting, Trade trade) {
+        OrderEvent event = of(Type.FILLED, resting);
+        boolean restingBuys = resting.getOrderType() == Order.OrderType.BUY;
+        event.tradeId = trade.getId();
+        event.counterOrderId = restingBuys ? trade.getSellOrderId() : trade.getBuyOrderId();
+        event.counterClientId = restingBuys ? trade.getSellClientId() : trade.getBuyClientId();
+        event.tradeQuantity = trade.getQuantity();
+        event.tradePrice = trade.getPrice();
+        event.tradeTime = trade.getTradeTime();
+        return event;
+    }
+
+    // Resting orders with fills come back from a snapshot as PARTIALLY_FILLED
+    public static OrderEvent of(LiveOrder order) {
+        return of(Type.PLACED, order, order.getFilledQuantity() > 0
+                ? Order.OrderStatus.PARTIALLY_FILLED : Order.OrderStatus.PENDING);
+    }
+
+    public static OrderEvent of(Type type, LiveOrder order, Order.OrderStatus status) {
+        return new OrderEvent(type, order.getOrderId(), order.getClientId(), order.getInstrumentId(),
+                order.getSide(), order.getValidity(), status,
+                order.getQuantity(), order.getPrice(), order.getOrderDate(),
+                order.getFilledQuantity(), order.getAveragePrice(), order.getClientOrderId());
+    }
+
+    public LiveOrder toLiveOrder() {
+        LiveOrder order = new LiveOrder(orderId, clientId, instrumentId, orderType, validity, orderDate, price,
+                quantity, quantity - filledQuantity);
+        order.setAveragePrice(averagePrice);
+        order.setClientOrderId(clientOrderId);
+        return order;
+    }
+
+    /**
+     * The trade this record carries, or null if it carries none.
+     */
+    public Trade toTrade() {
+        if (tradeId == 0) {
+            return null;
+        }
+        boolean restingBuys = orderType == Order.OrderType.BUY;
+        Trade trade = new Trade();
+        trade.setId(tradeId);
+        trade.setInstrumentId(instrumentId);
+        trade.setBuyOrderId(restingBuys ? orderId : counterOrderId);
+        trade.setSellOrderId(restingBuys ? counterOrderId : orderId);
+        trade.setBuyClientId(restingBuys ? clientId : counterClientId);
+        trade.setSellClientId(restingBuys ? counterClientId : clientId);
+        trade.setAggressorSide(restingBuys ? Order.OrderType.SELL : Order.OrderType.BUY);
+        trade.setQuantity(tradeQuantity);
+        trade.setPrice(tradePrice);
+        trade.setTradeTime(tradeTime);
+        return trade;
+    }
+
+    void encode(ByteBuffer buffer) {
+        buffer.putLong(sequence);
+        buffer.put((byte) type.ordinal());
+        buffer.putLong(orderId);
+        buffer.putLong(clientId);
+        buffer.putLong(instrumentId);
+        buffer.put(ordinal(orderType));
+        buffer.put(ordinal(validity));
+        buffer.put(ordinal(status));
+        buffer.putInt(quantity);
+        buffer.putLong(price);
+        buffer.putLong(toNanos(orderDate));
+        buffer.putInt(filledQuantity);
+        buffer.putLong(averagePrice);
+        putClientOrderId(buffer, clientOrderId);
+        buffer.putLong(tradeId);
+        buffer.putLong(counterOrderId);
+        buffer.putLong(counterClientId);
+        buffer.putInt(tradeQuantity);
+        buffer.putLong(tradePrice);
+        buffer.putLong(tradeId == 0 ? NO_DATE : toNanos(tradeTime));
+    }
+
+    static OrderEvent decode(ByteBuffer buffer) {
+        long sequence = buffer.getLong();
+        Type type = Type.values()[buffer.get()];
+        long orderId = buffer.getLong();
+        long clientId = buffer.getLong();
+        long instrumentId = buffer.getLong();
+        Order.OrderType orderType = valueOf(Order.OrderType.values(), buffer.get());
+        Order.Validity validity = valueOf(Order.Validity.values(), buffer.get());
+        Order.OrderStatus status = valueOf(Order.OrderStatus.values(), buffer.get());
+        int quantity = buffer.getInt();
+        long price = buffer.getLong();
+        LocalDateTime orderDate = fromNanos(buffer.getLong());
+        int filledQuantity = buffer.getInt();
+        long averagePrice = buffer.getLong();
+        String clientOrderId = getClientOrderId(buffer);
+        OrderEvent event = new OrderEvent(type, orderId, clientId, instrumentId, orderType, validity, status,
+                quantity, price, orderDate, filledQuantity, averagePrice, clientOrderId);
+        event.sequence = sequence;
+        event.tradeId = buffer.getLong();
+        event.counterOrderId = buffer.getLong();
+        event.counterClientId = buffer.getLong();
+        event.tradeQuantity = buffer.getInt();
+        event.tradePrice = buffer.getLong();
+        event.tradeTime = fromNanos(buffer.getLong());
+        return event;
+    }
+
+    static long toNanos(LocalDateTime dateTime) {
+        return dateTime == null ? NO_DATE
+                : dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+    }
+
+    static LocalDateTime fromNanos(long nanos) {
+        return nanos == NO_DATE ? null
+                : LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    // Length 0 is no id; unused bytes of the slot are left as zeros
+    static void putClientOrderId(ByteBuffer buffer, String clientOrderId) {
+        byte[] bytes = clientOrderId == null ? new byte[0] : clientOrderId.getBytes(StandardCharsets.US_ASCII);
+        buffer.put((byte) bytes.length);
+        buffer.put(bytes);
+        buffer.position(buffer.position() + CLIENT_ORDER_ID_SIZE - 1 - bytes.length);
+    }
+
+    static String getClientOrderId(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.get()];
+        buffer.get(bytes);
+        buffer.position(buffer.position() + CLIENT_ORDER_ID_SIZE - 1 - bytes.length);
+        return bytes.length == 0 ? null : new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    static byte ordinal(Enum<?> value) {
+        return (byte) (value == null ? -1 : value.ordinal());
+    }
+
+    static <E> E valueOf(E[] values, byte ordinal) {
+        return ordinal < 0 ? null : values[ordinal];
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public long getClientId() {
+        return clientId;
+    }
+
+    public long getInstrumentId() {
+        return instrumentId;
+    }
+
+    public Order.OrderType getOrderType() {
+        return orderType;
+    }
+
+    public Order.Validity getValidity() {
+        return validity;
+    }
+
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public long getPrice() {
+        return price;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public int getFilledQuantity() {
+        return filledQuantity;
+    }
+
+    public long getAveragePrice() {
+        return averagePrice;
+    }
+
+    public String getClientOrderId() {
+        return clientOrderId;
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.StockBrokingPlatform.journal;
+
+import com.example.StockBrokingPlatform.model.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of order commands backed by memory-mapped segment files.
+ * <p>
+ * Each segment starts with a small header and holds length-prefixed, CRC-checked
+ * {@link OrderEvent} records; a zero length marks the end of written data. Segments are
+ * named after the first sequence number they contain and roll over when full. Appends are
+ * a copy into the mapped page cache, so they survive a process crash immediately; the
+ * pages are forced to disk in batches every {@code order.journal.fsync-interval-ms} by a
+ * thread of the journal's own, so slow scheduled jobs never hold the fsync back. Segments
+ * a snapshot covers are deleted by {@link #truncateBefore}.
+ */
+@Component
+public class OrderJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderJournal.class);
+
+    private static final int MAGIC = 0x4F4A4E4C;
+    private static final int VERSION = 5;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long fsyncIntervalMs;
+    private ScheduledExecutorService fsync;
+
+    private MappedByteBuffer segment;
+    private long nextSequence = 1;
+    private volatile boolean dirty;
+
+    public OrderJournal(@Value("${order.journal.dir:data/journal}") String directory,
+                        @Value("${order.journal.segment-size:67108864}") int segmentSize,
+                        @Value("${order.journal.fsync-interval-ms:5}") long fsyncIntervalMs) {
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSize;
+        this.fsyncIntervalMs = fsyncIntervalMs;
+    }
+
+    @PostConstruct
+    public synchronized void open() {
+        try {
+            Files.createDirectories(directory);
+            startFsync();
+            List<Path> segments = segments();
+            if (segments.isEmpty()) {
+                roll();
+                return;
+            }
+            Path last = segments.get(segments.size() - 1);
+            segment = map(last);
+            if (segment.getInt(0) == 0) {
+                // crashed right after creating the file
+                segment.putInt(0, MAGIC);
+                segment.putInt(4, VERSION);
+            }
+            checkHeader(segment, last);
+            nextSequence = firstSequenceOf(last);
+            segment.position(HEADER_SIZE);
+            OrderEvent event;
+            while ((event = read(segment)) != null) {
+                nextSequence = event.getSequence() + 1;
+            }
+            terminate();
+            log.info("Order journal opened at {}, next sequence {}", directory.toAbsolutePath(), nextSequence);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open order journal in " + directory, ex);
+        }
+    }
+
+    public long append(OrderEvent.Type type, Order order) {
+        return append(OrderEvent.of(type, order));
+    }
+
+    public synchronized long append(OrderEvent event) {
+        if (segment.remaining() < RECORD_HEADER_SIZE + OrderEvent.PAYLOAD_SIZE + 4) {
+            roll();
+        }
+        event.setSequence(nextSequence++);
+        int start = segment.position();
+        segment.position(start + RECORD_HEADER_SIZE);
+        event.encode(segment);
+        ByteBuffer payload = segment.duplicate().position(start + RECORD_HEADER_SIZE).limit(segment.position());
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        segment.putInt(start + 4, (int) crc.getValue());
+        // length goes in last so a torn record never looks complete
+        segment.putInt(start, OrderEvent.PAYLOAD_SIZE);
+        terminate();
+        dirty = true;
+        return event.getSequence();
+    }
+
+    /**
+     * Streams every intact record with a sequence at or after {@code fromSequence}, in order.
+     */
+    public void replay(long fromSequence, Consumer<OrderEvent> consumer) {
+        try {
+            List<Path> segments = segments();
+            for (int i = 0; i < segments.size(); i++) {
+                if (i + 1 < segments.size() && firstSequenceOf(segments.get(i + 1)) <= fromSequence) {
+                    continue;
+                }
+                MappedByteBuffer buffer = map(segments.get(i));
+                checkHeader(buffer, segments.get(i));
+                buffer.position(HEADER_SIZE);
+                OrderEvent event;
+                while ((event = read(buffer)) != null) {
+                    if (event.getSequence() >= fromSequence) {
+                        consumer.accept(event);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot replay order journal in " + directory, ex);
+        }
+    }
+
+    public synchronized long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Deletes the segments holding only records before {@code sequence}, e.g. those the
+     * oldest retained snapshot covers. The segment being written is always kept.
+     *
+     * @return the number of segments deleted
+     */
+    public synchronized int truncateBefore(long sequence) {
+        try {
+            List<Path> segments = segments();
+            int deleted = 0;
+            for (int i = 0; i + 1 < segments.size() && firstSequenceOf(segments.get(i + 1)) <= sequence; i++) {
+                Files.deleteIfExists(segments.get(i));
+                deleted++;
+            }
+            return deleted;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot truncate order journal in " + directory, ex);
+        }
+    }
+
+    public void flush() {
+        if (dirty) {
+            MappedByteBuffer current;
+            synchronized (this) {
+                dirty = false;
+                current = segment;
+            }
+            current.force();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (fsync != null) {
+            fsync.shutdown();
+        }
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    private void startFsync() {
+        if (fsyncIntervalMs <= 0 || fsync != null) {
+            return;
+        }
+        fsync = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-journal-fsync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        fsync.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (RuntimeException ex) {
+                log.error("Order journal fsync failed", ex);
+            }
+        }, fsyncIntervalMs, fsyncIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void roll() {
+        try {
+            if (segment != null) {
+                segment.force();
+            }
+            Path file = directory.resolve(String.format("%020d%s", nextSequence, SUFFIX));
+            segment = map(file);
+            segment.putInt(0, MAGIC);
+            segment.putInt(4, VERSION);
+            segment.position(HEADER_SIZE);
+            terminate();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot roll order journal segment", ex);
+        }
+    }
+
+    private void terminate() {
+        if (segment.remaining() >= 4) {
+            segment.putInt(segment.position(), 0);
+        }
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = Math.max(channel.size(), segmentSize);
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private static OrderEvent read(ByteBuffer buffer) {
+        if (buffer.remaining() < RECORD_HEADER_SIZE) {
+            return null;
+        }
+        int start = buffer.position();
+        int length = buffer.getInt(start);
+        if (length != OrderEvent.PAYLOAD_SIZE || buffer.remaining() < RECORD_HEADER_SIZE + length) {
+            return null;
+        }
+        ByteBuffer payload = buffer.duplicate().position(start + RECORD_HEADER_SIZE).limit(start + RECORD_HEADER_SIZE + length);
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != buffer.getInt(start + 4)) {
+            return null;
+        }
+        OrderEvent event = OrderEvent.decode(payload);
+        buffer.position(start + RECORD_HEADER_SIZE + length);
+        return event;
+    }
+
+    private static void checkHeader(ByteBuffer buffer, Path file) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not an order journal segment (or unsupported version): " + file);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long firstSequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+}
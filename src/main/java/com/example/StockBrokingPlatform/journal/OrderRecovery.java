@@ -0,0 +1,185 @@
+package com.example.StockBrokingPlatform.journal;
+
+import com.example.StockBrokingPlatform.engine.LiveOrder;
+import com.example.StockBrokingPlatform.engine.MatchingEngine;
+import com.example.StockBrokingPlatform.engine.OrderBook;
+import com.example.StockBrokingPlatform.engine.OrderShards;
+import com.example.StockBrokingPlatform.model.Trade;
+import com.example.StockBrokingPlatform.persistence.OrderIdAllocator;
+import com.example.StockBrokingPlatform.position.PositionKeeper;
+import com.example.StockBrokingPlatform.service.OrderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rebuilds order state on startup from the latest snapshot and the journal written after
+ * it. The tables keep every order and trade, so only that journal suffix is written back:
+ * the last state of each order it touches and the trades it carries. Positions are the
+ * snapshotted ones with those trades applied, the order index is loaded from the open
+ * orders, and the live orders are re-rested in their original queue priority. Runs once all
+ * beans (and the seed data) are ready but before the web server and scheduled jobs start.
+ */
+@Component
+public class OrderRecovery implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderRecovery.class);
+
+    private static final String UPSERT_ORDER = "MERGE INTO orders " +
+            "(id, client_id, instrument_id, order_type, validity, status, quantity, price, order_date, " +
+            "filled_quantity, average_price, client_order_id) KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_TRADE = "MERGE INTO trade " +
+            "(id, instrument_id, buy_order_id, sell_order_id, buy_client_id, sell_client_id, aggressor_side, " +
+            "quantity, price, trade_time) KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private OrderJournal orderJournal;
+
+    @Autowired
+    private OrderSnapshotter orderSnapshotter;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MatchingEngine matchingEngine;
+
+    @Autowired
+    private OrderShards orderShards;
+
+    @Autowired
+    private OrderIdAllocator orderIdAllocator;
+
+    @Autowired
+    private PositionKeeper positionKeeper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        recover();
+    }
+
+    public void recover() {
+        long started = System.nanoTime();
+        OrderSnapshot snapshot = orderSnapshotter.loadLatest();
+        Map<Long, LiveOrder> live = new HashMap<>();
+        snapshot.getOrders().forEach(order -> live.put(order.getOrderId(), order));
+        Map<Long, OrderEvent> journaled = new HashMap<>();
+        List<Trade> journaledTrades = new ArrayList<>();
+        long[] replayed = new long[1];
+        orderJournal.replay(snapshot.getSequence() + 1, event -> {
+            replayed[0]++;
+            journaled.put(event.getOrderId(), event);
+            Trade trade = event.toTrade();
+            if (trade != null && trade.getId() > snapshot.getLastTradeId()) {
+                journaledTrades.add(trade);
+            }
+            LiveOrder previous = live.remove(event.getOrderId());
+            if (event.getStatus() != null && event.getStatus().isOpen()) {
+                LiveOrder order = event.toLiveOrder();
+                order.setPriority(priorityAfter(previous, event));
+                live.put(event.getOrderId(), order);
+            }
+        });
+        restore(journaled, snapshot.getHighestOrderId()).forEach(live::remove);
+        restoreTrades(journaledTrades);
+        positionKeeper.load(snapshot.getPositions(), journaledTrades);
+        rest(live.values());
+        orderService.loadOrderIndex();
+        orderService.loadOrderBooks();
+        orderService.enforceValidity();
+        log.info("Recovered {} live orders from snapshot at sequence {} plus {} journal records in {} ms",
+                live.size(), snapshot.getSequence(), replayed[0], (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // An order joins the back of its level when placed or when an amendment re-queues it,
+    // as the book does; every other change leaves it where it was
+    private static long priorityAfter(LiveOrder previous, OrderEvent event) {
+        if (previous == null || event.getType() == OrderEvent.Type.PLACED
+                || (event.getType() == OrderEvent.Type.MODIFIED
+                && !OrderBook.keepsPriority(previous, event.getPrice(), event.getQuantity()))) {
+            return event.getSequence();
+        }
+        return previous.getPriority();
+    }
+
+    private void rest(Collection<LiveOrder> orders) {
+        Map<Long, List<LiveOrder>> byInstrument = new LinkedHashMap<>();
+        orders.stream()
+                .sorted(Comparator.comparingLong(LiveOrder::getPriority))
+                .forEach(order -> byInstrument.computeIfAbsent(order.getInstrumentId(), id -> new ArrayList<>()).add(order));
+        byInstrument.forEach((instrumentId, instrumentOrders) -> orderShards.execute(instrumentId, () -> {
+            instrumentOrders.forEach(matchingEngine::rest);
+            return null;
+        }));
+    }
+
+    // Upserts the journaled orders and returns the ids that could not be restored
+    private List<Long> restore(Map<Long, OrderEvent> latest, long highestOrderId) {
+        List<Long> skipped = new ArrayList<>();
+        Set<Long> clientIds = new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM client", Long.class));
+        Set<Long> instrumentIds = new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM instrument", Long.class));
+        List<Object[]> rows = new ArrayList<>();
+        long maxId = 0;
+        for (OrderEvent event : latest.values()) {
+            maxId = Math.max(maxId, event.getOrderId());
+            if (!clientIds.contains(event.getClientId()) || !instrumentIds.contains(event.getInstrumentId())) {
+                log.warn("Skipping journaled order {}: client {} or instrument {} no longer exists",
+                        event.getOrderId(), event.getClientId(), event.getInstrumentId());
+                skipped.add(event.getOrderId());
+                continue;
+            }
+            rows.add(new Object[]{
+                    event.getOrderId(), event.getClientId(), event.getInstrumentId(),
+                    name(event.getOrderType()), name(event.getValidity()), name(event.getStatus()),
+                    event.getQuantity(), event.getPrice(),
+                    event.getOrderDate() == null ? null : Timestamp.valueOf(event.getOrderDate()),
+                    event.getFilledQuantity(), event.getAveragePrice(), event.getClientOrderId()});
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_ORDER, rows);
+        }
+        Long maxRowId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM orders", Long.class);
+        // ids of orders that left no trace, e.g. those of deleted clients, are not reused either
+        orderIdAllocator.reserveThrough(Math.max(highestOrderId, Math.max(maxId, maxRowId)));
+        log.info("Restored {} of {} journaled orders to the orders table", rows.size(), latest.size());
+        return skipped;
+    }
+
+    // Trades have no foreign keys, so those of deleted clients and orders come back too
+    private void restoreTrades(List<Trade> trades) {
+        List<Object[]> rows = new ArrayList<>(trades.size());
+        for (Trade trade : trades) {
+            rows.add(new Object[]{
+                    trade.getId(), trade.getInstrumentId(), trade.getBuyOrderId(), trade.getSellOrderId(),
+                    trade.getBuyClientId(), trade.getSellClientId(), name(trade.getAggressorSide()),
+                    trade.getQuantity(), trade.getPrice(),
+                    trade.getTradeTime() == null ? null : Timestamp.valueOf(trade.getTradeTime())});
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_TRADE, rows);
+        }
+        log.info("Restored {} journaled trades to the trade tape", rows.size());
+    }
+
+    private static String name(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.StockBrokingPlatform.journal;
+
+import com.example.StockBrokingPlatform.engine.LiveOrder;
+import com.example.StockBrokingPlatform.position.Position;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Live order state as of a journal sequence: the resting orders in book priority order per
+ * instrument, the highest order id handed out, the id of the last trade appended and every
+ * client's positions after it.
+ */
+public class OrderSnapshot {
+
+    public static final OrderSnapshot EMPTY = new OrderSnapshot(0, 0, Collections.emptyList(), 0,
+            Collections.emptyList());
+
+    private final long sequence;
+    private final long highestOrderId;
+    private final List<LiveOrder> orders;
+    private final long lastTradeId;
+    private final List<Position> positions;
+
+    public OrderSnapshot(long sequence, long highestOrderId, List<LiveOrder> orders, long lastTradeId,
+                         List<Position> positions) {
+        this.sequence = sequence;
+        this.highestOrderId = highestOrderId;
+        this.orders = orders;
+        this.lastTradeId = lastTradeId;
+        this.positions = positions;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getHighestOrderId() {
+        return highestOrderId;
+    }
+
+    public List<LiveOrder> getOrders() {
+        return orders;
+    }
+
+    public long getLastTradeId() {
+        return lastTradeId;
+    }
+
+    public List<Position> getPositions() {
+        return positions;
+    }
+}
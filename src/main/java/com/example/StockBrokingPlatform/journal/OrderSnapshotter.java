@@ -0,0 +1,295 @@
+package com.example.StockBrokingPlatform.journal;
+
+import com.example.StockBrokingPlatform.engine.LiveOrder;
+import com.example.StockBrokingPlatform.engine.MatchingEngine;
+import com.example.StockBrokingPlatform.engine.OrderBook;
+import com.example.StockBrokingPlatform.engine.OrderShards;
+import com.example.StockBrokingPlatform.model.Order;
+import com.example.StockBrokingPlatform.persistence.OrderIdAllocator;
+import com.example.StockBrokingPlatform.persistence.OrderWriteBehind;
+import com.example.StockBrokingPlatform.persistence.TradeTape;
+import com.example.StockBrokingPlatform.position.Position;
+import com.example.StockBrokingPlatform.position.PositionKeeper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Periodically writes the live order state to a binary snapshot file so startup only has to
+ * replay the journal written after it, and the journal segments before the oldest retained
+ * snapshot can be deleted. A snapshot holds only what is live: every resting order with its
+ * queue priority, the highest order id handed out, the id of the last trade and the
+ * positions. Closed orders and trades stay in their tables, so a snapshot grows with the
+ * books and not with history.
+ * <p>
+ * That state is copied while every shard is paused, so it describes one point in the order
+ * stream. Before the journal up to that point may go, the write-behind and the trade tape
+ * are waited for, so every row the deleted records described is in the database. Files are
+ * streamed to a temporary name and atomically renamed.
+ */
+@Component
+public class OrderSnapshotter {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSnapshotter.class);
+
+    private static final int MAGIC = 0x4F534E50;
+    private static final int VERSION = 8;
+    private static final int BOOK_HEADER_SIZE = 8 + 4;
+    private static final int RECORD_SIZE = 8 + 8 + 1 + 1 + 8 + 4 + 4 + 8 + 8 + 8 + OrderEvent.CLIENT_ORDER_ID_SIZE;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String PREFIX = "orders-";
+    private static final String SUFFIX = ".snapshot";
+
+    private record Cut(long sequence, long highestOrderId, long lastTradeId, List<ByteBuffer> books, int orderCount,
+                       List<Position> positions) {
+    }
+
+    private final MatchingEngine matchingEngine;
+    private final OrderShards orderShards;
+    private final OrderJournal orderJournal;
+    private final OrderIdAllocator orderIdAllocator;
+    private final OrderWriteBehind orderWriteBehind;
+    private final TradeTape tradeTape;
+    private final PositionKeeper positionKeeper;
+    private final Path directory;
+    private final int retained;
+    private long lastSnapshotSequence = -1;
+
+    @Autowired
+    public OrderSnapshotter(MatchingEngine matchingEngine, OrderShards orderShards, OrderJournal orderJournal,
+                            OrderIdAllocator orderIdAllocator, OrderWriteBehind orderWriteBehind,
+                            TradeTape tradeTape, PositionKeeper positionKeeper,
+                            @Value("${order.snapshot.dir:data/snapshots}") String directory,
+                            @Value("${order.snapshot.retained:2}") int retained) {
+        this.matchingEngine = matchingEngine;
+        this.orderShards = orderShards;
+        this.orderJournal = orderJournal;
+        this.orderIdAllocator = orderIdAllocator;
+        this.orderWriteBehind = orderWriteBehind;
+        this.tradeTape = tradeTape;
+        this.positionKeeper = positionKeeper;
+        this.directory = Paths.get(directory);
+        this.retained = Math.max(1, retained);
+    }
+
+    @Scheduled(fixedDelayString = "${order.snapshot.interval-ms:60000}",
+            initialDelayString = "${order.snapshot.interval-ms:60000}")
+    public synchronized void snapshot() {
+        Cut cut = orderShards.whilePaused(() -> {
+            long sequence = orderJournal.lastSequence();
+            if (sequence == lastSnapshotSequence) {
+                return null;
+            }
+            List<ByteBuffer> books = new ArrayList<>();
+            int orderCount = 0;
+            for (OrderBook book : matchingEngine.books()) {
+                if (book.size() > 0) {
+                    books.add(encode(book));
+                    orderCount += book.size();
+                }
+            }
+            // positions are immutable, so the list can be written once the shards run again
+            return new Cut(sequence, orderIdAllocator.highestIssued(), tradeTape.lastId(), books, orderCount,
+                    positionKeeper.all());
+        });
+        if (cut == null) {
+            return;
+        }
+        try {
+            orderWriteBehind.awaitFlushed();
+            tradeTape.awaitFlushed();
+            // the journal is the only copy of an order change the table refused
+            int deadLetters = orderWriteBehind.deadLetters();
+            if (deadLetters > 0) {
+                log.warn("Skipping order snapshot at sequence {}: {} order writes are waiting to be retried",
+                        cut.sequence(), deadLetters);
+                return;
+            }
+            write(cut);
+            prune();
+            lastSnapshotSequence = cut.sequence();
+            int truncated = orderJournal.truncateBefore(sequenceOf(snapshots().get(0)) + 1);
+            log.info("Wrote order snapshot at sequence {} with {} live orders and {} positions; deleted {} journal segments",
+                    cut.sequence(), cut.orderCount(), cut.positions().size(), truncated);
+        } catch (IOException | RuntimeException ex) {
+            log.error("Failed to write order snapshot at sequence {}", cut.sequence(), ex);
+        }
+    }
+
+    /**
+     * Loads the newest readable snapshot, falling back to older ones if it is damaged.
+     */
+    public OrderSnapshot loadLatest() {
+        List<Path> snapshots = snapshots();
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            try {
+                OrderSnapshot snapshot = read(snapshots.get(i));
+                lastSnapshotSequence = snapshot.getSequence();
+                return snapshot;
+            } catch (IOException | RuntimeException ex) {
+                log.warn("Ignoring unreadable order snapshot {}: {}", snapshots.get(i), ex.toString());
+            }
+        }
+        return OrderSnapshot.EMPTY;
+    }
+
+    private static ByteBuffer encode(OrderBook book) {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.addExact(BOOK_HEADER_SIZE, Math.multiplyExact(book.size(), RECORD_SIZE)));
+        buffer.putLong(book.getInstrumentId());
+        buffer.putInt(book.size());
+        book.forEach(order -> {
+            buffer.putLong(order.getOrderId());
+            buffer.putLong(order.getClientId());
+            buffer.put(OrderEvent.ordinal(order.getSide()));
+            buffer.put(OrderEvent.ordinal(order.getValidity()));
+            buffer.putLong(order.getPrice());
+            buffer.putInt(order.getQuantity());
+            buffer.putInt(order.getRemainingQuantity());
+            buffer.putLong(order.getAveragePrice());
+            buffer.putLong(OrderEvent.toNanos(order.getOrderDate()));
+            buffer.putLong(order.getPriority());
+            OrderEvent.putClientOrderId(buffer, order.getClientOrderId());
+        });
+        return buffer.flip();
+    }
+
+    private void write(Cut cut) throws IOException {
+        Files.createDirectories(directory);
+        Path target = directory.resolve(String.format("%s%020d%s", PREFIX, cut.sequence(), SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+            CheckedOutputStream checked = new CheckedOutputStream(file, new CRC32C());
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked, BUFFER_SIZE));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(cut.sequence());
+            out.writeLong(cut.highestOrderId());
+            out.writeLong(cut.lastTradeId());
+            out.writeInt(cut.books().size());
+            for (ByteBuffer book : cut.books()) {
+                out.write(book.array(), 0, book.limit());
+            }
+            out.writeInt(cut.positions().size());
+            for (Position position : cut.positions()) {
+                out.writeLong(position.clientId());
+                out.writeLong(position.instrumentId());
+                out.writeLong(position.netQuantity());
+                out.writeLong(position.averageCost());
+                out.writeLong(position.realisedPnl());
+            }
+            out.flush();
+            // the trailer goes straight to the file, after everything it covers
+            new DataOutputStream(file).writeInt((int) checked.getChecksum().getValue());
+            file.getChannel().force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static OrderSnapshot read(Path file) throws IOException {
+        long size = Files.size(file);
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE)) {
+            CheckedInputStream checked = new CheckedInputStream(raw, new CRC32C());
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IllegalStateException("not an order snapshot or unsupported version");
+            }
+            long sequence = in.readLong();
+            long highestOrderId = in.readLong();
+            long lastTradeId = in.readLong();
+            int bookCount = in.readInt();
+            List<LiveOrder> orders = new ArrayList<>();
+            for (int b = 0; b < bookCount; b++) {
+                long instrumentId = in.readLong();
+                int count = in.readInt();
+                if (count < 0 || (long) count * RECORD_SIZE > size) {
+                    throw new IllegalStateException("bad order count " + count);
+                }
+                ByteBuffer buffer = ByteBuffer.allocate(count * RECORD_SIZE);
+                in.readFully(buffer.array());
+                for (int i = 0; i < count; i++) {
+                    orders.add(decode(buffer, instrumentId));
+                }
+            }
+            int positionCount = in.readInt();
+            List<Position> positions = new ArrayList<>();
+            for (int i = 0; i < positionCount; i++) {
+                positions.add(new Position(in.readLong(), in.readLong(), in.readLong(), in.readLong(), in.readLong()));
+            }
+            int expected = (int) checked.getChecksum().getValue();
+            if (new DataInputStream(raw).readInt() != expected || raw.read() != -1) {
+                throw new IllegalStateException("checksum mismatch");
+            }
+            return new OrderSnapshot(sequence, highestOrderId, orders, lastTradeId, positions);
+        }
+    }
+
+    private static LiveOrder decode(ByteBuffer buffer, long instrumentId) {
+        long orderId = buffer.getLong();
+        long clientId = buffer.getLong();
+        Order.OrderType side = OrderEvent.valueOf(Order.OrderType.values(), buffer.get());
+        Order.Validity validity = OrderEvent.valueOf(Order.Validity.values(), buffer.get());
+        long price = buffer.getLong();
+        int quantity = buffer.getInt();
+        int remaining = buffer.getInt();
+        long averagePrice = buffer.getLong();
+        LiveOrder order = new LiveOrder(orderId, clientId, instrumentId, side, validity,
+                OrderEvent.fromNanos(buffer.getLong()), price, quantity, remaining);
+        order.setAveragePrice(averagePrice);
+        order.setPriority(buffer.getLong());
+        order.setClientOrderId(OrderEvent.getClientOrderId(buffer));
+        return order;
+    }
+
+    private void prune() throws IOException {
+        List<Path> snapshots = snapshots();
+        for (int i = 0; i < snapshots.size() - retained; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+
+    private static long sequenceOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private List<Path> snapshots() {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted(Comparator.comparing(Path::toString))
+                    .collect(Collectors.toList());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot list order snapshots in " + directory, ex);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.StockBrokingPlatform.mapper;
+
+import com.example.StockBrokingPlatform.DTO.BarDTO;
+import com.example.StockBrokingPlatform.bars.Bar;
+
+public class BarMapper {
+    public static BarDTO toDTO(Bar bar) {
+        BarDTO dto = new BarDTO();
+        dto.setTime(bar.start());
+        dto.setOpen(bar.open());
+        dto.setHigh(bar.high());
+        dto.setLow(bar.low());
+        dto.setClose(bar.close());
+        dto.setVolume(bar.volume());
+        return dto;
+    }
+}
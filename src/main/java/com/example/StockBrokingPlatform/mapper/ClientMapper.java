@@ -16,6 +16,9 @@ public class ClientMapper {
         dto.setPan(client.getPan());
         dto.setKycStatus(Client.KYCStatus.valueOf(client.getKycStatus().name()));
         dto.setStatus(Client.ClientStatus.valueOf(client.getStatus().name()));
+        dto.setMaxOrderValue(client.getMaxOrderValue());
+        dto.setExposureLimit(client.getExposureLimit());
+        dto.setTier(client.getTier());
         return dto;
     }
 
@@ -29,6 +32,9 @@ public class ClientMapper {
         client.setPan(dto.getPan());
         client.setKycStatus(dto.getKycStatus());
         client.setStatus(dto.getStatus());
+        client.setMaxOrderValue(dto.getMaxOrderValue());
+        client.setExposureLimit(dto.getExposureLimit());
+        client.setTier(dto.getTier());
         return client;
     }
 }
@@ -13,6 +13,7 @@ public class InstrumentMapper {
         dto.setExchange(instrument.getExchange());
         dto.setExchangeType(instrument.getExchangeType());
         dto.setCurrentPrice(instrument.getCurrentPrice());
+        dto.setTickSize(instrument.getTickSize());
         dto.setLotSize(instrument.getLotSize());
         return dto;
     }
@@ -25,6 +26,9 @@ public class InstrumentMapper {
         instrument.setExchange(dto.getExchange());
         instrument.setExchangeType(dto.getExchangeType());
         instrument.setCurrentPrice(dto.getCurrentPrice());
+        if (dto.getTickSize() > 0) {
+            instrument.setTickSize(dto.getTickSize());
+        }
         instrument.setLotSize(dto.getLotSize());
         return instrument;
     }
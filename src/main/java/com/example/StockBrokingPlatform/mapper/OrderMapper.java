@@ -4,6 +4,7 @@ import com.example.StockBrokingPlatform.DTO.OrderDTO;
 import com.example.StockBrokingPlatform.model.Client;
 import com.example.StockBrokingPlatform.model.Instrument;
 import com.example.StockBrokingPlatform.model.Order;
+import com.example.StockBrokingPlatform.persistence.OrderRow;
 
 public class OrderMapper {
     public static OrderDTO toDTO(Order entity) {
@@ -17,6 +18,28 @@ public class OrderMapper {
         dto.setStatus(entity.getOrderStatus());
         dto.setOrderDate(entity.getOrderDate());
         dto.setValidity(entity.getValidity());
+        dto.setFilledQuantity(entity.getFilledQuantity());
+        dto.setAveragePrice(entity.getAveragePrice());
+        dto.setVersion(entity.getVersion());
+        dto.setClientOrderId(entity.getClientOrderId());
+        return dto;
+    }
+
+    public static OrderDTO toDTO(OrderRow row) {
+        OrderDTO dto = new OrderDTO();
+        dto.setId(row.id());
+        dto.setClientId(row.clientId());
+        dto.setInstrumentId(row.instrumentId());
+        dto.setOrderType(row.orderType());
+        dto.setQuantity(row.quantity());
+        dto.setPrice(row.price());
+        dto.setStatus(row.status());
+        dto.setOrderDate(row.orderDate());
+        dto.setValidity(row.validity());
+        dto.setFilledQuantity(row.filledQuantity());
+        dto.setAveragePrice(row.averagePrice());
+        dto.setVersion(row.version());
+        dto.setClientOrderId(row.clientOrderId());
         return dto;
     }
 
@@ -31,6 +54,7 @@ public class OrderMapper {
         entity.setOrderStatus(dto.getStatus());
         entity.setOrderDate(dto.getOrderDate());
         entity.setValidity(dto.getValidity());
+        entity.setClientOrderId(dto.getClientOrderId());
         return entity;
     }
 }
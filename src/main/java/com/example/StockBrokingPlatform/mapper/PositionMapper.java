@@ -0,0 +1,18 @@
+package com.example.StockBrokingPlatform.mapper;
+
+import com.example.StockBrokingPlatform.DTO.PositionDTO;
+import com.example.StockBrokingPlatform.position.Position;
+
+public class PositionMapper {
+    public static PositionDTO toDTO(Position position, long markPrice) {
+        PositionDTO dto = new PositionDTO();
+        dto.setClientId(position.clientId());
+        dto.setInstrumentId(position.instrumentId());
+        dto.setNetQuantity(position.netQuantity());
+        dto.setAverageCost(position.averageCost());
+        dto.setRealisedPnl(position.realisedPnl());
+        dto.setMarkPrice(markPrice);
+        dto.setUnrealisedPnl(position.unrealisedPnl(markPrice));
+        return dto;
+    }
+}
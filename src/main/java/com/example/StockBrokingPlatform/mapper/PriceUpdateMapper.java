@@ -0,0 +1,14 @@
+package com.example.StockBrokingPlatform.mapper;
+
+import com.example.StockBrokingPlatform.DTO.PriceUpdateDTO;
+import com.example.StockBrokingPlatform.marketdata.PriceTable;
+
+public class PriceUpdateMapper {
+    public static PriceUpdateDTO toDTO(PriceTable.Quote quote) {
+        PriceUpdateDTO dto = new PriceUpdateDTO();
+        dto.setInstrumentId(quote.instrumentId());
+        dto.setPrice(quote.price());
+        dto.setTimestamp(quote.time());
+        return dto;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.StockBrokingPlatform.mapper;
+
+import com.example.StockBrokingPlatform.DTO.TickDTO;
+import com.example.StockBrokingPlatform.marketdata.Tick;
+
+public class TickMapper {
+    public static Tick toTick(TickDTO dto, long receivedAt) {
+        return new Tick(dto.getInstrumentId(), dto.getPrice(), dto.getQuantity(),
+                dto.getTimestamp() != null ? dto.getTimestamp() : receivedAt);
+    }
+}
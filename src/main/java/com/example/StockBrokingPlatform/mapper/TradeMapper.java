@@ -0,0 +1,21 @@
+package com.example.StockBrokingPlatform.mapper;
+
+import com.example.StockBrokingPlatform.DTO.TradeDTO;
+import com.example.StockBrokingPlatform.model.Trade;
+
+public class TradeMapper {
+    public static TradeDTO toDTO(Trade entity) {
+        TradeDTO dto = new TradeDTO();
+        dto.setId(entity.getId());
+        dto.setInstrumentId(entity.getInstrumentId());
+        dto.setBuyOrderId(entity.getBuyOrderId());
+        dto.setSellOrderId(entity.getSellOrderId());
+        dto.setBuyClientId(entity.getBuyClientId());
+        dto.setSellClientId(entity.getSellClientId());
+        dto.setAggressorSide(entity.getAggressorSide());
+        dto.setQuantity(entity.getQuantity());
+        dto.setPrice(entity.getPrice());
+        dto.setTradeTime(entity.getTradeTime());
+        return dto;
+    }
+}
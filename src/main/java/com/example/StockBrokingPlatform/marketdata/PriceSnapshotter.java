@@ -0,0 +1,75 @@
+package com.example.StockBrokingPlatform.marketdata;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps {@code instrument.current_price} in line with the {@link PriceTable}: loads the
+ * table from it on startup and then, every {@code market-data.snapshot.interval-ms}, writes
+ * the last price of each instrument that ticked since the previous run as one JDBC batch.
+ * However many ticks an instrument gets, it costs one row update per interval.
+ */
+@Component
+public class PriceSnapshotter implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceSnapshotter.class);
+
+    private static final String UPDATE_PRICE = "UPDATE instrument SET current_price = ? WHERE id = ?";
+
+    private final PriceTable priceTable;
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter writtenRows;
+
+    @Autowired
+    public PriceSnapshotter(PriceTable priceTable, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.priceTable = priceTable;
+        this.jdbcTemplate = jdbcTemplate;
+        this.writtenRows = Counter.builder("market_data.snapshot.rows")
+                .description("Instrument prices written back to the database")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        jdbcTemplate.query("SELECT id, current_price FROM instrument",
+                (ResultSet rs) -> priceTable.register(rs.getLong("id"), rs.getLong("current_price")));
+        log.info("Loaded prices of {} instruments", priceTable.size());
+    }
+
+    @Scheduled(fixedDelayString = "${market-data.snapshot.interval-ms:1000}",
+            initialDelayString = "${market-data.snapshot.interval-ms:1000}")
+    public synchronized void snapshot() {
+        Map<Long, Long> changed = priceTable.drainChanged();
+        if (changed.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(changed.size());
+        changed.forEach((instrumentId, price) -> args.add(new Object[]{price, instrumentId}));
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_PRICE, args);
+            writtenRows.increment(args.size());
+        } catch (RuntimeException ex) {
+            // the next run retries them with whatever price they have by then
+            changed.keySet().forEach(priceTable::markChanged);
+            log.error("Failed to write {} instrument prices", args.size(), ex);
+        }
+    }
+
+    @PreDestroy
+    public void flush() {
+        snapshot();
+    }
+}
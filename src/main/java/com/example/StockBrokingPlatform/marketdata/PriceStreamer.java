@@ -0,0 +1,247 @@
+package com.example.StockBrokingPlatform.marketdata;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Pushes price changes to subscribers, conflated per subscriber. A tick only flags the
+ * instrument as changed for each subscriber that follows it; at most once per
+ * {@code market-data.stream.interval-ms} a subscriber is sent the current quote of every
+ * flagged instrument, read from the {@link PriceTable}. A slow consumer therefore never
+ * builds a backlog: however many ticks arrive while it is being written to, it gets one
+ * quote per instrument, the latest.
+ * <p>
+ * Flagging happens on the tick ingestion thread and never blocks or allocates; batches are
+ * assembled on a small pool of {@code market-data.stream.threads} threads and written on a
+ * writer thread of their own, so a stalled client holds up nobody else. A subscriber whose
+ * write has not finished within {@code market-data.stream.send-timeout-ms} is dropped, as
+ * it would be if its connection failed; it never has more than one write in flight.
+ */
+@Component
+public class PriceStreamer {
+
+    /**
+     * Where a subscriber's batches go, e.g. a server-sent event stream.
+     */
+    public interface PriceSink {
+        void send(List<PriceTable.Quote> quotes) throws IOException;
+
+        void close();
+    }
+
+    private record Interest(Subscription subscription, int index) {
+    }
+
+    private final PriceTable priceTable;
+    private final ScheduledExecutorService senders;
+    private final ExecutorService writers;
+    private final long intervalMs;
+    private final long sendTimeoutMs;
+    private final int maxInstruments;
+    private final Map<Long, List<Interest>> byInstrument = new ConcurrentHashMap<>();
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Counter sent;
+    private final Counter conflated;
+    private final Counter timedOut;
+
+    @Autowired
+    public PriceStreamer(PriceTable priceTable, TickIngestor tickIngestor, MeterRegistry meterRegistry,
+                         @Value("${market-data.stream.interval-ms:250}") long intervalMs,
+                         @Value("${market-data.stream.threads:2}") int threads,
+                         @Value("${market-data.stream.max-instruments:200}") int maxInstruments,
+                         @Value("${market-data.stream.send-timeout-ms:5000}") long sendTimeoutMs) {
+        this.priceTable = priceTable;
+        this.intervalMs = intervalMs;
+        this.maxInstruments = maxInstruments;
+        this.sendTimeoutMs = sendTimeoutMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newScheduledThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "price-stream-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // one thread per write in flight, which is at most one per subscriber
+        AtomicInteger writerCount = new AtomicInteger();
+        this.writers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "price-stream-writer-" + writerCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sent = Counter.builder("market_data.stream.quotes")
+                .description("Quotes pushed to subscribers")
+                .register(meterRegistry);
+        this.conflated = Counter.builder("market_data.stream.conflated")
+                .description("Ticks folded into a quote that was already waiting to be sent")
+                .register(meterRegistry);
+        this.timedOut = Counter.builder("market_data.stream.timed_out")
+                .description("Subscribers dropped because a write to them did not finish in time")
+                .register(meterRegistry);
+        Gauge.builder("market_data.stream.subscribers", subscriptions, Set::size)
+                .description("Open price streams")
+                .register(meterRegistry);
+        tickIngestor.onTick(tick -> changed(tick.instrumentId()));
+    }
+
+    /**
+     * Starts streaming the instruments to the sink, beginning with their current quotes.
+     *
+     * @throws IllegalStateException if there are no instruments or more than allowed
+     */
+    public Subscription subscribe(Collection<Long> instrumentIds, PriceSink sink) {
+        long[] ids = instrumentIds.stream().mapToLong(Long::longValue).distinct().toArray();
+        if (ids.length == 0 || ids.length > maxInstruments) {
+            throw new IllegalStateException("A price stream must follow between 1 and " + maxInstruments + " instruments");
+        }
+        Subscription subscription = new Subscription(ids, sink);
+        subscriptions.add(subscription);
+        for (int i = 0; i < ids.length; i++) {
+            byInstrument.computeIfAbsent(ids[i], id -> new CopyOnWriteArrayList<>()).add(new Interest(subscription, i));
+            subscription.pending.set(i, 1);
+        }
+        subscription.schedule(0);
+        return subscription;
+    }
+
+    public void unsubscribe(Subscription subscription) {
+        if (!subscription.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriptions.remove(subscription);
+        for (long id : subscription.instrumentIds) {
+            List<Interest> interests = byInstrument.get(id);
+            if (interests != null) {
+                interests.removeIf(interest -> interest.subscription() == subscription);
+            }
+        }
+        subscription.sink.close();
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    // Runs on the tick ingestion thread
+    void changed(long instrumentId) {
+        List<Interest> interests = byInstrument.get(instrumentId);
+        if (interests == null) {
+            return;
+        }
+        for (Interest interest : interests) {
+            Subscription subscription = interest.subscription();
+            if (subscription.pending.getAndSet(interest.index(), 1) == 1) {
+                conflated.increment();
+            }
+            subscription.schedule(intervalMs);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscriptions.forEach(this::unsubscribe);
+        senders.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    public final class Subscription {
+        private final long[] instrumentIds;
+        private final PriceSink sink;
+        // 1 where the instrument changed since the last batch
+        private final AtomicIntegerArray pending;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscription(long[] instrumentIds, PriceSink sink) {
+            this.instrumentIds = instrumentIds;
+            this.sink = sink;
+            this.pending = new AtomicIntegerArray(instrumentIds.length);
+        }
+
+        private void schedule(long delayMs) {
+            if (!closed.get() && scheduled.compareAndSet(false, true)) {
+                senders.schedule(this::flush, delayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        // Runs on a sender thread: assembles the batch and hands it to a writer
+        private void flush() {
+            List<PriceTable.Quote> quotes = new ArrayList<>();
+            for (int i = 0; i < instrumentIds.length; i++) {
+                if (pending.getAndSet(i, 0) == 1) {
+                    PriceTable.Quote quote = priceTable.quote(instrumentIds[i]);
+                    if (quote != null) {
+                        quotes.add(quote);
+                    }
+                }
+            }
+            if (quotes.isEmpty() || closed.get()) {
+                written();
+                return;
+            }
+            Future<?> write;
+            try {
+                write = writers.submit(() -> write(quotes));
+            } catch (RejectedExecutionException ex) {
+                // shutting down
+                return;
+            }
+            senders.schedule(() -> {
+                if (!write.isDone()) {
+                    timedOut.increment();
+                    unsubscribe(this);
+                    write.cancel(true);
+                }
+            }, sendTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+
+        // Runs on a writer thread
+        private void write(List<PriceTable.Quote> quotes) {
+            try {
+                sink.send(quotes);
+                sent.increment(quotes.size());
+            } catch (IOException | RuntimeException ex) {
+                // the client went away
+                unsubscribe(this);
+                return;
+            }
+            written();
+        }
+
+        private void written() {
+            scheduled.set(false);
+            // anything flagged while this batch was being written goes out in the next one
+            for (int i = 0; i < instrumentIds.length; i++) {
+                if (pending.get(i) == 1) {
+                    schedule(intervalMs);
+                    return;
+                }
+            }
+        }
+
+        public boolean isClosed() {
+            return closed.get();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.StockBrokingPlatform.marketdata;
+
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Last price of every instrument, kept in memory and updated by the tick ingestion stage.
+ * It is the source of current prices for the order path and valuations; the instrument
+ * table only catches up when {@link PriceSnapshotter} writes the changed prices out.
+ * <p>
+ * Instrument ids are dense, so each id is its own slot: slots live in fixed-size pages of
+ * a {@code long[]}, allocated on first use and never moved, holding a sequence, the price,
+ * the tick time and a changed flag. Writers make the sequence odd with a CAS, write, and
+ * make it even again (a seqlock); readers never lock or allocate and retry only if they
+ * raced with a write. Only registered instruments are tracked, so ticks for unknown ids
+ * are dropped without a database lookup. Prices are 0 until the instrument has one.
+ */
+@Component
+public class PriceTable {
+
+    // ids beyond this are not tracked
+    static final int MAX_ID = 1 << 24;
+
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int STRIDE = 4;
+    private static final int SEQUENCE = 0;
+    private static final int PRICE = 1;
+    private static final int TIME = 2;
+    private static final int CHANGED = 3;
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(long[].class);
+
+    public record Quote(long instrumentId, long price, long time) {
+    }
+
+    private final AtomicReferenceArray<long[]> pages = new AtomicReferenceArray<>(MAX_ID >>> PAGE_BITS);
+    private final AtomicInteger size = new AtomicInteger();
+
+    // Tracks the instrument with a price that is already in the table (not written back)
+    public void register(long instrumentId, long price) {
+        if (instrumentId < 0 || instrumentId >= MAX_ID) {
+            return;
+        }
+        long[] page = pageFor((int) instrumentId);
+        int base = base(instrumentId);
+        if (write(page, base, price, 0, false) == 0) {
+            size.incrementAndGet();
+        }
+    }
+
+    /**
+     * Sets the instrument's price and marks it for the next snapshot.
+     *
+     * @return false if the instrument is not registered
+     */
+    public boolean update(long instrumentId, long price, long time) {
+        long[] page = page(instrumentId);
+        if (page == null) {
+            return false;
+        }
+        int base = base(instrumentId);
+        if ((long) SLOT.getAcquire(page, base + SEQUENCE) == 0) {
+            return false;
+        }
+        write(page, base, price, time, true);
+        return true;
+    }
+
+    public long price(long instrumentId) {
+        long[] page = page(instrumentId);
+        // a single long is never torn, so this needs no sequence check
+        return page == null ? 0 : (long) SLOT.getAcquire(page, base(instrumentId) + PRICE);
+    }
+
+    /**
+     * Price and tick time read together, or null if the instrument is not registered.
+     */
+    public Quote quote(long instrumentId) {
+        long[] page = page(instrumentId);
+        if (page == null) {
+            return null;
+        }
+        int base = base(instrumentId);
+        while (true) {
+            long sequence = (long) SLOT.getAcquire(page, base + SEQUENCE);
+            if (sequence == 0) {
+                return null;
+            }
+            long price = (long) SLOT.getOpaque(page, base + PRICE);
+            long time = (long) SLOT.getOpaque(page, base + TIME);
+            VarHandle.loadLoadFence();
+            if ((sequence & 1) == 0 && sequence == (long) SLOT.getOpaque(page, base + SEQUENCE)) {
+                return new Quote(instrumentId, price, time);
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    public boolean contains(long instrumentId) {
+        long[] page = page(instrumentId);
+        return page != null && (long) SLOT.getAcquire(page, base(instrumentId) + SEQUENCE) != 0;
+    }
+
+    /**
+     * Takes the prices updated since the last call. An update racing with this is either
+     * included or left marked for the next call, never lost.
+     */
+    public Map<Long, Long> drainChanged() {
+        Map<Long, Long> drained = new HashMap<>();
+        for (int p = 0; p < pages.length(); p++) {
+            long[] page = pages.get(p);
+            if (page == null) {
+                continue;
+            }
+            for (int base = 0; base < page.length; base += STRIDE) {
+                if ((long) SLOT.getOpaque(page, base + CHANGED) != 0
+                        && SLOT.compareAndSet(page, base + CHANGED, 1L, 0L)) {
+                    long instrumentId = ((long) p << PAGE_BITS) + base / STRIDE;
+                    drained.put(instrumentId, price(instrumentId));
+                }
+            }
+        }
+        return drained;
+    }
+
+    // Queues the instrument for the next snapshot again, e.g. after a failed write
+    void markChanged(long instrumentId) {
+        long[] page = page(instrumentId);
+        if (page != null) {
+            SLOT.setVolatile(page, base(instrumentId) + CHANGED, 1L);
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    // Returns the sequence the slot had before this write
+    private static long write(long[] page, int base, long price, long time, boolean changed) {
+        long sequence;
+        while (true) {
+            sequence = (long) SLOT.getVolatile(page, base + SEQUENCE);
+            if ((sequence & 1) == 0 && SLOT.compareAndSet(page, base + SEQUENCE, sequence, sequence + 1)) {
+                break;
+            }
+            Thread.onSpinWait();
+        }
+        SLOT.setOpaque(page, base + PRICE, price);
+        SLOT.setOpaque(page, base + TIME, time);
+        if (changed) {
+            SLOT.setOpaque(page, base + CHANGED, 1L);
+        }
+        SLOT.setRelease(page, base + SEQUENCE, sequence + 2);
+        return sequence;
+    }
+
+    private long[] page(long instrumentId) {
+        return instrumentId < 0 || instrumentId >= MAX_ID ? null : pages.get((int) (instrumentId >>> PAGE_BITS));
+    }
+
+    private long[] pageFor(int instrumentId) {
+        int index = instrumentId >>> PAGE_BITS;
+        long[] page = pages.get(index);
+        if (page == null) {
+            pages.compareAndSet(index, null, new long[PAGE_SIZE * STRIDE]);
+            page = pages.get(index);
+        }
+        return page;
+    }
+
+    private static int base(long instrumentId) {
+        return (int) (instrumentId & (PAGE_SIZE - 1)) * STRIDE;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.StockBrokingPlatform.marketdata;
+
+/**
+ * One last-traded price from the market data feed. The price is in {@code Prices} units
+ * (1/10000 rupee) and the timestamp in epoch milliseconds.
+ */
+public record Tick(long instrumentId, long price, long quantity, long timestamp) {
+}
@@ -0,0 +1,208 @@
+package com.example.StockBrokingPlatform.marketdata;
+
+import com.example.StockBrokingPlatform.refdata.ReferenceDataCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The tick ingestion stage. Feed adapters hand ticks over through a bounded queue and
+ * carry on; a single thread drains it in batches, writes each price into the
+ * {@link PriceTable} and passes the tick on to the registered listeners, in feed order.
+ * Every feed goes through the same checks ({@link #invalidReason}): a tick without a
+ * positive price on the instrument's tick grid, or with a negative quantity, is dropped.
+ * <p>
+ * Live feeds {@link #publish} and drop ticks when the queue is full (a newer tick for the
+ * same instrument follows soon enough); replays {@link #put} and wait for room instead.
+ */
+@Component
+public class TickIngestor {
+
+    private static final Logger log = LoggerFactory.getLogger(TickIngestor.class);
+
+    private final PriceTable priceTable;
+    private final ReferenceDataCache referenceDataCache;
+    private final BlockingQueue<Tick> queue;
+    private final int batchSize;
+    private final List<Consumer<Tick>> listeners = new CopyOnWriteArrayList<>();
+    private final Counter applied;
+    private final Counter dropped;
+    private final Counter unknown;
+    private final Counter invalid;
+
+    private final Object progress = new Object();
+    private long enqueued;
+    private long processed;
+    private volatile boolean running = true;
+    private Thread worker;
+
+    @Autowired
+    public TickIngestor(PriceTable priceTable, ReferenceDataCache referenceDataCache, MeterRegistry meterRegistry,
+                        @Value("${market-data.queue-capacity:65536}") int capacity,
+                        @Value("${market-data.batch-size:1024}") int batchSize) {
+        this.priceTable = priceTable;
+        this.referenceDataCache = referenceDataCache;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        Gauge.builder("market_data.queue.depth", queue, BlockingQueue::size)
+                .description("Ticks waiting to be applied to the price table")
+                .register(meterRegistry);
+        this.applied = Counter.builder("market_data.ticks").tag("outcome", "applied").register(meterRegistry);
+        this.dropped = Counter.builder("market_data.ticks").tag("outcome", "dropped").register(meterRegistry);
+        this.unknown = Counter.builder("market_data.ticks").tag("outcome", "unknown_instrument").register(meterRegistry);
+        this.invalid = Counter.builder("market_data.ticks").tag("outcome", "invalid").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        worker = new Thread(this::run, "market-data");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Listeners run on the ingestion thread and must not block
+    public void onTick(Consumer<Tick> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Queues the tick unless the stage is full.
+     *
+     * @return false if the tick was dropped
+     */
+    public boolean publish(Tick tick) {
+        if (offer(tick)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    // Queues the tick, waiting for room
+    public void put(Tick tick) throws InterruptedException {
+        while (!offer(tick)) {
+            if (!running) {
+                throw new IllegalStateException("Tick ingestion has stopped");
+            }
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+    }
+
+    private boolean offer(Tick tick) {
+        synchronized (progress) {
+            if (queue.offer(tick)) {
+                enqueued++;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Blocks until every tick queued before this call has been applied.
+     */
+    public void awaitProcessed() {
+        synchronized (progress) {
+            long target = enqueued;
+            while (processed < target && running) {
+                try {
+                    progress.wait(100);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void run() {
+        List<Tick> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Tick first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                for (Tick tick : batch) {
+                    apply(tick);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                if (!batch.isEmpty()) {
+                    synchronized (progress) {
+                        processed += batch.size();
+                        progress.notifyAll();
+                    }
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Why the tick must not reach the price table, or null if it may. Ticks for instruments
+     * the table does not track pass here and are counted as unknown when applied.
+     */
+    public String invalidReason(Tick tick) {
+        if (tick.price() <= 0) {
+            return "Tick price must be positive";
+        }
+        if (tick.quantity() < 0) {
+            return "Tick quantity must not be negative";
+        }
+        if (!priceTable.contains(tick.instrumentId())) {
+            return null;
+        }
+        ReferenceDataCache.InstrumentRef instrument = referenceDataCache.instrument(tick.instrumentId());
+        if (instrument != null && instrument.tickSize() > 0 && tick.price() % instrument.tickSize() != 0) {
+            return "Tick price must be a multiple of the tick size of instrument " + tick.instrumentId();
+        }
+        return null;
+    }
+
+    private void apply(Tick tick) {
+        if (invalidReason(tick) != null) {
+            invalid.increment();
+            return;
+        }
+        if (!priceTable.update(tick.instrumentId(), tick.price(), tick.timestamp())) {
+            unknown.increment();
+            return;
+        }
+        applied.increment();
+        for (Consumer<Tick> listener : listeners) {
+            try {
+                listener.accept(tick);
+            } catch (RuntimeException ex) {
+                log.error("Tick listener failed on instrument {}", tick.instrumentId(), ex);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+}
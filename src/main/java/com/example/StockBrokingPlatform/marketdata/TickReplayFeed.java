@@ -0,0 +1,93 @@
+package com.example.StockBrokingPlatform.marketdata;
+
+import com.example.StockBrokingPlatform.money.Prices;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Replays recorded ticks from a CSV file of {@code timestamp,instrumentId,price,quantity}
+ * lines (epoch milliseconds, price in rupees; {@code #} starts a comment). The file named
+ * by {@code market-data.replay.file} is replayed in the background once the application is
+ * up. Replays wait for room in the ingestion stage rather than dropping ticks.
+ */
+@Component
+public class TickReplayFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(TickReplayFeed.class);
+
+    private final TickIngestor tickIngestor;
+    private final String file;
+
+    @Autowired
+    public TickReplayFeed(TickIngestor tickIngestor, @Value("${market-data.replay.file:}") String file) {
+        this.tickIngestor = tickIngestor;
+        this.file = file;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayOnStartup() {
+        if (file.isBlank()) {
+            return;
+        }
+        Thread replayer = new Thread(() -> replay(Paths.get(file)), "market-data-replay");
+        replayer.setDaemon(true);
+        replayer.start();
+    }
+
+    /**
+     * @return the number of ticks handed to the ingestion stage
+     */
+    public long replay(Path path) {
+        long started = System.nanoTime();
+        long ticks = 0;
+        long skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                Tick tick = parse(line);
+                if (tick == null) {
+                    skipped++;
+                    continue;
+                }
+                tickIngestor.put(tick);
+                ticks++;
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot replay ticks from " + path, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Replayed {} ticks from {} in {} ms ({} malformed lines skipped)",
+                ticks, path, (System.nanoTime() - started) / 1_000_000, skipped);
+        return ticks;
+    }
+
+    static Tick parse(String line) {
+        String[] fields = line.split(",");
+        if (fields.length != 4) {
+            return null;
+        }
+        try {
+            return new Tick(Long.parseLong(fields[1].trim()), Prices.of(fields[2].trim()),
+                    Long.parseLong(fields[3].trim()), Long.parseLong(fields[0].trim()));
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.StockBrokingPlatform.marketdata;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Receives ticks as UDP datagrams on {@code market-data.udp.port} (0, the default, leaves
+ * the feed off). A datagram carries any number of fixed-size big-endian records of
+ * instrument id, price in {@code Prices} units, quantity and epoch-millisecond timestamp,
+ * each a long; a trailing partial record is ignored.
+ */
+@Component
+public class UdpTickFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(UdpTickFeed.class);
+
+    public static final int RECORD_SIZE = 8 + 8 + 8 + 8;
+
+    private final TickIngestor tickIngestor;
+    private final String host;
+    private final int port;
+    private DatagramChannel channel;
+    private Thread reader;
+
+    @Autowired
+    public UdpTickFeed(TickIngestor tickIngestor,
+                       @Value("${market-data.udp.host:127.0.0.1}") String host,
+                       @Value("${market-data.udp.port:0}") int port) {
+        this.tickIngestor = tickIngestor;
+        this.host = host;
+        this.port = port;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (port <= 0) {
+            return;
+        }
+        try {
+            channel = DatagramChannel.open().bind(new InetSocketAddress(host, port));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot listen for market data on " + host + ":" + port, ex);
+        }
+        reader = new Thread(this::run, "market-data-udp");
+        reader.setDaemon(true);
+        reader.start();
+        log.info("Listening for market data on udp://{}:{}", host, port);
+    }
+
+    private void run() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(65536);
+        while (channel.isOpen()) {
+            try {
+                buffer.clear();
+                channel.receive(buffer);
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_SIZE) {
+                    tickIngestor.publish(new Tick(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong()));
+                }
+            } catch (ClosedChannelException ex) {
+                return;
+            } catch (IOException ex) {
+                log.warn("Failed to receive market data: {}", ex.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.StockBrokingPlatform.migration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Migrates the schema as soon as the data source exists. The entity manager factory (and so
+ * the repositories and the seed data loaded after it) waits for the migration to finish.
+ */
+@Configuration
+public class MigrationConfig {
+
+    @Bean
+    public SchemaMigrator schemaMigrator(DataSource dataSource,
+                                         @Value("${schema.migration.location:classpath*:db/migration}") String location) {
+        SchemaMigrator migrator = new SchemaMigrator(dataSource, location);
+        migrator.migrate();
+        return migrator;
+    }
+
+    @Configuration
+    static class EntityManagerFactoryWaitsForMigration extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryWaitsForMigration() {
+            super(SchemaMigrator.class);
+        }
+    }
+}
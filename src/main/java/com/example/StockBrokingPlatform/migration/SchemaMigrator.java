@@ -0,0 +1,133 @@
+package com.example.StockBrokingPlatform.migration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Brings the schema up to date from versioned scripts named {@code V<n>__<description>.sql}.
+ * Scripts run once, in version order, and are recorded in {@code schema_version} with a
+ * checksum; editing a script after it has been applied fails startup instead of leaving
+ * databases that disagree. New schema changes go in a new script with the next version.
+ */
+public class SchemaMigrator {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    private static final String CREATE_VERSION_TABLE = "CREATE TABLE IF NOT EXISTS schema_version (" +
+            "version INT PRIMARY KEY, description VARCHAR(200) NOT NULL, checksum BIGINT NOT NULL, " +
+            "installed_on TIMESTAMP NOT NULL)";
+
+    record Migration(int version, String description, Resource script, long checksum) {
+    }
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final String location;
+
+    public SchemaMigrator(DataSource dataSource, String location) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.location = location;
+    }
+
+    /**
+     * Applies the pending scripts and returns how many ran.
+     */
+    public int migrate() {
+        long started = System.nanoTime();
+        jdbcTemplate.execute(CREATE_VERSION_TABLE);
+        Map<Integer, Long> applied = new HashMap<>();
+        jdbcTemplate.query("SELECT version, checksum FROM schema_version",
+                (ResultSet rs) -> {
+                    applied.put(rs.getInt("version"), rs.getLong("checksum"));
+                });
+        int ran = 0;
+        for (Migration migration : scan()) {
+            Long checksum = applied.get(migration.version());
+            if (checksum == null) {
+                apply(migration);
+                ran++;
+            } else if (checksum != migration.checksum()) {
+                throw new IllegalStateException("Migration V" + migration.version() + " (" + migration.description()
+                        + ") was changed after it was applied; add a new version instead");
+            }
+        }
+        log.info("Schema is at version {} ({} migrations applied in {} ms)", currentVersion(), ran,
+                (System.nanoTime() - started) / 1_000_000);
+        return ran;
+    }
+
+    public int currentVersion() {
+        Integer version = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(version), 0) FROM schema_version", Integer.class);
+        return version == null ? 0 : version;
+    }
+
+    List<Migration> scan() {
+        try {
+            Resource[] scripts = new PathMatchingResourcePatternResolver().getResources(location + "/V*__*.sql");
+            List<Migration> migrations = new ArrayList<>();
+            Map<Integer, String> seen = new HashMap<>();
+            for (Resource script : scripts) {
+                Matcher name = SCRIPT_NAME.matcher(script.getFilename());
+                if (!name.matches()) {
+                    throw new IllegalStateException("Migration script name not understood: " + script.getFilename());
+                }
+                int version = Integer.parseInt(name.group(1));
+                String previous = seen.put(version, script.getFilename());
+                if (previous != null) {
+                    throw new IllegalStateException("Two migrations share version " + version + ": "
+                            + previous + ", " + script.getFilename());
+                }
+                migrations.add(new Migration(version, name.group(2).replace('_', ' '), script, checksum(script)));
+            }
+            migrations.sort(Comparator.comparingInt(Migration::version));
+            return migrations;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void apply(Migration migration) {
+        log.info("Applying migration V{}: {}", migration.version(), migration.description());
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            ScriptUtils.executeSqlScript(connection, migration.script());
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        jdbcTemplate.update("INSERT INTO schema_version (version, description, checksum, installed_on) VALUES (?, ?, ?, ?)",
+                migration.version(), migration.description(), migration.checksum(), Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private static long checksum(Resource script) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream in = script.getInputStream()) {
+            crc.update(in.readAllBytes());
+        }
+        return crc.getValue();
+    }
+}
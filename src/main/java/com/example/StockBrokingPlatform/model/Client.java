@@ -36,12 +36,25 @@ public class Client {
         ACTIVE, INACTIVE
     }
 
+    // order rate limits, see OrderThrottle
+    public enum Tier {
+        STANDARD, PREMIUM, ALGO
+    }
+
     @Enumerated(EnumType.STRING)
     private KYCStatus kycStatus;
 
     @Enumerated(EnumType.STRING)
     private ClientStatus status;
 
+    // pre-trade limits in Prices units; null means the configured default
+    private Long maxOrderValue;
+    private Long exposureLimit;
+
+    // null means STANDARD
+    @Enumerated(EnumType.STRING)
+    private Tier tier;
+
     @OneToMany(mappedBy = "client", cascade = CascadeType.ALL)
     private List<WatchList> watchLists;
 
@@ -128,4 +141,27 @@ public class Client {
         this.status = status;
     }
 
+    public Long getMaxOrderValue() {
+        return maxOrderValue;
+    }
+
+    public void setMaxOrderValue(Long maxOrderValue) {
+        this.maxOrderValue = maxOrderValue;
+    }
+
+    public Long getExposureLimit() {
+        return exposureLimit;
+    }
+
+    public void setExposureLimit(Long exposureLimit) {
+        this.exposureLimit = exposureLimit;
+    }
+
+    public Tier getTier() {
+        return tier;
+    }
+
+    public void setTier(Tier tier) {
+        this.tier = tier;
+    }
 }
@@ -28,7 +28,9 @@ public class Instrument {
     @Enumerated(EnumType.STRING)
     private ExchangeType exchangeType;
 
-    private Double currentPrice;
+    // prices in Prices units (1/10000 rupee)
+    private long currentPrice;
+    private long tickSize = 1;
     private Integer lotSize;
 
     @OneToMany(mappedBy = "instrument")
@@ -78,14 +80,22 @@ public class Instrument {
         this.exchangeType = exchangeType;
     }
 
-    public Double getCurrentPrice() {
+    public long getCurrentPrice() {
         return currentPrice;
     }
 
-    public void setCurrentPrice(Double currentPrice) {
+    public void setCurrentPrice(long currentPrice) {
         this.currentPrice = currentPrice;
     }
 
+    public long getTickSize() {
+        return tickSize;
+    }
+
+    public void setTickSize(long tickSize) {
+        this.tickSize = tickSize;
+    }
+
     public Integer getLotSize() {
         return lotSize;
     }
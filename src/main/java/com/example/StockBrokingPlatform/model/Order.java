@@ -7,15 +7,15 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "orders")
 public class Order {
+    // assigned by OrderIdAllocator from orders_seq before the row is written
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "client_id")
     private Client client;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "instrument_id")
     private Instrument instrument;
 
@@ -25,8 +25,14 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private OrderType orderType;
 
+    // journaled by ordinal: only ever append constants
     public enum OrderStatus{
-        PENDING, EXECUTED, CANCELLED
+        PENDING, EXECUTED, CANCELLED, PARTIALLY_FILLED;
+
+        // still resting in the book and open to fills, amendments and cancels
+        public boolean isOpen() {
+            return this == PENDING || this == PARTIALLY_FILLED;
+        }
     };
     @Enumerated(EnumType.STRING)
     @Column(name = "status")
@@ -38,9 +44,19 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private Validity validity;
 
-    private Integer quantity;
-    private Double price;
+    private int quantity;
+    // in Prices units (1/10000 rupee)
+    private long price;
     private LocalDateTime orderDate;
+    private int filledQuantity;
+    // volume-weighted over the fills, in Prices units
+    private long averagePrice;
+    // caller's idempotency key, unique per client
+    @Column(length = 36)
+    private String clientOrderId;
+    // bumped by OrderService on every change; row updates are conditional on the previous value
+    @Version
+    private long version;
 
     public Long getId() {
         return id;
@@ -66,19 +82,19 @@ public class Order {
         this.instrument = instrument;
     }
 
-    public Integer getQuantity() {
+    public int getQuantity() {
         return quantity;
     }
 
-    public void setQuantity(Integer quantity) {
+    public void setQuantity(int quantity) {
         this.quantity = quantity;
     }
 
-    public Double getPrice() {
+    public long getPrice() {
         return price;
     }
 
-    public void setPrice(Double price) {
+    public void setPrice(long price) {
         this.price = price;
     }
 
@@ -90,6 +106,38 @@ public class Order {
         this.orderDate = orderDate;
     }
 
+    public int getFilledQuantity() {
+        return filledQuantity;
+    }
+
+    public void setFilledQuantity(int filledQuantity) {
+        this.filledQuantity = filledQuantity;
+    }
+
+    public long getAveragePrice() {
+        return averagePrice;
+    }
+
+    public void setAveragePrice(long averagePrice) {
+        this.averagePrice = averagePrice;
+    }
+
+    public String getClientOrderId() {
+        return clientOrderId;
+    }
+
+    public void setClientOrderId(String clientOrderId) {
+        this.clientOrderId = clientOrderId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public OrderType getOrderType() {
         return orderType;
     }
@@ -0,0 +1,39 @@
+package com.example.StockBrokingPlatform.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+/**
+ * Converts fixed-point price fields to and from decimal rupees in JSON, so the API keeps
+ * accepting and returning {@code 2450.50} while DTOs hold {@code 24505000}.
+ */
+public final class PriceJson {
+
+    private PriceJson() {
+    }
+
+    public static class Serializer extends JsonSerializer<Long> {
+        @Override
+        public void serialize(Long units, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(Prices.format(units));
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<Long> {
+        @Override
+        public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            try {
+                return Prices.of(parser.getValueAsString());
+            } catch (ArithmeticException | NumberFormatException e) {
+                return (Long) context.handleWeirdStringValue(Long.class, parser.getText(),
+                        "not a price with at most %d decimals", Prices.DECIMALS);
+            }
+        }
+    }
+}
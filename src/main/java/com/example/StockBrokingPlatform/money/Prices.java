@@ -0,0 +1,51 @@
+package com.example.StockBrokingPlatform.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Prices are carried as longs in units of 1/{@value #SCALE} rupee everywhere below the JSON
+ * layer. Four decimals rather than paise because currency derivatives tick in 0.0025.
+ */
+public final class Prices {
+
+    public static final int DECIMALS = 4;
+    public static final long SCALE = 10_000L;
+
+    private Prices() {
+    }
+
+    /**
+     * @throws ArithmeticException if the value has more than {@value #DECIMALS} decimals
+     */
+    public static long of(BigDecimal rupees) {
+        return rupees.movePointRight(DECIMALS).setScale(0, RoundingMode.UNNECESSARY).longValueExact();
+    }
+
+    public static long of(String rupees) {
+        return of(new BigDecimal(rupees));
+    }
+
+    public static BigDecimal toDecimal(long units) {
+        return BigDecimal.valueOf(units, DECIMALS);
+    }
+
+    /**
+     * Average price after one more fill: {@code averagePrice} over {@code quantity} already
+     * filled, weighted with {@code fillQuantity} at {@code fillPrice}, rounded half up.
+     */
+    public static long weightedAverage(long averagePrice, long quantity, long fillPrice, long fillQuantity) {
+        long total = quantity + fillQuantity;
+        if (total == 0) {
+            return 0;
+        }
+        long notional = Math.addExact(Math.multiplyExact(averagePrice, quantity), Math.multiplyExact(fillPrice, fillQuantity));
+        return Math.floorDiv(notional + total / 2, total);
+    }
+
+    // Shortest form with at least one decimal, e.g. 2450.5 or 62500.0
+    public static String format(long units) {
+        BigDecimal decimal = toDecimal(units).stripTrailingZeros();
+        return (decimal.scale() < 1 ? decimal.setScale(1) : decimal).toPlainString();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.StockBrokingPlatform.persistence;
+
+import com.example.StockBrokingPlatform.model.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads the orders table in primary key order without going through the persistence
+ * context. Pages seek past the last id seen instead of using an offset, so every page
+ * costs the same however deep it is; {@link #forEach} walks the whole table through one
+ * forward-only cursor and hands rows over one at a time. Also serves the orders the order
+ * index no longer holds, including client listings past it.
+ */
+@Component
+public class OrderCursor {
+
+    private static final String COLUMNS = "SELECT id, client_id, instrument_id, order_type, validity, " +
+            "status, quantity, price, order_date, filled_quantity, average_price, " +
+            "client_order_id, version FROM orders";
+    private static final String SELECT_ORDERS = COLUMNS + " WHERE id > ? ORDER BY id";
+    private static final String SELECT_OPEN_ORDERS = COLUMNS + " WHERE status IN ('PENDING', 'PARTIALLY_FILLED')";
+
+    private static final RowMapper<OrderRow> ROW_MAPPER = (rs, rowNum) -> toRow(rs);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    @Autowired
+    public OrderCursor(JdbcTemplate jdbcTemplate, @Value("${order.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    public List<OrderRow> page(long afterId, int limit) {
+        return jdbcTemplate.query(SELECT_ORDERS + " LIMIT ?", ROW_MAPPER, afterId, limit);
+    }
+
+    public OrderRow find(long id) {
+        return jdbcTemplate.query(COLUMNS + " WHERE id = ?", ROW_MAPPER, id).stream().findFirst().orElse(null);
+    }
+
+    /**
+     * Up to {@code limit} of the client's orders with ids below {@code beforeId}, newest first.
+     */
+    public List<OrderRow> byClient(long clientId, long beforeId, int limit) {
+        return jdbcTemplate.query(COLUMNS + " WHERE client_id = ? AND id < ? ORDER BY id DESC LIMIT ?",
+                ROW_MAPPER, clientId, beforeId, limit);
+    }
+
+    // The id of the client's order holding the client order id, through its unique index
+    public Long findIdByClientOrderId(long clientId, String clientOrderId) {
+        return jdbcTemplate.query("SELECT id FROM orders WHERE client_id = ? AND client_order_id = ?",
+                (rs, rowNum) -> rs.getLong(1), clientId, clientOrderId).stream().findFirst().orElse(null);
+    }
+
+    public long maxId() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM orders", Long.class);
+        return maxId == null ? 0 : maxId;
+    }
+
+    public void forEach(long afterId, Consumer<OrderRow> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ORDERS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setLong(1, afterId);
+            return statement;
+        }, (ResultSet rs) -> consumer.accept(toRow(rs)));
+    }
+
+    // Open orders only, through the status index, so the cost follows the open orders and not history
+    public void forEachOpen(Consumer<OrderRow> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_OPEN_ORDERS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (ResultSet rs) -> consumer.accept(toRow(rs)));
+    }
+
+    private static OrderRow toRow(ResultSet rs) throws SQLException {
+        Timestamp orderDate = rs.getTimestamp("order_date");
+        return new OrderRow(rs.getLong("id"), rs.getLong("client_id"), rs.getLong("instrument_id"),
+                valueOf(Order.OrderType.class, rs.getString("order_type")),
+                valueOf(Order.Validity.class, rs.getString("validity")),
+                valueOf(Order.OrderStatus.class, rs.getString("status")),
+                rs.getInt("quantity"), rs.getLong("price"),
+                orderDate == null ? null : orderDate.toLocalDateTime(),
+                rs.getInt("filled_quantity"), rs.getLong("average_price"),
+                rs.getString("client_order_id"), rs.getLong("version"));
+    }
+
+    private static <E extends Enum<E>> E valueOf(Class<E> type, String name) {
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.StockBrokingPlatform.persistence;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out order ids from blocks reserved on the {@code orders_seq} database sequence
+ * (pooled-lo: each sequence value starts a block of {@link #BLOCK_SIZE} ids), so an
+ * order gets its id without a database round trip per order.
+ */
+@Component
+public class OrderIdAllocator {
+
+    // must match INCREMENT BY of orders_seq
+    public static final int BLOCK_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private long next;
+    private long limit;
+    // highest id handed out or reserved so far
+    private long highest;
+
+    @Autowired
+    public OrderIdAllocator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public synchronized long next() {
+        if (next >= limit) {
+            Long blockStart = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR orders_seq", Long.class);
+            next = blockStart;
+            limit = blockStart + BLOCK_SIZE;
+        }
+        highest = Math.max(highest, next);
+        return next++;
+    }
+
+    /**
+     * The highest id handed out or reserved, so a snapshot can keep ids from being reused
+     * after a restart even when the orders holding them are gone.
+     */
+    public synchronized long highestIssued() {
+        return highest;
+    }
+
+    /**
+     * Makes sure no id at or below {@code maxUsedId} is handed out again.
+     */
+    public synchronized void reserveThrough(long maxUsedId) {
+        jdbcTemplate.execute("ALTER SEQUENCE orders_seq RESTART WITH " + (maxUsedId + 1));
+        highest = Math.max(highest, maxUsedId);
+        next = 0;
+        limit = 0;
+    }
+}
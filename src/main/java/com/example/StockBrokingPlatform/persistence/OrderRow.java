@@ -0,0 +1,70 @@
+package com.example.StockBrokingPlatform.persistence;
+
+import com.example.StockBrokingPlatform.model.Client;
+import com.example.StockBrokingPlatform.model.Instrument;
+import com.example.StockBrokingPlatform.model.Order;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of an order's column values, taken on the shard thread when the order
+ * changes so the write-behind flusher never reads an entity that is still being mutated.
+ */
+public record OrderRow(long id,
+                       long clientId,
+                       long instrumentId,
+                       Order.OrderType orderType,
+                       Order.Validity validity,
+                       Order.OrderStatus status,
+                       int quantity,
+                       long price,
+                       LocalDateTime orderDate,
+                       int filledQuantity,
+                       long averagePrice,
+                       String clientOrderId,
+                       long version) {
+
+    public static OrderRow from(Order order) {
+        return new OrderRow(order.getId(), order.getClient().getId(), order.getInstrument().getId(),
+                order.getOrderType(), order.getValidity(), order.getOrderStatus(),
+                order.getQuantity(), order.getPrice(), order.getOrderDate(),
+                order.getFilledQuantity(), order.getAveragePrice(), order.getClientOrderId(), order.getVersion());
+    }
+
+    /**
+     * The row after a status change made outside an entity, e.g. a bulk cancel: next version.
+     */
+    public OrderRow withStatus(Order.OrderStatus status) {
+        return new OrderRow(id, clientId, instrumentId, orderType, validity, status, quantity, price, orderDate,
+                filledQuantity, averagePrice, clientOrderId, version + 1);
+    }
+
+    /**
+     * Detached entity carrying only the ids of its client and instrument.
+     */
+    public Order toEntity() {
+        Client client = new Client();
+        client.setId(clientId);
+        Instrument instrument = new Instrument();
+        instrument.setId(instrumentId);
+        return toEntity(client, instrument);
+    }
+
+    Order toEntity(Client client, Instrument instrument) {
+        Order order = new Order();
+        order.setId(id);
+        order.setClient(client);
+        order.setInstrument(instrument);
+        order.setOrderType(orderType);
+        order.setValidity(validity);
+        order.setOrderStatus(status);
+        order.setQuantity(quantity);
+        order.setPrice(price);
+        order.setOrderDate(orderDate);
+        order.setFilledQuantity(filledQuantity);
+        order.setAveragePrice(averagePrice);
+        order.setClientOrderId(clientOrderId);
+        order.setVersion(version);
+        return order;
+    }
+}
@@ -0,0 +1,344 @@
+package com.example.StockBrokingPlatform.persistence;
+
+import com.example.StockBrokingPlatform.model.Client;
+import com.example.StockBrokingPlatform.model.Instrument;
+import com.example.StockBrokingPlatform.model.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Persists order changes asynchronously. Shard threads hand over an immutable
+ * {@link OrderRow} per change and carry on; a single flusher thread drains the bounded
+ * queue and writes batches of up to {@code order.write-behind.batch-size} rows, or
+ * whatever has accumulated after {@code order.write-behind.linger-ms}.
+ * <p>
+ * Reads never wait for the table: the order service serves the latest state from its
+ * in-memory index. Inserts go through Hibernate with JDBC batching; updates of rows that
+ * are already in the table are sent as one JDBC batch of compare-and-set UPDATEs that only
+ * apply while the row is still at the version the change was based on, so a row changed
+ * behind our back is reported as a conflict instead of silently overwritten.
+ * <p>
+ * A row the table refuses even on its own is kept as a dead letter, superseded by later
+ * changes to the same order, and retried every {@code order.write-behind.retry-ms}. The
+ * snapshotter keeps the journal suffix while any are left, so recovery writes them back
+ * from the journal if the process stops first.
+ */
+@Component
+public class OrderWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderWriteBehind.class);
+
+    private static final String UPDATE_ORDER = "UPDATE orders SET status = ?, quantity = ?, price = ?, " +
+            "filled_quantity = ?, average_price = ?, version = ? WHERE id = ? AND version = ?";
+    private static final String CANCEL_OPEN = "UPDATE orders SET status = 'CANCELLED', version = version + 1 " +
+            "WHERE status IN ('PENDING', 'PARTIALLY_FILLED') AND id IN ";
+
+    // baseVersion: the version the table holds before this write applies
+    private record PendingWrite(OrderRow row, boolean insert, long baseVersion, long sequence) {
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<PendingWrite> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final int bulkChunkSize;
+    private final long retryNanos;
+    // order id -> latest change the table refused; only the flusher changes it
+    private final Map<Long, PendingWrite> deadLetters = new ConcurrentHashMap<>();
+    private final Timer flushTimer;
+    private final Counter flushedRows;
+    private final Counter failedRows;
+    private final Counter conflictedRows;
+    private final Counter bulkCancelledRows;
+
+    private final Object progress = new Object();
+    private long enqueued;
+    private long flushed;
+    private volatile boolean running = true;
+    private Thread flusher;
+    private long nextRetry;
+
+    @Autowired
+    public OrderWriteBehind(PlatformTransactionManager transactionManager, JdbcTemplate jdbcTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${order.write-behind.capacity:65536}") int capacity,
+                            @Value("${order.write-behind.batch-size:50}") int batchSize,
+                            @Value("${order.write-behind.linger-ms:5}") long lingerMs,
+                            @Value("${order.write-behind.bulk-chunk-size:1000}") int bulkChunkSize,
+                            @Value("${order.write-behind.retry-ms:1000}") long retryMs) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.bulkChunkSize = bulkChunkSize;
+        this.retryNanos = TimeUnit.MILLISECONDS.toNanos(retryMs);
+        Gauge.builder("orders.write_behind.queue.depth", queue, BlockingQueue::size)
+                .description("Order changes waiting to be written to the database")
+                .register(meterRegistry);
+        Gauge.builder("orders.write_behind.dead_letters", deadLetters, Map::size)
+                .description("Order changes the database refused, waiting to be retried")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("orders.write_behind.flush")
+                .description("Time to write one batch of order changes")
+                .register(meterRegistry);
+        this.flushedRows = Counter.builder("orders.write_behind.rows").register(meterRegistry);
+        this.failedRows = Counter.builder("orders.write_behind.failed_rows").register(meterRegistry);
+        this.conflictedRows = Counter.builder("orders.write_behind.conflicts").register(meterRegistry);
+        this.bulkCancelledRows = Counter.builder("orders.bulk_cancel.rows").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher = new Thread(this::run, "order-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public void insert(Order order) {
+        enqueue(OrderRow.from(order), true);
+    }
+
+    public void update(Order order) {
+        enqueue(OrderRow.from(order), false);
+    }
+
+    /**
+     * Blocks until everything enqueued before this call has been committed or dead-lettered,
+     * so table scans see every acknowledged order the table accepted.
+     */
+    public void awaitFlushed() {
+        synchronized (progress) {
+            long target = enqueued;
+            while (flushed < target && running) {
+                try {
+                    progress.wait(100);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks the given orders CANCELLED with set-based UPDATEs of up to
+     * {@code order.write-behind.bulk-chunk-size} ids each, one transaction per chunk, once
+     * everything already queued has been written. The caller must own the orders' shards so
+     * no further change to them is queued meanwhile.
+     *
+     * @return the number of rows that were still open and got cancelled
+     */
+    public int cancelOpen(List<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        awaitFlushed();
+        int updated = 0;
+        for (int from = 0; from < orderIds.size(); from += bulkChunkSize) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + bulkChunkSize, orderIds.size()));
+            String sql = CANCEL_OPEN + "(" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+            Integer rows = transactionTemplate.execute(status -> jdbcTemplate.update(sql, chunk.toArray()));
+            updated += rows == null ? 0 : rows;
+        }
+        bulkCancelledRows.increment(updated);
+        return updated;
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * The number of orders whose latest change the table refused and is still to be retried.
+     */
+    public int deadLetters() {
+        return deadLetters.size();
+    }
+
+    private void enqueue(OrderRow row, boolean insert) {
+        // sequence and queue position are taken together so awaitFlushed never skips a write
+        while (true) {
+            synchronized (progress) {
+                PendingWrite write = new PendingWrite(row, insert, row.version() - 1, enqueued + 1);
+                if (queue.offer(write)) {
+                    enqueued = write.sequence();
+                    return;
+                }
+            }
+            // queue full: back-pressure the caller until the flusher catches up
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException("Interrupted while queueing order " + row.id() + " for persistence");
+            }
+        }
+    }
+
+    private void run() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                retryDeadLetters();
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || wait <= 0) {
+                        break;
+                    }
+                    PendingWrite next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                flush(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Order write-behind flusher failed", ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        // Each row is the full state, so only the last change per order needs writing
+        Map<Long, PendingWrite> latest = new LinkedHashMap<>();
+        for (PendingWrite write : batch) {
+            PendingWrite previous = latest.get(write.row().id());
+            if (previous == null) {
+                // the table still holds what the dead letter was based on
+                previous = deadLetters.remove(write.row().id());
+            }
+            if (previous != null) {
+                write = new PendingWrite(write.row(), previous.insert(), previous.baseVersion(), write.sequence());
+            }
+            latest.put(write.row().id(), write);
+        }
+        long started = System.nanoTime();
+        try {
+            write(latest.values());
+        } catch (RuntimeException ex) {
+            log.warn("Batch of {} order rows failed, retrying one by one: {}", latest.size(), ex.getMessage());
+            for (PendingWrite write : latest.values()) {
+                try {
+                    write(List.of(write));
+                } catch (RuntimeException rowEx) {
+                    failedRows.increment();
+                    deadLetters.put(write.row().id(), write);
+                    log.error("Write of order {} failed, keeping it for retry: {}", write.row().id(), rowEx.getMessage());
+                }
+            }
+        }
+        flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        flushedRows.increment(latest.size());
+        synchronized (progress) {
+            flushed = Math.max(flushed, batch.get(batch.size() - 1).sequence());
+            progress.notifyAll();
+        }
+    }
+
+    private void retryDeadLetters() {
+        if (deadLetters.isEmpty() || System.nanoTime() - nextRetry < 0) {
+            return;
+        }
+        nextRetry = System.nanoTime() + retryNanos;
+        for (PendingWrite write : List.copyOf(deadLetters.values())) {
+            try {
+                write(List.of(write));
+                deadLetters.remove(write.row().id());
+                log.info("Wrote order {} on retry", write.row().id());
+            } catch (RuntimeException ex) {
+                log.debug("Retry of order {} failed: {}", write.row().id(), ex.getMessage());
+            }
+        }
+    }
+
+    private void write(Iterable<PendingWrite> writes) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<PendingWrite> updates = new ArrayList<>();
+            for (PendingWrite write : writes) {
+                OrderRow row = write.row();
+                if (write.insert()) {
+                    entityManager.persist(row.toEntity(
+                            entityManager.getReference(Client.class, row.clientId()),
+                            entityManager.getReference(Instrument.class, row.instrumentId())));
+                } else {
+                    updates.add(write);
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+            if (!updates.isEmpty()) {
+                update(updates);
+            }
+        });
+    }
+
+    private void update(List<PendingWrite> updates) {
+        List<Object[]> args = new ArrayList<>(updates.size());
+        for (PendingWrite write : updates) {
+            OrderRow row = write.row();
+            args.add(new Object[]{row.status() == null ? null : row.status().name(),
+                    row.quantity(), row.price(), row.filledQuantity(), row.averagePrice(),
+                    row.version(), row.id(), write.baseVersion()});
+        }
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_ORDER, args);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                OrderRow row = updates.get(i).row();
+                conflictedRows.increment();
+                log.warn("Order {} was changed outside the order service; version {} not written over it",
+                        row.id(), row.version());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        if (!deadLetters.isEmpty()) {
+            log.error("Stopping with {} order writes unwritten; recovery restores them from the journal",
+                    deadLetters.size());
+        }
+    }
+}
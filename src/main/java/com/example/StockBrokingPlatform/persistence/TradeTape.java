@@ -0,0 +1,252 @@
+package com.example.StockBrokingPlatform.persistence;
+
+import com.example.StockBrokingPlatform.model.Order;
+import com.example.StockBrokingPlatform.model.Trade;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Appends trades to the {@code trade} table. Shard threads hand over each trade as it
+ * happens and carry on; a single writer thread drains the bounded queue and inserts batches
+ * of up to {@code trade.tape.batch-size} rows, or whatever has accumulated after
+ * {@code trade.tape.linger-ms}, as one JDBC batch in one transaction.
+ * <p>
+ * Trade ids are assigned on append, so they follow execution order. Each trade is also
+ * journaled with the resting order's fill, and on startup recovery writes back the trades
+ * journaled since the last order snapshot before the first append, from which ids carry on.
+ */
+@Component
+public class TradeTape {
+
+    private static final Logger log = LoggerFactory.getLogger(TradeTape.class);
+
+    private static final String SELECT_TRADES = "SELECT id, instrument_id, buy_order_id, sell_order_id, " +
+            "buy_client_id, sell_client_id, aggressor_side, quantity, price, trade_time FROM trade " +
+            "WHERE id <= ? ORDER BY id";
+
+    private static final String INSERT_TRADE = "INSERT INTO trade (id, instrument_id, buy_order_id, sell_order_id, " +
+            "buy_client_id, sell_client_id, aggressor_side, quantity, price, trade_time) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private record PendingTrade(Trade trade, long sequence) {
+    }
+
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<PendingTrade> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final Timer flushTimer;
+    private final Counter writtenRows;
+    private final Counter failedRows;
+
+    private final Object progress = new Object();
+    // -1 until seeded from the table on the first append
+    private long lastId = -1;
+    private long enqueued;
+    private long flushed;
+    private volatile boolean running = true;
+    private Thread writer;
+
+    @Autowired
+    public TradeTape(PlatformTransactionManager transactionManager, JdbcTemplate jdbcTemplate,
+                     MeterRegistry meterRegistry,
+                     @Value("${trade.tape.capacity:65536}") int capacity,
+                     @Value("${trade.tape.batch-size:100}") int batchSize,
+                     @Value("${trade.tape.linger-ms:5}") long lingerMs) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        Gauge.builder("trades.tape.queue.depth", queue, BlockingQueue::size)
+                .description("Trades waiting to be written to the database")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("trades.tape.flush")
+                .description("Time to write one batch of trades")
+                .register(meterRegistry);
+        this.writtenRows = Counter.builder("trades.tape.rows").register(meterRegistry);
+        this.failedRows = Counter.builder("trades.tape.failed_rows").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer = new Thread(this::run, "trade-tape");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Assigns the trade its id and queues it for writing. The trade must not be changed
+     * afterwards.
+     */
+    public Trade append(Trade trade) {
+        while (true) {
+            synchronized (progress) {
+                trade.setId(lastId() + 1);
+                if (queue.offer(new PendingTrade(trade, enqueued + 1))) {
+                    lastId++;
+                    enqueued++;
+                    return trade;
+                }
+            }
+            // queue full: back-pressure the caller until the writer catches up
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException("Interrupted while queueing a trade for persistence");
+            }
+        }
+    }
+
+    // The id of the last trade appended
+    public long lastId() {
+        synchronized (progress) {
+            if (lastId < 0) {
+                lastId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM trade", Long.class);
+            }
+            return lastId;
+        }
+    }
+
+    /**
+     * Hands every committed trade up to {@code throughId} to {@code consumer}, in id order.
+     */
+    public void forEach(long throughId, Consumer<Trade> consumer) {
+        jdbcTemplate.query(SELECT_TRADES, (ResultSet rs) -> {
+            Trade trade = new Trade();
+            trade.setId(rs.getLong("id"));
+            trade.setInstrumentId(rs.getLong("instrument_id"));
+            trade.setBuyOrderId(rs.getLong("buy_order_id"));
+            trade.setSellOrderId(rs.getLong("sell_order_id"));
+            trade.setBuyClientId(rs.getLong("buy_client_id"));
+            trade.setSellClientId(rs.getLong("sell_client_id"));
+            String aggressorSide = rs.getString("aggressor_side");
+            trade.setAggressorSide(aggressorSide == null ? null : Order.OrderType.valueOf(aggressorSide));
+            trade.setQuantity(rs.getInt("quantity"));
+            trade.setPrice(rs.getLong("price"));
+            Timestamp tradeTime = rs.getTimestamp("trade_time");
+            trade.setTradeTime(tradeTime == null ? null : tradeTime.toLocalDateTime());
+            consumer.accept(trade);
+        }, throughId);
+    }
+
+    /**
+     * Blocks until every trade appended before this call has been committed.
+     */
+    public void awaitFlushed() {
+        synchronized (progress) {
+            long target = enqueued;
+            while (flushed < target && running) {
+                try {
+                    progress.wait(100);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<PendingTrade> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingTrade first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || wait <= 0) {
+                        break;
+                    }
+                    PendingTrade next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                flush(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Trade tape writer failed", ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingTrade> batch) {
+        long started = System.nanoTime();
+        try {
+            write(batch);
+        } catch (RuntimeException ex) {
+            log.warn("Batch of {} trades failed, retrying one by one: {}", batch.size(), ex.getMessage());
+            for (PendingTrade pending : batch) {
+                try {
+                    write(List.of(pending));
+                } catch (RuntimeException rowEx) {
+                    failedRows.increment();
+                    log.error("Dropping trade {}: {}", pending.trade().getId(), rowEx.getMessage());
+                }
+            }
+        }
+        flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        writtenRows.increment(batch.size());
+        synchronized (progress) {
+            flushed = Math.max(flushed, batch.get(batch.size() - 1).sequence());
+            progress.notifyAll();
+        }
+    }
+
+    private void write(List<PendingTrade> batch) {
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (PendingTrade pending : batch) {
+            Trade trade = pending.trade();
+            args.add(new Object[]{trade.getId(), trade.getInstrumentId(), trade.getBuyOrderId(), trade.getSellOrderId(),
+                    trade.getBuyClientId(), trade.getSellClientId(),
+                    trade.getAggressorSide() == null ? null : trade.getAggressorSide().name(),
+                    trade.getQuantity(), trade.getPrice(),
+                    trade.getTradeTime() == null ? null : Timestamp.valueOf(trade.getTradeTime())});
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_TRADE, args));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+}
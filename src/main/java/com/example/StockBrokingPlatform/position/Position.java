@@ -0,0 +1,38 @@
+package com.example.StockBrokingPlatform.position;
+
+import com.example.StockBrokingPlatform.money.Prices;
+
+/**
+ * A client's holding in one instrument: net quantity (negative when short), the average
+ * cost of that quantity and the P&L realised by closing trades, all prices and amounts in
+ * {@code Prices} units. Immutable; every fill produces the next one.
+ */
+public record Position(long clientId, long instrumentId, long netQuantity, long averageCost, long realisedPnl) {
+
+    static Position empty(long clientId, long instrumentId) {
+        return new Position(clientId, instrumentId, 0, 0, 0);
+    }
+
+    /**
+     * The position after trading {@code quantity} (positive buys, negative sells) at
+     * {@code price}. Adding to the position moves the average cost; reducing it realises
+     * P&L against the average cost, and flipping sides opens the rest at the trade price.
+     */
+    Position apply(long quantity, long price) {
+        long net = netQuantity + quantity;
+        if (netQuantity == 0 || Long.signum(netQuantity) == Long.signum(quantity)) {
+            long average = Prices.weightedAverage(averageCost, Math.abs(netQuantity), price, Math.abs(quantity));
+            return new Position(clientId, instrumentId, net, average, realisedPnl);
+        }
+        long closed = Math.min(Math.abs(quantity), Math.abs(netQuantity));
+        long realised = Math.addExact(realisedPnl,
+                Math.multiplyExact(closed, price - averageCost) * Long.signum(netQuantity));
+        long average = net == 0 ? 0 : Long.signum(net) == Long.signum(netQuantity) ? averageCost : price;
+        return new Position(clientId, instrumentId, net, average, realised);
+    }
+
+    // Open P&L of the net quantity marked at markPrice
+    public long unrealisedPnl(long markPrice) {
+        return netQuantity == 0 ? 0 : Math.multiplyExact(netQuantity, markPrice - averageCost);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.StockBrokingPlatform.position;
+
+import com.example.StockBrokingPlatform.model.Trade;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps every client's positions in memory, updated in O(1) per fill as trades happen.
+ * Unrealised P&L is not kept here: it is marked against the current price when positions
+ * are read, so a price tick costs nothing no matter how many clients hold the instrument.
+ * <p>
+ * A position only changes on the shard that owns its instrument, and each change swaps in
+ * a new immutable {@link Position}, so readers never see a half-applied fill. Order
+ * snapshots carry every position, and on startup order recovery loads them and applies the
+ * trades journaled after the snapshot, so a restart costs the trades since the last
+ * snapshot rather than the whole tape.
+ */
+@Component
+public class PositionKeeper {
+
+    private static final Logger log = LoggerFactory.getLogger(PositionKeeper.class);
+
+    private final Map<Long, Map<Long, Position>> byClient = new ConcurrentHashMap<>();
+
+    /**
+     * Replaces every position with the snapshotted ones, then applies the trades made since,
+     * in execution order (called by OrderRecovery).
+     */
+    public void load(Collection<Position> positions, List<Trade> trades) {
+        byClient.clear();
+        positions.forEach(position -> positionsOf(position.clientId()).put(position.instrumentId(), position));
+        trades.forEach(this::onTrade);
+        log.info("Restored positions of {} clients from {} snapshotted positions and {} later trades",
+                byClient.size(), positions.size(), trades.size());
+    }
+
+    // Every position, e.g. for a snapshot taken while no shard is trading
+    public List<Position> all() {
+        List<Position> result = new ArrayList<>();
+        byClient.values().forEach(positions -> result.addAll(positions.values()));
+        return result;
+    }
+
+    // Called on the instrument's shard for every trade
+    public void onTrade(Trade trade) {
+        apply(trade.getInstrumentId(), trade.getBuyClientId(), trade.getSellClientId(),
+                trade.getQuantity(), trade.getPrice());
+    }
+
+    public Position get(long clientId, long instrumentId) {
+        Map<Long, Position> positions = byClient.get(clientId);
+        return positions == null ? null : positions.get(instrumentId);
+    }
+
+    // The client's positions by instrument id, flat ones included
+    public List<Position> byClient(long clientId) {
+        Map<Long, Position> positions = byClient.get(clientId);
+        if (positions == null) {
+            return List.of();
+        }
+        List<Position> result = new ArrayList<>(positions.values());
+        result.sort(Comparator.comparingLong(Position::instrumentId));
+        return result;
+    }
+
+    private void apply(long instrumentId, long buyClientId, long sellClientId, int quantity, long price) {
+        positionsOf(buyClientId).compute(instrumentId, (id, position) ->
+                (position == null ? Position.empty(buyClientId, id) : position).apply(quantity, price));
+        positionsOf(sellClientId).compute(instrumentId, (id, position) ->
+                (position == null ? Position.empty(sellClientId, id) : position).apply(-quantity, price));
+    }
+
+    private Map<Long, Position> positionsOf(long clientId) {
+        return byClient.computeIfAbsent(clientId, id -> new ConcurrentHashMap<>());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.StockBrokingPlatform.refdata;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Values indexed directly by their (dense, database generated) long id. Reads are a plain
+ * array access with no boxing or hashing; writes are serialised and grow the array by doubling.
+ */
+class IdSlots<V> {
+
+    // ids beyond this are simply not cached
+    static final int MAX_ID = 1 << 24;
+
+    private volatile AtomicReferenceArray<V> slots = new AtomicReferenceArray<>(1024);
+
+    V get(long id) {
+        AtomicReferenceArray<V> current = slots;
+        return id >= 0 && id < current.length() ? current.get((int) id) : null;
+    }
+
+    synchronized void put(long id, V value) {
+        if (id < 0 || id >= MAX_ID) {
+            return;
+        }
+        AtomicReferenceArray<V> current = slots;
+        if (id >= current.length()) {
+            int length = current.length();
+            while (length <= id) {
+                length <<= 1;
+            }
+            AtomicReferenceArray<V> grown = new AtomicReferenceArray<>(length);
+            for (int i = 0; i < current.length(); i++) {
+                grown.set(i, current.get(i));
+            }
+            slots = current = grown;
+        }
+        current.set((int) id, value);
+    }
+
+    synchronized void remove(long id) {
+        AtomicReferenceArray<V> current = slots;
+        if (id >= 0 && id < current.length()) {
+            current.set((int) id, null);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.StockBrokingPlatform.refdata;
+
+import com.example.StockBrokingPlatform.model.Client;
+import com.example.StockBrokingPlatform.model.Instrument;
+import com.example.StockBrokingPlatform.repository.ClientRepository;
+import com.example.StockBrokingPlatform.repository.InstrumentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The client and instrument fields order validation needs, kept in memory so placing an
+ * order does not read the client and instrument rows. Current prices are not kept here but
+ * in the {@code PriceTable}, which ticks update continuously. Entries are
+ * loaded on first use and evicted by {@code ClientService} / {@code InstrumentService}
+ * whenever the row changes.
+ */
+@Component
+public class ReferenceDataCache {
+
+    // limits are null when the client uses the configured defaults
+    public record ClientRef(long id, Client.KYCStatus kycStatus, Client.ClientStatus status,
+                            Long maxOrderValue, Long exposureLimit, Client.Tier tier) {
+
+        static ClientRef from(Client client) {
+            return new ClientRef(client.getId(), client.getKycStatus(), client.getStatus(),
+                    client.getMaxOrderValue(), client.getExposureLimit(),
+                    client.getTier() != null ? client.getTier() : Client.Tier.STANDARD);
+        }
+
+        public boolean canTrade() {
+            return kycStatus == Client.KYCStatus.COMPLETED && status == Client.ClientStatus.ACTIVE;
+        }
+    }
+
+    public record InstrumentRef(long id, Integer lotSize, long tickSize) {
+
+        static InstrumentRef from(Instrument instrument) {
+            return new InstrumentRef(instrument.getId(), instrument.getLotSize(), instrument.getTickSize());
+        }
+    }
+
+    private final ClientRepository clientRepository;
+    private final InstrumentRepository instrumentRepository;
+    private final IdSlots<ClientRef> clients = new IdSlots<>();
+    private final IdSlots<InstrumentRef> instruments = new IdSlots<>();
+    // bumped on every eviction so a load that raced with an update is not cached
+    private final AtomicLong clientGeneration = new AtomicLong();
+    private final AtomicLong instrumentGeneration = new AtomicLong();
+
+    @Autowired
+    public ReferenceDataCache(ClientRepository clientRepository, InstrumentRepository instrumentRepository) {
+        this.clientRepository = clientRepository;
+        this.instrumentRepository = instrumentRepository;
+    }
+
+    /**
+     * @return the client's cached fields, or null if there is no such client
+     */
+    public ClientRef client(long id) {
+        ClientRef ref = clients.get(id);
+        if (ref != null) {
+            return ref;
+        }
+        long generation = clientGeneration.get();
+        ref = clientRepository.findById(id).map(ClientRef::from).orElse(null);
+        if (ref != null) {
+            synchronized (clients) {
+                if (generation == clientGeneration.get()) {
+                    clients.put(id, ref);
+                }
+            }
+        }
+        return ref;
+    }
+
+    /**
+     * @return the instrument's cached fields, or null if there is no such instrument
+     */
+    public InstrumentRef instrument(long id) {
+        InstrumentRef ref = instruments.get(id);
+        if (ref != null) {
+            return ref;
+        }
+        long generation = instrumentGeneration.get();
+        ref = instrumentRepository.findById(id).map(InstrumentRef::from).orElse(null);
+        if (ref != null) {
+            synchronized (instruments) {
+                if (generation == instrumentGeneration.get()) {
+                    instruments.put(id, ref);
+                }
+            }
+        }
+        return ref;
+    }
+
+    public void evictClient(long id) {
+        synchronized (clients) {
+            clientGeneration.incrementAndGet();
+            clients.remove(id);
+        }
+    }
+
+    public void evictInstrument(long id) {
+        synchronized (instruments) {
+            instrumentGeneration.incrementAndGet();
+            instruments.remove(id);
+        }
+    }
+}
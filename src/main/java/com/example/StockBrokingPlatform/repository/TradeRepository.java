@@ -0,0 +1,15 @@
+package com.example.StockBrokingPlatform.repository;
+
+import com.example.StockBrokingPlatform.model.Trade;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TradeRepository extends JpaRepository<Trade, Long> {
+    List<Trade> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    List<Trade> findByBuyOrderIdOrSellOrderIdOrderByIdAsc(Long buyOrderId, Long sellOrderId);
+}
@@ -2,9 +2,19 @@ package com.example.StockBrokingPlatform.repository;
 
 import com.example.StockBrokingPlatform.model.WatchListItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface WatchListItemRepository extends JpaRepository<WatchListItem, Long> {
     Optional<WatchListItem> findByWatchListIdAndInstrumentId(Long watchListId, Long instrumentId);
+
+    // ids only, so valuing a watchlist never loads the instrument rows
+    @Query("SELECT i.instrument.id FROM WatchListItem i WHERE i.watchList.id = :watchListId")
+    List<Long> findInstrumentIdsByWatchListId(Long watchListId);
+
+    // every instrument on any of the client's watchlists
+    @Query("SELECT DISTINCT i.instrument.id FROM WatchListItem i WHERE i.watchList.client.id = :clientId")
+    List<Long> findInstrumentIdsByClientId(Long clientId);
 }
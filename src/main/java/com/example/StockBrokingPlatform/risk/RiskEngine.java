@@ -0,0 +1,155 @@
+package com.example.StockBrokingPlatform.risk;
+
+import com.example.StockBrokingPlatform.marketdata.PriceTable;
+import com.example.StockBrokingPlatform.money.Prices;
+import com.example.StockBrokingPlatform.persistence.OrderRow;
+import com.example.StockBrokingPlatform.refdata.ReferenceDataCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pre-trade checks on the order path, all in memory: order value against the client's
+ * limit, the order's price against a band around the instrument's last price in the
+ * {@link PriceTable}, and the
+ * client's open exposure (value of the unfilled quantity of its open orders) against its
+ * exposure limit.
+ * <p>
+ * Exposure is one {@link AtomicLong} per client. A passing check reserves the order's value
+ * with a compare-and-set, so two orders of the same client on different shards cannot both
+ * slip under the limit; fills, cancels and expiries release it again.
+ */
+@Component
+public class RiskEngine {
+
+    private final PriceTable priceTable;
+    private final long defaultMaxOrderValue;
+    private final long defaultExposureLimit;
+    private final long priceBandPercent;
+    private final Map<Long, AtomicLong> exposure = new ConcurrentHashMap<>();
+    private final Counter orderValueRejections;
+    private final Counter priceBandRejections;
+    private final Counter exposureRejections;
+
+    @Autowired
+    public RiskEngine(PriceTable priceTable, MeterRegistry meterRegistry,
+                      @Value("${risk.default.max-order-value:10000000}") BigDecimal defaultMaxOrderValue,
+                      @Value("${risk.default.exposure-limit:50000000}") BigDecimal defaultExposureLimit,
+                      @Value("${risk.price-band-percent:20}") long priceBandPercent) {
+        this.priceTable = priceTable;
+        this.defaultMaxOrderValue = Prices.of(defaultMaxOrderValue);
+        this.defaultExposureLimit = Prices.of(defaultExposureLimit);
+        this.priceBandPercent = priceBandPercent;
+        this.orderValueRejections = rejections(meterRegistry, "order_value");
+        this.priceBandRejections = rejections(meterRegistry, "price_band");
+        this.exposureRejections = rejections(meterRegistry, "exposure");
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String check) {
+        return Counter.builder("risk.rejections").tag("check", check).register(meterRegistry);
+    }
+
+    /**
+     * Checks a new order and reserves its value against the client's exposure.
+     *
+     * @throws IllegalStateException if any check fails; nothing is reserved then
+     */
+    public void checkNewOrder(ReferenceDataCache.ClientRef client, ReferenceDataCache.InstrumentRef instrument,
+                              long price, int quantity) {
+        long value = Math.multiplyExact(price, (long) quantity);
+        long maxOrderValue = client.maxOrderValue() != null ? client.maxOrderValue() : defaultMaxOrderValue;
+        if (value > maxOrderValue) {
+            orderValueRejections.increment();
+            throw new IllegalStateException("Risk check failed: order value " + Prices.format(value)
+                    + " exceeds the client's limit of " + Prices.format(maxOrderValue));
+        }
+        checkPriceBand(instrument, price);
+        reserve(client, value);
+    }
+
+    /**
+     * Checks an amendment that moves the order to {@code price} and changes the value of its
+     * open quantity by {@code valueChange}; an increase is reserved, a decrease released.
+     *
+     * @throws IllegalStateException if any check fails; nothing is reserved then
+     */
+    public void checkAmendment(ReferenceDataCache.ClientRef client, ReferenceDataCache.InstrumentRef instrument,
+                               long price, long valueChange) {
+        checkPriceBand(instrument, price);
+        if (valueChange > 0) {
+            reserve(client, valueChange);
+        } else {
+            release(client.id(), -valueChange);
+        }
+    }
+
+    // Gives back exposure of quantity that was filled or is no longer open
+    public void release(long clientId, long value) {
+        if (value != 0) {
+            counter(clientId).addAndGet(-value);
+        }
+    }
+
+    public long exposure(long clientId) {
+        AtomicLong value = exposure.get(clientId);
+        return value == null ? 0 : value.get();
+    }
+
+    public void removeClient(long clientId) {
+        exposure.remove(clientId);
+    }
+
+    // Rebuilds every client's exposure from its open orders (called on startup)
+    public void load(Collection<OrderRow> openOrders) {
+        exposure.clear();
+        for (OrderRow row : openOrders) {
+            counter(row.clientId()).addAndGet(openValue(row.price(), row.quantity(), row.filledQuantity()));
+        }
+    }
+
+    public static long openValue(long price, int quantity, int filledQuantity) {
+        return Math.multiplyExact(price, (long) Math.max(quantity - filledQuantity, 0));
+    }
+
+    private void checkPriceBand(ReferenceDataCache.InstrumentRef instrument, long price) {
+        long reference = instrument == null ? 0 : priceTable.price(instrument.id());
+        if (reference <= 0 || priceBandPercent <= 0) {
+            return;
+        }
+        long band = reference * priceBandPercent / 100;
+        if (price < reference - band || price > reference + band) {
+            priceBandRejections.increment();
+            throw new IllegalStateException("Risk check failed: price " + Prices.format(price) + " is outside the "
+                    + priceBandPercent + "% band around " + Prices.format(reference));
+        }
+    }
+
+    private void reserve(ReferenceDataCache.ClientRef client, long value) {
+        long limit = client.exposureLimit() != null ? client.exposureLimit() : defaultExposureLimit;
+        AtomicLong counter = counter(client.id());
+        while (true) {
+            long current = counter.get();
+            long next = current + value;
+            if (next > limit) {
+                exposureRejections.increment();
+                throw new IllegalStateException("Risk check failed: open exposure would reach " + Prices.format(next)
+                        + ", above the client's limit of " + Prices.format(limit));
+            }
+            if (counter.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    private AtomicLong counter(long clientId) {
+        return exposure.computeIfAbsent(clientId, id -> new AtomicLong());
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.StockBrokingPlatform.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory instrument search for the search box, so typing never scans the instrument
+ * table: the index ranks and bounds the matching ids, and the instrument service then loads
+ * just those rows by primary key. Symbols and the words of company names each go into a {@link SymbolTrie}, upper-cased;
+ * a lookup returns instrument ids ranked by shortest matching key, so an exact symbol
+ * comes first, then alphabetically, and stops at the requested limit.
+ * <p>
+ * Loaded from the instrument table on startup and kept in step by the instrument service
+ * on add and update.
+ */
+@Component
+public class InstrumentSearchIndex implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(InstrumentSearchIndex.class);
+
+    private record Entry(String symbol, Set<String> words) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SymbolTrie symbols = new SymbolTrie();
+    private final SymbolTrie words = new SymbolTrie();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // lookups far outnumber instrument changes
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Autowired
+    public InstrumentSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        jdbcTemplate.query("SELECT id, symbol, company_name FROM instrument",
+                (ResultSet rs) -> put(rs.getLong("id"), rs.getString("symbol"), rs.getString("company_name")));
+        log.info("Indexed {} instruments for search", entries.size());
+    }
+
+    // Adds the instrument or replaces what was indexed for it
+    public void put(long instrumentId, String symbol, String companyName) {
+        Entry entry = new Entry(normalize(symbol), tokenize(companyName));
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.put(instrumentId, entry);
+            if (previous != null) {
+                unindex(instrumentId, previous);
+            }
+            if (!entry.symbol().isEmpty()) {
+                symbols.add(entry.symbol(), instrumentId);
+            }
+            entry.words().forEach(word -> words.add(word, instrumentId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long instrumentId) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(instrumentId);
+            if (previous != null) {
+                unindex(instrumentId, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Instruments whose symbol starts with {@code symbolPrefix} and with a company name word
+     * starting with {@code namePrefix}; either may be null to leave it out. Symbol matches
+     * are ranked by symbol, name-only matches by the matching word. With neither there is
+     * nothing to match and the result is empty.
+     */
+    public List<Long> search(String symbolPrefix, String namePrefix, int limit) {
+        String symbol = normalize(symbolPrefix);
+        String name = normalize(namePrefix);
+        List<Long> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (!symbol.isEmpty()) {
+                symbols.collect(symbol, limit, id -> name.isEmpty() || hasWordStartingWith(id, name), ids);
+            } else if (!name.isEmpty()) {
+                words.collect(name, limit, id -> true, ids);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+
+    /**
+     * Autocomplete: symbols starting with the text first, then company names with a word
+     * starting with it.
+     */
+    public List<Long> complete(String text, int limit) {
+        String prefix = normalize(text);
+        List<Long> ids = new ArrayList<>();
+        if (prefix.isEmpty()) {
+            return ids;
+        }
+        lock.readLock().lock();
+        try {
+            symbols.collect(prefix, limit, id -> true, ids);
+            words.collect(prefix, limit, id -> true, ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void unindex(long instrumentId, Entry entry) {
+        if (!entry.symbol().isEmpty()) {
+            symbols.remove(entry.symbol(), instrumentId);
+        }
+        entry.words().forEach(word -> words.remove(word, instrumentId));
+    }
+
+    private boolean hasWordStartingWith(long instrumentId, String prefix) {
+        Entry entry = entries.get(instrumentId);
+        if (entry == null) {
+            return false;
+        }
+        for (String word : entry.words()) {
+            if (word.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static Set<String> tokenize(String companyName) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : normalize(companyName).split("[^\\p{Alnum}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.StockBrokingPlatform.search;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.LongPredicate;
+
+/**
+ * Compressed (radix) trie from keys to instrument ids: each edge carries a run of
+ * characters, so a key costs at most one node per branching point. Prefix lookups visit
+ * the matching subtree shortest key first, then alphabetically, and stop as soon as they
+ * have enough ids. Not thread-safe.
+ */
+final class SymbolTrie {
+
+    private static final long[] NO_IDS = new long[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private static final class Node {
+        private String label;
+        // sorted by the first character of their label
+        private Node[] children = NO_CHILDREN;
+        // instruments whose key ends here, e.g. one symbol listed on several exchanges
+        private long[] ids = NO_IDS;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private int find(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char c = children[mid].label.charAt(0);
+                if (c < first) {
+                    low = mid + 1;
+                } else if (c > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+
+    private record Candidate(String key, Node node) {
+    }
+
+    private static final Comparator<Candidate> SHORTEST_FIRST =
+            Comparator.comparingInt((Candidate candidate) -> candidate.key().length()).thenComparing(Candidate::key);
+
+    private final Node root = new Node("");
+
+    void add(String key, long id) {
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int index = node.find(key.charAt(i));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(i));
+                leaf.ids = new long[]{id};
+                node.children = insert(node.children, -(index + 1), leaf);
+                return;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                // split the edge where the keys part
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children = new Node[]{child};
+                node.children[index] = middle;
+                child = middle;
+            }
+            node = child;
+            i += common;
+        }
+        for (long existing : node.ids) {
+            if (existing == id) {
+                return;
+            }
+        }
+        node.ids = Arrays.copyOf(node.ids, node.ids.length + 1);
+        node.ids[node.ids.length - 1] = id;
+    }
+
+    void remove(String key, long id) {
+        remove(root, key, 0, id);
+    }
+
+    // Returns true if the node is left empty and should be unlinked
+    private boolean remove(Node node, String key, int i, long id) {
+        if (i == key.length()) {
+            node.ids = without(node.ids, id);
+        } else {
+            int index = node.find(key.charAt(i));
+            if (index < 0) {
+                return false;
+            }
+            Node child = node.children[index];
+            if (!key.startsWith(child.label, i)) {
+                return false;
+            }
+            if (remove(child, key, i + child.label.length(), id)) {
+                node.children = delete(node.children, index);
+            } else if (child.ids.length == 0 && child.children.length == 1) {
+                // a pass-through node is folded into its only child
+                Node grandchild = child.children[0];
+                grandchild.label = child.label + grandchild.label;
+                node.children[index] = grandchild;
+            }
+        }
+        return node != root && node.ids.length == 0 && node.children.length == 0;
+    }
+
+    /**
+     * Adds to {@code out} the ids of keys starting with the prefix, shortest key first,
+     * until it holds {@code limit} ids. Ids already in it or rejected by the filter are
+     * skipped.
+     */
+    void collect(String prefix, int limit, LongPredicate filter, List<Long> out) {
+        Node node = root;
+        StringBuilder path = new StringBuilder();
+        int i = 0;
+        while (i < prefix.length()) {
+            int index = node.find(prefix.charAt(i));
+            if (index < 0) {
+                return;
+            }
+            node = node.children[index];
+            int length = Math.min(node.label.length(), prefix.length() - i);
+            if (!node.label.regionMatches(0, prefix, i, length)) {
+                return;
+            }
+            path.append(node.label);
+            i += node.label.length();
+        }
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(SHORTEST_FIRST);
+        queue.add(new Candidate(path.toString(), node));
+        while (!queue.isEmpty() && out.size() < limit) {
+            Candidate candidate = queue.poll();
+            for (long id : candidate.node().ids) {
+                if (out.size() < limit && filter.test(id) && !out.contains(id)) {
+                    out.add(id);
+                }
+            }
+            for (Node child : candidate.node().children) {
+                queue.add(new Candidate(candidate.key() + child.label, child));
+            }
+        }
+    }
+
+    private static int commonPrefix(String label, String key, int from) {
+        int max = Math.min(label.length(), key.length() - from);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(from + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static Node[] insert(Node[] children, int index, Node child) {
+        Node[] grown = new Node[children.length + 1];
+        System.arraycopy(children, 0, grown, 0, index);
+        grown[index] = child;
+        System.arraycopy(children, index, grown, index + 1, children.length - index);
+        return grown;
+    }
+
+    private static Node[] delete(Node[] children, int index) {
+        Node[] shrunk = new Node[children.length - 1];
+        System.arraycopy(children, 0, shrunk, 0, index);
+        System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+        return shrunk;
+    }
+
+    private static long[] without(long[] ids, long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                long[] shrunk = new long[ids.length - 1];
+                System.arraycopy(ids, 0, shrunk, 0, i);
+                System.arraycopy(ids, i + 1, shrunk, i, ids.length - i - 1);
+                return shrunk;
+            }
+        }
+        return ids;
+    }
+}
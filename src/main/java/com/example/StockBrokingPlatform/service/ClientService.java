@@ -2,9 +2,13 @@ package com.example.StockBrokingPlatform.service;
 
 import com.example.StockBrokingPlatform.DTO.ClientDTO;
 import com.example.StockBrokingPlatform.exception.ResourceNotFoundException;
+import com.example.StockBrokingPlatform.index.OrderIndex;
 import com.example.StockBrokingPlatform.mapper.ClientMapper;
 import com.example.StockBrokingPlatform.model.Client;
+import com.example.StockBrokingPlatform.refdata.ReferenceDataCache;
 import com.example.StockBrokingPlatform.repository.ClientRepository;
+import com.example.StockBrokingPlatform.risk.RiskEngine;
+import com.example.StockBrokingPlatform.throttle.OrderThrottle;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -16,10 +20,22 @@ import java.util.stream.Collectors;
 public class ClientService {
 
     private final ClientRepository clientRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final OrderIndex orderIndex;
+    private final RiskEngine riskEngine;
+    private final OrderThrottle orderThrottle;
+    private final OrderService orderService;
 
     @Autowired
-    public ClientService(ClientRepository clientRepository) {
+    public ClientService(ClientRepository clientRepository, ReferenceDataCache referenceDataCache,
+                         OrderIndex orderIndex, RiskEngine riskEngine, OrderThrottle orderThrottle,
+                         OrderService orderService) {
         this.clientRepository = clientRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.orderIndex = orderIndex;
+        this.riskEngine = riskEngine;
+        this.orderThrottle = orderThrottle;
+        this.orderService = orderService;
     }
 
     // Create a new client
@@ -55,8 +71,12 @@ public class ClientService {
         existingClient.setPan(clientDTO.getPan());
         existingClient.setKycStatus(clientDTO.getKycStatus());
         existingClient.setStatus(clientDTO.getStatus());
+        existingClient.setMaxOrderValue(clientDTO.getMaxOrderValue());
+        existingClient.setExposureLimit(clientDTO.getExposureLimit());
+        existingClient.setTier(clientDTO.getTier());
 
         Client updatedClient = clientRepository.save(existingClient);
+        referenceDataCache.evictClient(id);
         return ClientMapper.toDTO(updatedClient);
     }
 
@@ -64,7 +84,18 @@ public class ClientService {
     public void deleteClient(Long id) {
         Client client = clientRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Client not found with ID: " + id));
+        // Stop new orders, then take the open ones out of the books, expiry and risk on their
+        // shards; the delete only cascades to the rows
+        client.setStatus(Client.ClientStatus.INACTIVE);
+        clientRepository.save(client);
+        referenceDataCache.evictClient(id);
+        orderService.cancelOrders(null, null, null, id);
         clientRepository.delete(client);
+        referenceDataCache.evictClient(id);
+        // the client's orders went with it
+        orderIndex.removeClient(id);
+        riskEngine.removeClient(id);
+        orderThrottle.removeClient(id);
     }
 
     public List<ClientDTO> searchClients(String name, String clientCode) {
@@ -4,15 +4,22 @@ package com.example.StockBrokingPlatform.service;
 import com.example.StockBrokingPlatform.DTO.InstrumentDTO;
 import com.example.StockBrokingPlatform.exception.ResourceNotFoundException;
 import com.example.StockBrokingPlatform.mapper.InstrumentMapper;
+import com.example.StockBrokingPlatform.marketdata.PriceTable;
 import com.example.StockBrokingPlatform.model.Instrument;
+import com.example.StockBrokingPlatform.refdata.ReferenceDataCache;
 import com.example.StockBrokingPlatform.repository.InstrumentRepository;
+import com.example.StockBrokingPlatform.search.InstrumentSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 
@@ -22,20 +29,34 @@ public class InstrumentService {
     @Autowired
     private InstrumentRepository instrumentRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private PriceTable priceTable;
+
+    @Autowired
+    private InstrumentSearchIndex searchIndex;
+
+    @Value("${instrument.search.max-results:50}")
+    private int maxSearchResults = 50;
+
     public List<InstrumentDTO> getAllInstruments(int page, int size) {
         Page<Instrument> instrumentPage = instrumentRepository.findAll(PageRequest.of(page, size));
-        return instrumentPage.stream().map(InstrumentMapper::toDTO).collect(Collectors.toList());
+        return instrumentPage.stream().map(this::toDTO).collect(Collectors.toList());
     }
 
     public InstrumentDTO getInstrumentById(Long id) {
         Instrument instrument = instrumentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Instrument not found with ID: " + id));
-        return InstrumentMapper.toDTO(instrument);
+        return toDTO(instrument);
     }
 
     public InstrumentDTO addInstrument(InstrumentDTO dto) {
-        Instrument instrument = InstrumentMapper.toEntity(dto);
-        return InstrumentMapper.toDTO(instrumentRepository.save(instrument));
+        Instrument saved = instrumentRepository.save(InstrumentMapper.toEntity(dto));
+        priceTable.register(saved.getId(), saved.getCurrentPrice());
+        searchIndex.put(saved.getId(), saved.getSymbol(), saved.getCompanyName());
+        return InstrumentMapper.toDTO(saved);
     }
 
     public InstrumentDTO updateInstrument(Long id, InstrumentDTO dto) {
@@ -47,19 +68,66 @@ public class InstrumentService {
         instrument.setExchange(dto.getExchange());
         instrument.setExchangeType(dto.getExchangeType());
         instrument.setCurrentPrice(dto.getCurrentPrice());
+        if (dto.getTickSize() > 0) {
+            instrument.setTickSize(dto.getTickSize());
+        }
         instrument.setLotSize(dto.getLotSize());
 
-        return InstrumentMapper.toDTO(instrumentRepository.save(instrument));
+        Instrument saved = instrumentRepository.save(instrument);
+        referenceDataCache.evictInstrument(id);
+        // the row already has the new price, so the table takes it without a snapshot write
+        priceTable.register(id, saved.getCurrentPrice());
+        searchIndex.put(id, saved.getSymbol(), saved.getCompanyName());
+        return InstrumentMapper.toDTO(saved);
     }
 
 
-    public List<InstrumentDTO> searchBySymbolOrCompanyName(String symbol, String companyName) {
-        List<Instrument> instruments = instrumentRepository.findBySymbolContainingIgnoreCaseOrCompanyNameContainingIgnoreCase(symbol,companyName);
-        return instruments.stream().map(InstrumentMapper::toDTO).collect(Collectors.toList());
+    // Prefix match on the symbol and on the words of the company name, from the search index;
+    // no symbol and no company name matches nothing
+    public List<InstrumentDTO> searchBySymbolOrCompanyName(String symbol, String companyName, int limit) {
+        checkLimit(limit);
+        return findRanked(() -> searchIndex.search(symbol, companyName, limit));
+    }
+
+    public List<InstrumentDTO> autocomplete(String text, int limit) {
+        checkLimit(limit);
+        return findRanked(() -> searchIndex.complete(text, limit));
+    }
+
+    private void checkLimit(int limit) {
+        if (limit <= 0 || limit > maxSearchResults) {
+            throw new IllegalStateException("Limit must be between 1 and " + maxSearchResults);
+        }
+    }
+
+    // Loads the instruments by primary key, keeping the index's ranking. Rows deleted behind
+    // the index's back are dropped from it and the search is run again to fill their places.
+    private List<InstrumentDTO> findRanked(Supplier<List<Long>> search) {
+        while (true) {
+            List<Long> ids = search.get();
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            Map<Long, Instrument> instruments = instrumentRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Instrument::getId, Function.identity()));
+            if (instruments.size() == ids.size()) {
+                return ids.stream().map(instruments::get).map(this::toDTO).collect(Collectors.toList());
+            }
+            ids.stream().filter(id -> !instruments.containsKey(id)).forEach(searchIndex::remove);
+        }
     }
 
     public List<InstrumentDTO> getInstrumentsByExchangeType(Instrument.ExchangeType exchangeType) {
         List<Instrument> instruments = instrumentRepository.findByExchangeTypeIgnoreCase(String.valueOf(exchangeType));
-        return instruments.stream().map(InstrumentMapper::toDTO).collect(Collectors.toList());
+        return instruments.stream().map(this::toDTO).collect(Collectors.toList());
+    }
+
+    // The row's price can trail the feed by a snapshot interval; the price table is current
+    private InstrumentDTO toDTO(Instrument instrument) {
+        InstrumentDTO dto = InstrumentMapper.toDTO(instrument);
+        if (priceTable.contains(instrument.getId())) {
+            dto.setCurrentPrice(priceTable.price(instrument.getId()));
+        }
+        return dto;
     }
 }
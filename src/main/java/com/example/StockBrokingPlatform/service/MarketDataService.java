@@ -0,0 +1,156 @@
+// MarketDataService.java
+package com.example.StockBrokingPlatform.service;
+
+import com.example.StockBrokingPlatform.DTO.BarDTO;
+import com.example.StockBrokingPlatform.DTO.PriceUpdateDTO;
+import com.example.StockBrokingPlatform.DTO.TickDTO;
+import com.example.StockBrokingPlatform.DTO.TickIngestResultDTO;
+import com.example.StockBrokingPlatform.bars.BarAggregator;
+import com.example.StockBrokingPlatform.bars.BarInterval;
+import com.example.StockBrokingPlatform.exception.ResourceNotFoundException;
+import com.example.StockBrokingPlatform.mapper.BarMapper;
+import com.example.StockBrokingPlatform.mapper.PriceUpdateMapper;
+import com.example.StockBrokingPlatform.mapper.TickMapper;
+import com.example.StockBrokingPlatform.marketdata.PriceStreamer;
+import com.example.StockBrokingPlatform.marketdata.PriceTable;
+import com.example.StockBrokingPlatform.marketdata.Tick;
+import com.example.StockBrokingPlatform.marketdata.TickIngestor;
+import com.example.StockBrokingPlatform.refdata.ReferenceDataCache;
+import com.example.StockBrokingPlatform.repository.WatchListItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class MarketDataService {
+
+    @Autowired
+    private TickIngestor tickIngestor;
+
+    @Autowired
+    private PriceTable priceTable;
+
+    @Autowired
+    private PriceStreamer priceStreamer;
+
+    @Autowired
+    private BarAggregator barAggregator;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private WatchListItemRepository watchListItemRepository;
+
+    @Value("${market-data.batch-size:1024}")
+    private int maxBatchSize = 1024;
+
+    @Value("${market-data.stream.timeout-ms:1800000}")
+    private long streamTimeoutMs = 1_800_000;
+
+    @Value("${market-data.bars.max-points:5000}")
+    private long maxBarPoints = 5000;
+
+    /**
+     * Hands a batch of ticks to the ingestion stage. Ticks for unknown instruments are
+     * accepted here and dropped by the stage.
+     */
+    public TickIngestResultDTO publishTicks(List<TickDTO> ticks) {
+        if (ticks.size() > maxBatchSize) {
+            throw new IllegalStateException("A batch may contain at most " + maxBatchSize + " ticks");
+        }
+        long receivedAt = System.currentTimeMillis();
+        List<Tick> valid = new ArrayList<>(ticks.size());
+        for (TickDTO tick : ticks) {
+            if (tick.getInstrumentId() == null) {
+                throw new IllegalStateException("Every tick needs an instrument");
+            }
+            // the stage drops these too; rejecting them here tells the sender why
+            Tick candidate = TickMapper.toTick(tick, receivedAt);
+            String invalid = tickIngestor.invalidReason(candidate);
+            if (invalid != null) {
+                throw new IllegalStateException(invalid);
+            }
+            valid.add(candidate);
+        }
+        TickIngestResultDTO result = new TickIngestResultDTO();
+        for (Tick tick : valid) {
+            if (tickIngestor.publish(tick)) {
+                result.setAccepted(result.getAccepted() + 1);
+            } else {
+                result.setDropped(result.getDropped() + 1);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Opens a server-sent event stream of the instruments' prices: a {@code prices} event
+     * with every current price first, then one with the latest price of each instrument
+     * that changed, conflated per stream.
+     */
+    public SseEmitter streamPrices(List<Long> instrumentIds) {
+        for (Long instrumentId : instrumentIds) {
+            if (!priceTable.contains(instrumentId)) {
+                throw new ResourceNotFoundException("Instrument not found with ID: " + instrumentId);
+            }
+        }
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        PriceStreamer.Subscription subscription = priceStreamer.subscribe(instrumentIds, new PriceStreamer.PriceSink() {
+            @Override
+            public void send(List<PriceTable.Quote> quotes) throws IOException {
+                List<PriceUpdateDTO> updates = quotes.stream().map(PriceUpdateMapper::toDTO).toList();
+                emitter.send(SseEmitter.event().name("prices").data(updates, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        });
+        emitter.onCompletion(() -> priceStreamer.unsubscribe(subscription));
+        emitter.onTimeout(() -> priceStreamer.unsubscribe(subscription));
+        emitter.onError(ex -> priceStreamer.unsubscribe(subscription));
+        return emitter;
+    }
+
+    // Streams every instrument on the client's watchlists
+    public SseEmitter streamWatchListPrices(Long clientId) {
+        if (referenceDataCache.client(clientId) == null) {
+            throw new ResourceNotFoundException("Client not found with ID: " + clientId);
+        }
+        List<Long> instrumentIds = watchListItemRepository.findInstrumentIdsByClientId(clientId);
+        if (instrumentIds.isEmpty()) {
+            throw new IllegalStateException("Client " + clientId + " has no instruments on a watchlist");
+        }
+        return streamPrices(instrumentIds);
+    }
+
+    /**
+     * Chart bars of the instrument starting in [from, to), epoch milliseconds; {@code to}
+     * defaults to now.
+     */
+    public List<BarDTO> getBars(Long instrumentId, String intervalCode, long from, Long to) {
+        BarInterval interval = BarInterval.of(intervalCode);
+        if (interval == null) {
+            throw new IllegalStateException("Interval must be one of 1s, 1m, 5m or 1d");
+        }
+        long end = to != null ? to : System.currentTimeMillis();
+        if (from >= end) {
+            throw new IllegalStateException("from must be before to");
+        }
+        if ((end - from) / interval.getMillis() > maxBarPoints) {
+            throw new IllegalStateException("A chart range may span at most " + maxBarPoints + " bars");
+        }
+        if (!priceTable.contains(instrumentId)) {
+            throw new ResourceNotFoundException("Instrument not found with ID: " + instrumentId);
+        }
+        return barAggregator.bars(instrumentId, interval, from, end).stream().map(BarMapper::toDTO).toList();
+    }
+}
@@ -1,121 +1,653 @@
 // OrderService.java
 package com.example.StockBrokingPlatform.service;
 
+import com.example.StockBrokingPlatform.DTO.BulkCancelResultDTO;
 import com.example.StockBrokingPlatform.DTO.OrderDTO;
+import com.example.StockBrokingPlatform.DTO.OrderResultDTO;
+import com.example.StockBrokingPlatform.bars.BarAggregator;
+import com.example.StockBrokingPlatform.dedupe.OrderDedupeCache;
+import com.example.StockBrokingPlatform.engine.Fill;
+import com.example.StockBrokingPlatform.engine.LiveOrder;
+import com.example.StockBrokingPlatform.engine.MatchingEngine;
+import com.example.StockBrokingPlatform.engine.OrderBook;
+import com.example.StockBrokingPlatform.engine.OrderShards;
+import com.example.StockBrokingPlatform.exception.OrderConflictException;
 import com.example.StockBrokingPlatform.exception.ResourceNotFoundException;
+import com.example.StockBrokingPlatform.expiry.OrderExpiry;
+import com.example.StockBrokingPlatform.index.OrderIndex;
+import com.example.StockBrokingPlatform.journal.OrderEvent;
+import com.example.StockBrokingPlatform.journal.OrderJournal;
 import com.example.StockBrokingPlatform.mapper.OrderMapper;
 import com.example.StockBrokingPlatform.model.Client;
 import com.example.StockBrokingPlatform.model.Instrument;
 import com.example.StockBrokingPlatform.model.Order;
-import com.example.StockBrokingPlatform.repository.ClientRepository;
-import com.example.StockBrokingPlatform.repository.InstrumentRepository;
-import com.example.StockBrokingPlatform.repository.OrderRepository;
+import com.example.StockBrokingPlatform.model.Trade;
+import com.example.StockBrokingPlatform.money.Prices;
+import com.example.StockBrokingPlatform.persistence.OrderCursor;
+import com.example.StockBrokingPlatform.persistence.OrderIdAllocator;
+import com.example.StockBrokingPlatform.persistence.OrderRow;
+import com.example.StockBrokingPlatform.persistence.OrderWriteBehind;
+import com.example.StockBrokingPlatform.persistence.TradeTape;
+import com.example.StockBrokingPlatform.position.PositionKeeper;
+import com.example.StockBrokingPlatform.refdata.ReferenceDataCache;
+import com.example.StockBrokingPlatform.risk.RiskEngine;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static com.example.StockBrokingPlatform.model.Order.OrderStatus.CANCELLED;
+import static com.example.StockBrokingPlatform.model.Order.OrderStatus.EXECUTED;
+import static com.example.StockBrokingPlatform.model.Order.OrderStatus.PARTIALLY_FILLED;
 import static com.example.StockBrokingPlatform.model.Order.OrderStatus.PENDING;
+import static com.example.StockBrokingPlatform.model.Order.Validity.DAY;
+import static com.example.StockBrokingPlatform.model.Order.Validity.IOC;
 
 @Service
 public class OrderService {
 
+    // printable ASCII without spaces, so it fits the journal's fixed slot
+    private static final Pattern CLIENT_ORDER_ID = Pattern.compile("[\\x21-\\x7E]{1,36}");
+
+    @Autowired
+    private MatchingEngine matchingEngine;
+
+    @Autowired
+    private OrderShards orderShards;
+
+    @Autowired
+    private OrderJournal orderJournal;
+
+    @Autowired
+    private OrderIdAllocator orderIdAllocator;
+
+    @Autowired
+    private OrderWriteBehind orderWriteBehind;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private OrderExpiry orderExpiry;
+
     @Autowired
-    private OrderRepository orderRepository;
+    private OrderCursor orderCursor;
 
     @Autowired
-    private ClientRepository clientRepository;
+    private OrderIndex orderIndex;
 
     @Autowired
-    private InstrumentRepository instrumentRepository;
+    private TradeTape tradeTape;
+
+    @Autowired
+    private PositionKeeper positionKeeper;
+
+    @Autowired
+    private BarAggregator barAggregator;
+
+    @Autowired
+    private RiskEngine riskEngine;
+
+    @Autowired
+    private OrderDedupeCache orderDedupeCache;
+
+    @Value("${order.batch.max-size:500}")
+    private int maxBatchSize = 500;
+
+    @Value("${order.page.max-size:1000}")
+    private int maxPageSize = 1000;
+
+    @PostConstruct
+    public void registerExpiryHandler() {
+        orderExpiry.onExpired(this::expireOrders);
+    }
+
+    // Indexes the open orders in the table, e.g. seeded and recovered rows, and rebuilds
+    // client exposure from them (called by OrderRecovery)
+    public void loadOrderIndex() {
+        orderIndex.clear(orderCursor.maxId());
+        orderCursor.forEachOpen(orderIndex::put);
+        riskEngine.load(orderIndex.open());
+    }
 
+    // Rests open orders the books do not know yet, e.g. seeded rows (called by OrderRecovery)
+    public void loadOrderBooks() {
+        orderIndex.open().stream()
+                .collect(Collectors.groupingBy(OrderRow::instrumentId))
+                .forEach((instrumentId, rows) -> orderShards.execute(instrumentId, () -> {
+                    rows.forEach(row -> matchingEngine.rest(LiveOrder.from(row.toEntity())));
+                    return null;
+                }));
+    }
+
+    /**
+     * Places an order. With a client order id, a retry inside the dedupe window gets the
+     * original order back without being placed again; after it, the id is still taken.
+     */
     public OrderDTO placeOrder(OrderDTO dto) {
-        Client client = clientRepository.findById(dto.getClientId())
-                .orElseThrow(() -> new ResourceNotFoundException("Client not found"));
-        Instrument instrument = instrumentRepository.findById(dto.getInstrumentId())
-                .orElseThrow(() -> new ResourceNotFoundException("Instrument not found"));
+        validateClientOrderId(dto.getClientOrderId());
+        if (dto.getClientOrderId() == null || dto.getClientId() == null) {
+            return place(dto);
+        }
+        return orderDedupeCache.place(dto.getClientId(), dto.getClientOrderId(), () -> place(dto));
+    }
+
+    private OrderDTO place(OrderDTO dto) {
+        ReferenceDataCache.InstrumentRef instrument = validateNewOrder(dto);
+        return orderShards.execute(instrument.id(), () -> acceptOrder(dto));
+    }
+
+    /**
+     * Places a basket of orders: every leg is validated in one pass, the valid legs are
+     * handed to their shards in one task per shard (shards run in parallel), and each leg
+     * gets its own accept/reject result in request order. Legs whose client order id was
+     * already placed are answered with the original order; a client order id repeated
+     * within the batch is rejected.
+     */
+    public List<OrderResultDTO> placeOrders(List<OrderDTO> dtos) {
+        if (dtos.size() > maxBatchSize) {
+            throw new IllegalStateException("A batch may contain at most " + maxBatchSize + " orders");
+        }
+        OrderResultDTO[] results = new OrderResultDTO[dtos.size()];
+        Map<Integer, List<Integer>> legsByShard = new HashMap<>();
+        Set<String> clientOrderIds = new HashSet<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            OrderDTO dto = dtos.get(i);
+            try {
+                validateClientOrderId(dto.getClientOrderId());
+                if (dto.getClientOrderId() != null && dto.getClientId() != null) {
+                    if (!clientOrderIds.add(dto.getClientId() + ":" + dto.getClientOrderId())) {
+                        throw new IllegalArgumentException("Client order id " + dto.getClientOrderId() + " is repeated in the batch");
+                    }
+                    OrderDTO original = orderDedupeCache.get(dto.getClientId(), dto.getClientOrderId());
+                    if (original != null) {
+                        results[i] = OrderResultDTO.accepted(i, original);
+                        continue;
+                    }
+                }
+                long instrumentId = validateNewOrder(dtos.get(i)).id();
+                legsByShard.computeIfAbsent(orderShards.shardOf(instrumentId), shard -> new ArrayList<>()).add(i);
+            } catch (ResourceNotFoundException | IllegalStateException | IllegalArgumentException ex) {
+                results[i] = OrderResultDTO.rejected(i, ex.getMessage());
+            }
+        }
+
+        List<Future<?>> pending = new ArrayList<>();
+        for (List<Integer> legs : legsByShard.values()) {
+            pending.add(orderShards.submit(dtos.get(legs.get(0)).getInstrumentId(), () -> {
+                for (int i : legs) {
+                    try {
+                        OrderDTO placed = acceptOrder(dtos.get(i));
+                        if (placed.getClientOrderId() != null) {
+                            orderDedupeCache.remember(placed.getClientId(), placed.getClientOrderId(), placed);
+                        }
+                        results[i] = OrderResultDTO.accepted(i, placed);
+                    } catch (RuntimeException ex) {
+                        results[i] = OrderResultDTO.rejected(i, ex.getMessage());
+                    }
+                }
+                return null;
+            }));
+        }
+        pending.forEach(OrderShards::await);
+        return Arrays.asList(results);
+    }
+
+    // Checks a new order against cached client/instrument data and the pre-trade risk limits
+    // (reserving its value against the client's exposure) and stamps it PENDING
+    private ReferenceDataCache.InstrumentRef validateNewOrder(OrderDTO dto) {
+        ReferenceDataCache.ClientRef client = dto.getClientId() == null ? null : referenceDataCache.client(dto.getClientId());
+        if (client == null) {
+            throw new ResourceNotFoundException("Client not found");
+        }
+        ReferenceDataCache.InstrumentRef instrument = dto.getInstrumentId() == null ? null : referenceDataCache.instrument(dto.getInstrumentId());
+        if (instrument == null) {
+            throw new ResourceNotFoundException("Instrument not found");
+        }
 
         // Validate client KYC and status
-        if (client.getKycStatus() != Client.KYCStatus.COMPLETED ||
-                client.getStatus() != Client.ClientStatus.ACTIVE) {
+        if (!client.canTrade()) {
             throw new IllegalStateException("Client must be ACTIVE and KYC COMPLETED to place an order");
         }
+        // The book treats a missing side as SELL, so it must be given
+        if (dto.getOrderType() == null) {
+            throw new IllegalStateException("Order type (BUY or SELL) is required");
+        }
         // Validate quantity
-        if (dto.getQuantity() == null || dto.getQuantity() <= 0) {
+        if (dto.getQuantity() <= 0) {
             throw new IllegalArgumentException("Order quantity must be a positive number");
         }
-        if (instrument.getLotSize() != null && dto.getQuantity() % instrument.getLotSize() != 0) {
-            throw new IllegalArgumentException("Order quantity must be in multiples of lot size (" + instrument.getLotSize() + ")");
+        if (instrument.lotSize() != null && dto.getQuantity() % instrument.lotSize() != 0) {
+            throw new IllegalArgumentException("Order quantity must be in multiples of lot size (" + instrument.lotSize() + ")");
         }
 
-        // Validate price
-        if (dto.getPrice() == null || dto.getPrice() <= 0) {
-            throw new IllegalArgumentException("Order price must be a positive number");
-        }
+        validatePrice(dto.getPrice(), instrument);
+        riskEngine.checkNewOrder(client, instrument, dto.getPrice(), dto.getQuantity());
 
+        if (dto.getValidity() == null) {
+            dto.setValidity(DAY);
+        }
         dto.setOrderDate(LocalDateTime.now());
-        dto.setStatus(Order.OrderStatus.valueOf("PENDING"));
-        Order order = OrderMapper.toEntity(dto, client, instrument);
-        return OrderMapper.toDTO(orderRepository.save(order));
+        dto.setStatus(PENDING);
+        return instrument;
+    }
+
+    private static void validateClientOrderId(String clientOrderId) {
+        if (clientOrderId != null && !CLIENT_ORDER_ID.matcher(clientOrderId).matches()) {
+            throw new IllegalArgumentException("Client order id must be 1 to 36 printable ASCII characters without spaces");
+        }
+    }
+
+    // Runs on the instrument's shard
+    private OrderDTO acceptOrder(OrderDTO dto) {
+        Order order = OrderMapper.toEntity(dto, clientReference(dto.getClientId()), instrumentReference(dto.getInstrumentId()));
+        boolean claimed = false;
+        long sequence;
+        try {
+            order.setId(orderIdAllocator.next());
+            if (order.getClientOrderId() != null) {
+                Long holder = orderIndex.claimClientOrderId(dto.getClientId(), order.getClientOrderId(), order.getId());
+                if (holder == null) {
+                    claimed = true;
+                    // orders evicted from the index, or closed before startup, only hold theirs in the table
+                    if (orderIndex.historyThrough(dto.getClientId()) > 0) {
+                        holder = orderCursor.findIdByClientOrderId(dto.getClientId(), order.getClientOrderId());
+                    }
+                }
+                if (holder != null) {
+                    throw new OrderConflictException("Client order id " + order.getClientOrderId() + " is already used by order " + holder);
+                }
+            }
+            // acknowledged once journaled; the row itself is written behind
+            sequence = orderJournal.append(OrderEvent.Type.PLACED, order);
+        } catch (RuntimeException ex) {
+            // never accepted: give back what the risk check reserved and the client order id
+            riskEngine.release(dto.getClientId(), openValue(order));
+            if (claimed) {
+                orderIndex.releaseClientOrderId(dto.getClientId(), order.getClientOrderId(), order.getId());
+            }
+            throw ex;
+        }
+        orderIndex.put(OrderRow.from(order));
+        orderWriteBehind.insert(order);
+        LiveOrder live = LiveOrder.from(order);
+        live.setPriority(sequence);
+        applyFills(order, matchingEngine.submit(live));
+        if (order.getOrderStatus().isOpen()) {
+            if (order.getValidity() == IOC) {
+                // whatever did not trade on arrival is cancelled rather than rested
+                cancelResting(order);
+            } else {
+                orderExpiry.scheduleDayExpiry(order.getId(), dto.getInstrumentId(), order.getOrderDate());
+            }
+        }
+        return OrderMapper.toDTO(order);
+    }
+
+    /**
+     * Applies validity to the orders resting after recovery: IOC leftovers are cancelled and
+     * DAY orders get their session-end deadline (already past ones expire on the next tick).
+     */
+    public void enforceValidity() {
+        for (OrderBook book : matchingEngine.books()) {
+            orderShards.execute(book.getInstrumentId(), () -> {
+                List<LiveOrder> resting = new ArrayList<>(book.size());
+                book.forEach(resting::add);
+                for (LiveOrder order : resting) {
+                    if (order.getValidity() == IOC) {
+                        cancelResting(findOrder(order.getOrderId()));
+                    } else {
+                        orderExpiry.scheduleDayExpiry(order.getOrderId(), order.getInstrumentId(), order.getOrderDate());
+                    }
+                }
+                return null;
+            });
+        }
     }
 
-    public List<OrderDTO> getAllOrders() {
-        return orderRepository.findAll().stream()
+    // Called from the expiry thread with orders of one instrument whose session ended
+    void expireOrders(Long instrumentId, List<Long> orderIds) {
+        orderShards.execute(instrumentId, () -> {
+            OrderBook book = matchingEngine.getBook(instrumentId);
+            if (book == null) {
+                return 0;
+            }
+            List<LiveOrder> expired = new ArrayList<>(orderIds.size());
+            for (Long id : orderIds) {
+                LiveOrder order = book.get(id);
+                if (order != null) {
+                    expired.add(order);
+                }
+            }
+            return cancelInBulk(List.of(book), expired);
+        });
+    }
+
+    /**
+     * Cancels every open order matching the given filters (null matches anything; PENDING
+     * means not filled at all). Orders are taken out of the books on their shards, all shards
+     * in parallel, and the rows are cancelled with set-based UPDATEs rather than one save per order.
+     */
+    public BulkCancelResultDTO cancelOrders(Order.OrderStatus status, Order.Validity validity, Long instrumentId, Long clientId) {
+        if (status != null && !status.isOpen()) {
+            throw new IllegalStateException("Only PENDING or PARTIALLY_FILLED orders can be canceled. Requested status: " + status);
+        }
+        Map<Integer, List<OrderBook>> booksByShard = new HashMap<>();
+        for (OrderBook book : matchingEngine.books()) {
+            if (instrumentId == null || book.getInstrumentId() == instrumentId) {
+                booksByShard.computeIfAbsent(orderShards.shardOf(book.getInstrumentId()), shard -> new ArrayList<>()).add(book);
+            }
+        }
+
+        List<Future<long[]>> pending = new ArrayList<>();
+        for (List<OrderBook> books : booksByShard.values()) {
+            pending.add(orderShards.submit(books.get(0).getInstrumentId(), () -> {
+                List<LiveOrder> matched = new ArrayList<>();
+                for (OrderBook book : books) {
+                    book.forEach(order -> {
+                        if ((status == null || (order.getFilledQuantity() > 0) == (status == PARTIALLY_FILLED))
+                                && (validity == null || order.getValidity() == validity)
+                                && (clientId == null || order.getClientId() == clientId)) {
+                            matched.add(order);
+                        }
+                    });
+                }
+                return new long[]{matched.size(), cancelInBulk(books, matched)};
+            }));
+        }
+
+        BulkCancelResultDTO result = new BulkCancelResultDTO();
+        for (Future<long[]> shard : pending) {
+            long[] counts = OrderShards.await(shard);
+            result.setCancelled(result.getCancelled() + counts[0]);
+            result.setRowsUpdated(result.getRowsUpdated() + counts[1]);
+        }
+        return result;
+    }
+
+    // Runs on the shard owning the books: drops the orders from the books, journals the
+    // cancellations and cancels the rows in bulk
+    private int cancelInBulk(List<OrderBook> books, List<LiveOrder> orders) {
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        Map<Long, OrderBook> bookByInstrument = new HashMap<>();
+        books.forEach(book -> bookByInstrument.put(book.getInstrumentId(), book));
+        List<Long> ids = new ArrayList<>(orders.size());
+        for (LiveOrder order : orders) {
+            bookByInstrument.get(order.getInstrumentId()).cancel(order.getOrderId());
+            orderExpiry.cancel(order.getOrderId());
+            riskEngine.release(order.getClientId(), RiskEngine.openValue(order.getPrice(), order.getQuantity(), order.getFilledQuantity()));
+            orderJournal.append(OrderEvent.of(OrderEvent.Type.CANCELLED, order, CANCELLED));
+            ids.add(order.getOrderId());
+        }
+        orderIndex.cancelOpen(ids);
+        return orderWriteBehind.cancelOpen(ids);
+    }
+
+    /**
+     * One page of orders in id order, starting after {@code afterId} (0 for the first page).
+     */
+    public List<OrderDTO> getOrders(long afterId, int limit) {
+        if (limit <= 0 || limit > maxPageSize) {
+            throw new IllegalStateException("Page size must be between 1 and " + maxPageSize);
+        }
+        orderWriteBehind.awaitFlushed();
+        return orderCursor.page(afterId, limit).stream()
                 .map(OrderMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Hands every order to {@code consumer} in id order, one at a time, straight off the cursor.
+     */
+    public void exportOrders(Consumer<OrderDTO> consumer) {
+        orderWriteBehind.awaitFlushed();
+        orderCursor.forEach(0, row -> consumer.accept(OrderMapper.toDTO(row)));
+    }
+
     public OrderDTO getOrderById(Long id) {
-        return orderRepository.findById(id)
-                .map(OrderMapper::toDTO)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        return OrderMapper.toDTO(findOrder(id));
     }
 
+    /**
+     * Amends price and total quantity; what has already been filled counts against the new
+     * quantity. When the request carries the version the caller last saw, the amendment only
+     * applies if the order has not changed since.
+     */
     public OrderDTO modifyOrder(Long id, OrderDTO dto) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        return onOrderShard(id, order -> {
+            if (dto.getVersion() != null && dto.getVersion() != order.getVersion()) {
+                throw new OrderConflictException("Order " + id + " was changed since version " + dto.getVersion()
+                        + "; current version is " + order.getVersion());
+            }
+            if (!order.getOrderStatus().isOpen()) {
+                throw new IllegalStateException("Only PENDING or PARTIALLY_FILLED orders can be modified. Current status: " + order.getOrderStatus());
+            }
+            if (dto.getQuantity() <= order.getFilledQuantity()) {
+                throw new IllegalArgumentException("Order quantity must exceed the filled quantity (" + order.getFilledQuantity() + ")");
+            }
 
-        if (order.getOrderStatus()!= PENDING) {
-            throw new IllegalStateException("Only PENDING orders can be modified. Current status: " + order.getOrderStatus());
-        }
-
-        order.setPrice(dto.getPrice());
-        order.setQuantity(dto.getQuantity());
-        return OrderMapper.toDTO(orderRepository.save(order));
+            ReferenceDataCache.ClientRef client = referenceDataCache.client(order.getClient().getId());
+            if (client == null) {
+                throw new ResourceNotFoundException("Client not found");
+            }
+            ReferenceDataCache.InstrumentRef instrument = referenceDataCache.instrument(order.getInstrument().getId());
+            validatePrice(dto.getPrice(), instrument);
+            long valueChange = RiskEngine.openValue(dto.getPrice(), dto.getQuantity(), order.getFilledQuantity()) - openValue(order);
+            riskEngine.checkAmendment(client, instrument, dto.getPrice(), valueChange);
+            long sequence;
+            try {
+                order.setPrice(dto.getPrice());
+                order.setQuantity(dto.getQuantity());
+                sequence = orderJournal.append(OrderEvent.Type.MODIFIED, order);
+                save(order);
+            } catch (RuntimeException ex) {
+                // never amended: undo what the risk check reserved, or take back what it released
+                riskEngine.release(client.id(), valueChange);
+                throw ex;
+            }
+            applyFills(order, matchingEngine.amend(order.getInstrument().getId(), id, dto.getPrice(), dto.getQuantity(), sequence));
+            return OrderMapper.toDTO(order);
+        });
     }
 
     public void cancelOrder(Long id) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-
-        if (order.getOrderStatus()!= PENDING) {
-            throw new IllegalStateException("Only PENDING orders can be canceled. Current status: " + order.getOrderStatus());
-        }
+        onOrderShard(id, order -> {
+            if (!order.getOrderStatus().isOpen()) {
+                throw new IllegalStateException("Only PENDING or PARTIALLY_FILLED orders can be canceled. Current status: " + order.getOrderStatus());
+            }
 
-        order.setOrderStatus(CANCELLED);
-        orderRepository.save(order);
+            cancelResting(order);
+            return null;
+        });
     }
 
-    public List<OrderDTO> getOrdersByClientId(Long clientId) {
-        return orderRepository.findByClientId(clientId).stream()
+    /**
+     * One page of the client's orders newest first, with ids below {@code beforeId}. Recent
+     * orders come from the index; the table only serves what the index no longer holds.
+     */
+    public List<OrderDTO> getOrdersByClientId(Long clientId, long beforeId, int limit) {
+        if (limit <= 0 || limit > maxPageSize) {
+            throw new IllegalStateException("Page size must be between 1 and " + maxPageSize);
+        }
+        OrderIndex.ClientPage page = orderIndex.byClient(clientId, beforeId, limit);
+        List<OrderRow> rows = page.rows();
+        if (rows.size() < limit && page.historyThrough() > 0) {
+            orderWriteBehind.awaitFlushed();
+            rows = new ArrayList<>(rows);
+            rows.addAll(orderCursor.byClient(clientId, Math.min(beforeId, page.historyThrough() + 1), limit - rows.size()));
+        }
+        return rows.stream()
                 .map(OrderMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
+    // Orders still working in the books, partially filled ones included
     public List<OrderDTO> getPendingOrders() {
-        return orderRepository.findByOrderStatus(PENDING).stream()
+        return orderIndex.open().stream()
                 .map(OrderMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
     public OrderDTO updateStatus(Long id, Order.OrderStatus orderStatus) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        return onOrderShard(id, order -> {
+            if (!order.getOrderStatus().isOpen()) {
+                // a closed order is out of the book and holds no exposure, so it stays closed
+                if (order.getOrderStatus() == orderStatus) {
+                    return OrderMapper.toDTO(order);
+                }
+                throw new IllegalStateException("Only PENDING or PARTIALLY_FILLED orders can change status. Current status: " + order.getOrderStatus());
+            }
+            // fills only come from the book, so the status can be cancelled but never claim other fills
+            if (orderStatus.isOpen() ? (order.getFilledQuantity() > 0) != (orderStatus == PARTIALLY_FILLED)
+                    : orderStatus == EXECUTED && order.getFilledQuantity() < order.getQuantity()) {
+                throw new IllegalStateException("Status " + orderStatus + " does not match the order's fills: "
+                        + order.getFilledQuantity() + " of " + order.getQuantity());
+            }
+            if (order.getOrderStatus() == orderStatus) {
+                return OrderMapper.toDTO(order);
+            }
+            if (!orderStatus.isOpen()) {
+                riskEngine.release(order.getClient().getId(), openValue(order));
+            }
+            order.setOrderStatus(orderStatus);
+            if (!orderStatus.isOpen()) {
+                matchingEngine.cancel(order.getInstrument().getId(), id);
+                orderExpiry.cancel(id);
+            }
+            orderJournal.append(OrderEvent.Type.STATUS_CHANGED, order);
+            save(order);
+            return OrderMapper.toDTO(order);
+        });
+    }
 
-        order.setOrderStatus(orderStatus);
-        return OrderMapper.toDTO(orderRepository.save(order));
+    // Latest state of an order, as a detached entity built from the index, or from the table
+    // once the order has been evicted from it (long since written behind by then)
+    private Order findOrder(Long id) {
+        OrderRow row = orderIndex.get(id);
+        if (row == null) {
+            row = orderCursor.find(id);
+        }
+        if (row == null) {
+            throw new ResourceNotFoundException("Order not found");
+        }
+        return row.toEntity();
+    }
+
+    private static void validatePrice(long price, ReferenceDataCache.InstrumentRef instrument) {
+        if (price <= 0) {
+            throw new IllegalArgumentException("Order price must be a positive number");
+        }
+        if (instrument != null && price % instrument.tickSize() != 0) {
+            throw new IllegalArgumentException("Order price must be in multiples of tick size (" + Prices.format(instrument.tickSize()) + ")");
+        }
+    }
+
+    private static long openValue(Order order) {
+        return RiskEngine.openValue(order.getPrice(), order.getQuantity(), order.getFilledQuantity());
+    }
+
+    // Order associations only need the id; the row is written by id
+    private static Client clientReference(long id) {
+        Client client = new Client();
+        client.setId(id);
+        return client;
+    }
+
+    private static Instrument instrumentReference(long id) {
+        Instrument instrument = new Instrument();
+        instrument.setId(id);
+        return instrument;
+    }
+
+    // Looks up the order's instrument, then re-reads and mutates the order on the shard that owns it
+    private <T> T onOrderShard(Long id, Function<Order, T> command) {
+        Order order = findOrder(id);
+        return orderShards.execute(order.getInstrument().getId(), () -> command.apply(findOrder(id)));
+    }
+
+    // Books each fill against the resting order and the aggressor, puts the trade on the tape
+    // and into both clients' positions; resting orders are journaled per fill together with
+    // the trade, the aggressor once for all of them
+    private void applyFills(Order aggressor, List<Fill> fills) {
+        if (fills.isEmpty()) {
+            return;
+        }
+        LocalDateTime tradeTime = LocalDateTime.now();
+        for (Fill fill : fills) {
+            Order resting = findOrder(fill.restingOrderId());
+            addFill(resting, fill);
+            addFill(aggressor, fill);
+            Trade trade = tradeTape.append(toTrade(fill, aggressor, resting, tradeTime));
+            recordFill(resting, trade);
+            positionKeeper.onTrade(trade);
+            barAggregator.onTrade(trade);
+        }
+        recordFill(aggressor, null);
+    }
+
+    // The filled quantity also stops counting towards the client's open exposure
+    private void addFill(Order order, Fill fill) {
+        riskEngine.release(order.getClient().getId(), Math.multiplyExact(order.getPrice(), (long) fill.quantity()));
+        order.setAveragePrice(Prices.weightedAverage(order.getAveragePrice(), order.getFilledQuantity(),
+                fill.price(), fill.quantity()));
+        order.setFilledQuantity(order.getFilledQuantity() + fill.quantity());
+        order.setOrderStatus(order.getFilledQuantity() >= order.getQuantity() ? EXECUTED : PARTIALLY_FILLED);
+    }
+
+    // The resting side's record carries the trade, so the tape survives a restart
+    private void recordFill(Order order, Trade trade) {
+        orderJournal.append(trade == null ? OrderEvent.of(OrderEvent.Type.FILLED, order) : OrderEvent.filled(order, trade));
+        save(order);
+        if (order.getOrderStatus() == EXECUTED) {
+            orderExpiry.cancel(order.getId());
+        }
+    }
+
+    private static Trade toTrade(Fill fill, Order aggressor, Order resting, LocalDateTime tradeTime) {
+        boolean aggressorBuys = fill.aggressorSide() == Order.OrderType.BUY;
+        Trade trade = new Trade();
+        trade.setInstrumentId(fill.instrumentId());
+        trade.setBuyOrderId(fill.buyOrderId());
+        trade.setSellOrderId(fill.sellOrderId());
+        trade.setBuyClientId((aggressorBuys ? aggressor : resting).getClient().getId());
+        trade.setSellClientId((aggressorBuys ? resting : aggressor).getClient().getId());
+        trade.setAggressorSide(fill.aggressorSide());
+        trade.setQuantity(fill.quantity());
+        trade.setPrice(fill.price());
+        trade.setTradeTime(tradeTime);
+        return trade;
+    }
+
+    // Changes to an existing order move it to the next version, are indexed straight away
+    // and written behind
+    private void save(Order order) {
+        order.setVersion(order.getVersion() + 1);
+        orderIndex.put(OrderRow.from(order));
+        orderWriteBehind.update(order);
+    }
+
+    private void cancelResting(Order order) {
+        riskEngine.release(order.getClient().getId(), openValue(order));
+        order.setOrderStatus(CANCELLED);
+        orderJournal.append(OrderEvent.Type.CANCELLED, order);
+        save(order);
+        matchingEngine.cancel(order.getInstrument().getId(), order.getId());
+        orderExpiry.cancel(order.getId());
     }
 }
\ No newline at end of file
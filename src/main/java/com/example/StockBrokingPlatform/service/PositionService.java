@@ -0,0 +1,51 @@
+// PositionService.java
+package com.example.StockBrokingPlatform.service;
+
+import com.example.StockBrokingPlatform.DTO.PositionDTO;
+import com.example.StockBrokingPlatform.exception.ResourceNotFoundException;
+import com.example.StockBrokingPlatform.mapper.PositionMapper;
+import com.example.StockBrokingPlatform.marketdata.PriceTable;
+import com.example.StockBrokingPlatform.position.Position;
+import com.example.StockBrokingPlatform.position.PositionKeeper;
+import com.example.StockBrokingPlatform.refdata.ReferenceDataCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class PositionService {
+
+    @Autowired
+    private PositionKeeper positionKeeper;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private PriceTable priceTable;
+
+    public List<PositionDTO> getPositions(Long clientId) {
+        if (referenceDataCache.client(clientId) == null) {
+            throw new ResourceNotFoundException("Client not found");
+        }
+        return positionKeeper.byClient(clientId).stream()
+                .map(this::mark)
+                .collect(Collectors.toList());
+    }
+
+    public PositionDTO getPosition(Long clientId, Long instrumentId) {
+        Position position = positionKeeper.get(clientId, instrumentId);
+        if (position == null) {
+            throw new ResourceNotFoundException("No position for client " + clientId + " in instrument " + instrumentId);
+        }
+        return mark(position);
+    }
+
+    // Marks at the instrument's last price; an instrument without one is marked at cost
+    private PositionDTO mark(Position position) {
+        long price = priceTable.price(position.instrumentId());
+        return PositionMapper.toDTO(position, price > 0 ? price : position.averageCost());
+    }
+}
@@ -0,0 +1,60 @@
+// TradeService.java
+package com.example.StockBrokingPlatform.service;
+
+import com.example.StockBrokingPlatform.DTO.TradeDTO;
+import com.example.StockBrokingPlatform.exception.ResourceNotFoundException;
+import com.example.StockBrokingPlatform.index.OrderIndex;
+import com.example.StockBrokingPlatform.mapper.TradeMapper;
+import com.example.StockBrokingPlatform.persistence.OrderCursor;
+import com.example.StockBrokingPlatform.persistence.TradeTape;
+import com.example.StockBrokingPlatform.repository.TradeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class TradeService {
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private TradeTape tradeTape;
+
+    @Autowired
+    private OrderIndex orderIndex;
+
+    @Autowired
+    private OrderCursor orderCursor;
+
+    @Value("${order.page.max-size:1000}")
+    private int maxPageSize = 1000;
+
+    /**
+     * One page of the trade tape in execution order, starting after {@code afterId}
+     * (0 for the first page).
+     */
+    public List<TradeDTO> getTrades(long afterId, int limit) {
+        if (limit <= 0 || limit > maxPageSize) {
+            throw new IllegalStateException("Page size must be between 1 and " + maxPageSize);
+        }
+        tradeTape.awaitFlushed();
+        return tradeRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit)).stream()
+                .map(TradeMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    public List<TradeDTO> getTradesByOrderId(Long orderId) {
+        if (orderIndex.get(orderId) == null && orderCursor.find(orderId) == null) {
+            throw new ResourceNotFoundException("Order not found");
+        }
+        tradeTape.awaitFlushed();
+        return tradeRepository.findByBuyOrderIdOrSellOrderIdOrderByIdAsc(orderId, orderId).stream()
+                .map(TradeMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+}
@@ -5,7 +5,9 @@ import com.example.StockBrokingPlatform.DTO.WatchListItemDTO;
 import com.example.StockBrokingPlatform.exception.ResourceNotFoundException;
 import com.example.StockBrokingPlatform.mapper.WatchListItemMapper;
 import com.example.StockBrokingPlatform.mapper.WatchListMapper;
+import com.example.StockBrokingPlatform.marketdata.PriceTable;
 import com.example.StockBrokingPlatform.model.*;
+import com.example.StockBrokingPlatform.money.Prices;
 import com.example.StockBrokingPlatform.repository.*;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +31,9 @@ public class WatchListService {
     @Autowired
     private WatchListItemRepository watchListItemRepository;
 
+    @Autowired
+    private PriceTable priceTable;
+
     public List<WatchListDTO> getWatchListsByClientId(Long clientId) {
         Client client = clientRepository.findById(clientId)
                 .orElseThrow(() -> new ResourceNotFoundException("Client not found with id " + clientId));
@@ -121,13 +126,15 @@ public class WatchListService {
         WatchList watchList = watchListRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Watchlist not found with id " + id));
 
-        double totalValue = watchList.getItems().stream()
-                .map(item -> item.getInstrument().getCurrentPrice())
-                .filter(price -> price != null)
-                .reduce(0.0, Double::sum);
+        // valued from the price table, which is ahead of the instrument rows
+        List<Long> instrumentIds = watchListItemRepository.findInstrumentIdsByWatchListId(id);
+        long totalValue = 0;
+        for (long instrumentId : instrumentIds) {
+            totalValue += priceTable.price(instrumentId);
+        }
 
-        return "Watchlist '" + watchList.getName() + "' contains " + watchList.getItems().size()
-                + " instruments. Total Market Value: ₹" + totalValue;
+        return "Watchlist '" + watchList.getName() + "' contains " + instrumentIds.size()
+                + " instruments. Total Market Value: ₹" + Prices.format(totalValue);
     }
 
     public WatchListDTO getWatchListWithItems(Long id) {
@@ -0,0 +1,130 @@
+package com.example.StockBrokingPlatform.throttle;
+
+import com.example.StockBrokingPlatform.exception.OrderThrottledException;
+import com.example.StockBrokingPlatform.model.Client;
+import com.example.StockBrokingPlatform.refdata.ReferenceDataCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client order rate limits, checked before an order reaches the order service. Each
+ * client gets a {@link TokenBucket} sized by its tier ({@code order.throttle.<tier>.*});
+ * buckets live in a map keyed by client id whose reads take no lock, and a bucket is a
+ * single CAS per order, so clients never contend with each other. A request for more
+ * orders than the burst is charged a full bucket rather than being refused for good.
+ */
+@Component
+public class OrderThrottle {
+
+    record Limits(long ratePerSecond, long burst) {
+    }
+
+    private record ClientBucket(Client.Tier tier, TokenBucket bucket) {
+    }
+
+    private final ReferenceDataCache referenceDataCache;
+    private final LongSupplier clock;
+    private final Map<Client.Tier, Limits> limits = new EnumMap<>(Client.Tier.class);
+    private final Map<Client.Tier, Counter> throttled = new EnumMap<>(Client.Tier.class);
+    private final Map<Long, ClientBucket> buckets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public OrderThrottle(ReferenceDataCache referenceDataCache, MeterRegistry meterRegistry,
+                         @Value("${order.throttle.standard.rate-per-second:50}") long standardRate,
+                         @Value("${order.throttle.standard.burst:100}") long standardBurst,
+                         @Value("${order.throttle.premium.rate-per-second:200}") long premiumRate,
+                         @Value("${order.throttle.premium.burst:400}") long premiumBurst,
+                         @Value("${order.throttle.algo.rate-per-second:1000}") long algoRate,
+                         @Value("${order.throttle.algo.burst:2000}") long algoBurst) {
+        this(referenceDataCache, meterRegistry, System::nanoTime, Map.of(
+                Client.Tier.STANDARD, new Limits(standardRate, standardBurst),
+                Client.Tier.PREMIUM, new Limits(premiumRate, premiumBurst),
+                Client.Tier.ALGO, new Limits(algoRate, algoBurst)));
+    }
+
+    OrderThrottle(ReferenceDataCache referenceDataCache, MeterRegistry meterRegistry, LongSupplier clock,
+                  Map<Client.Tier, Limits> limitsByTier) {
+        this.referenceDataCache = referenceDataCache;
+        this.clock = clock;
+        limits.putAll(limitsByTier);
+        for (Client.Tier tier : Client.Tier.values()) {
+            throttled.put(tier, Counter.builder("orders.throttled")
+                    .description("Orders rejected by the per-client rate limit")
+                    .tag("tier", tier.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("orders.throttle.clients", buckets, Map::size)
+                .description("Clients with a rate limit bucket")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes {@code orders} tokens from the client's bucket. Unknown clients pass through;
+     * order validation rejects them.
+     *
+     * @throws OrderThrottledException if the client is over its rate
+     */
+    public void acquire(Long clientId, int orders) {
+        if (clientId != null) {
+            acquire(Map.of(clientId, orders));
+        }
+    }
+
+    /**
+     * Takes the tokens for a basket spanning several clients, all or nothing: if any client
+     * is over its rate, the tokens already taken for the others are given back.
+     *
+     * @throws OrderThrottledException for the first client over its rate
+     */
+    public void acquire(Map<Long, Integer> ordersByClient) {
+        long now = clock.getAsLong();
+        Map<TokenBucket, Integer> taken = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : ordersByClient.entrySet()) {
+            long clientId = entry.getKey();
+            int orders = entry.getValue();
+            ReferenceDataCache.ClientRef client = referenceDataCache.client(clientId);
+            if (client == null) {
+                continue;
+            }
+            ClientBucket bucket = bucket(clientId, client.tier(), now);
+            long waitNanos = bucket.bucket().tryAcquire(orders, now);
+            if (waitNanos > 0) {
+                taken.forEach(TokenBucket::refund);
+                throttled.get(client.tier()).increment(orders);
+                throw new OrderThrottledException("Order rate limit exceeded for client " + clientId
+                        + " (" + client.tier() + " tier)", Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+            }
+            taken.put(bucket.bucket(), orders);
+        }
+    }
+
+    public void removeClient(long clientId) {
+        buckets.remove(clientId);
+    }
+
+    private ClientBucket bucket(long clientId, Client.Tier tier, long now) {
+        ClientBucket bucket = buckets.get(clientId);
+        if (bucket != null && bucket.tier() == tier) {
+            return bucket;
+        }
+        // first order, or the client moved tier: start from a full bucket of the new size
+        return buckets.compute(clientId, (id, existing) -> existing != null && existing.tier() == tier
+                ? existing : newBucket(tier, now));
+    }
+
+    private ClientBucket newBucket(Client.Tier tier, long now) {
+        Limits limit = limits.get(tier);
+        return new ClientBucket(tier, new TokenBucket(limit.ratePerSecond(), limit.burst(), now));
+    }
+}
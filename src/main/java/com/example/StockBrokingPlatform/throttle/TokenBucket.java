@@ -0,0 +1,55 @@
+package com.example.StockBrokingPlatform.throttle;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket refilling at a fixed rate up to {@code burst} tokens. Rather than
+ * a token count and a refill timestamp it keeps a single value, the time at which the
+ * bucket would be full again, so taking tokens is one compare-and-set and refill needs no
+ * background work.
+ */
+final class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burst;
+    private final long capacityNanos;
+    // nanoTime at which the bucket is full again; at or before now means full
+    private final AtomicLong fullAt;
+
+    TokenBucket(long ratePerSecond, long burst, long now) {
+        this.nanosPerToken = Math.max(1_000_000_000L / ratePerSecond, 1);
+        this.burst = burst;
+        this.capacityNanos = nanosPerToken * burst;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes {@code permits} tokens if the bucket holds that many. More than the burst is
+     * charged as a full bucket, since the bucket could never hold them.
+     *
+     * @return 0 if they were taken, otherwise the nanos until they would be available
+     */
+    long tryAcquire(int permits, long now) {
+        long cost = cost(permits);
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + cost;
+            long excess = next - now - capacityNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Gives back tokens taken by tryAcquire
+    void refund(int permits) {
+        fullAt.addAndGet(-cost(permits));
+    }
+
+    private long cost(int permits) {
+        return nanosPerToken * Math.min(permits, burst);
+    }
+}
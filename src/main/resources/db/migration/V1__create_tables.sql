@@ -0,0 +1,63 @@
+-- Baseline: the tables as the entities map them
+
+CREATE TABLE client (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    client_code VARCHAR(255),
+    name VARCHAR(255),
+    email VARCHAR(255),
+    phone VARCHAR(255),
+    pan VARCHAR(255),
+    kyc_status VARCHAR(255) CHECK (kyc_status IN ('COMPLETED', 'NOT_COMPLETED')),
+    status VARCHAR(255) CHECK (status IN ('ACTIVE', 'INACTIVE')),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE instrument (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    symbol VARCHAR(255),
+    company_name VARCHAR(255),
+    exchange VARCHAR(255) CHECK (exchange IN ('NSE', 'BSE', 'MCX')),
+    exchange_type VARCHAR(255) CHECK (exchange_type IN ('Equity', 'Futures', 'Options', 'Currency', 'Commodity')),
+    lot_size INTEGER,
+    current_price BIGINT NOT NULL,
+    tick_size BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE orders (
+    id BIGINT NOT NULL,
+    client_id BIGINT,
+    instrument_id BIGINT,
+    order_type VARCHAR(255) CHECK (order_type IN ('BUY', 'SELL')),
+    status VARCHAR(255) CHECK (status IN ('PENDING', 'EXECUTED', 'CANCELLED')),
+    validity VARCHAR(255) CHECK (validity IN ('DAY', 'IOC')),
+    quantity INTEGER NOT NULL,
+    price BIGINT NOT NULL,
+    order_date TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_orders_client FOREIGN KEY (client_id) REFERENCES client,
+    CONSTRAINT fk_orders_instrument FOREIGN KEY (instrument_id) REFERENCES instrument
+);
+
+CREATE TABLE watchlist (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    client_id BIGINT NOT NULL,
+    name VARCHAR(255),
+    is_default BOOLEAN NOT NULL,
+    created_date TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_watchlist_client FOREIGN KEY (client_id) REFERENCES client
+);
+
+CREATE TABLE watchlist_item (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    watchlist_id BIGINT NOT NULL,
+    instrument_id BIGINT,
+    added_date TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_watchlist_item_watchlist FOREIGN KEY (watchlist_id) REFERENCES watchlist,
+    CONSTRAINT fk_watchlist_item_instrument FOREIGN KEY (instrument_id) REFERENCES instrument
+);
+
+-- Order ids are reserved in blocks by OrderIdAllocator; INCREMENT BY must match its BLOCK_SIZE
+CREATE SEQUENCE orders_seq START WITH 1 INCREMENT BY 50;
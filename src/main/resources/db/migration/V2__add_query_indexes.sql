@@ -0,0 +1,15 @@
+-- Indexes for the lookups the repositories and services run
+
+-- a client's orders, optionally narrowed by status
+CREATE INDEX idx_orders_client_status ON orders (client_id, status);
+-- PENDING orders for recovery, bulk cancel and the pending screens
+CREATE INDEX idx_orders_status ON orders (status);
+
+-- WatchListItemRepository.findByWatchListIdAndInstrumentId
+CREATE INDEX idx_watchlist_item_watchlist_instrument ON watchlist_item (watchlist_id, instrument_id);
+-- WatchListRepository.findByClientId
+CREATE INDEX idx_watchlist_client ON watchlist (client_id);
+
+-- symbol and client code lookups
+CREATE INDEX idx_instrument_symbol ON instrument (symbol);
+CREATE INDEX idx_client_client_code ON client (client_code);
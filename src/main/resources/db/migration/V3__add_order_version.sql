@@ -0,0 +1,2 @@
+-- Optimistic locking: order row updates are conditional on the version they were based on
+ALTER TABLE orders ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
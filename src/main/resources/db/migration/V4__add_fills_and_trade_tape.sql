@@ -0,0 +1,34 @@
+-- Partial fills: filled quantity and volume-weighted average price per order
+ALTER TABLE orders ADD COLUMN filled_quantity INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE orders ADD COLUMN average_price BIGINT DEFAULT 0 NOT NULL;
+
+-- PARTIALLY_FILLED: the inline status check has a generated name, so the column is rebuilt
+-- with a named constraint
+DROP INDEX idx_orders_client_status;
+DROP INDEX idx_orders_status;
+ALTER TABLE orders ADD COLUMN status_new VARCHAR(255) BEFORE validity;
+UPDATE orders SET status_new = status;
+ALTER TABLE orders DROP COLUMN status;
+ALTER TABLE orders ALTER COLUMN status_new RENAME TO status;
+ALTER TABLE orders ADD CONSTRAINT ck_orders_status
+    CHECK (status IN ('PENDING', 'EXECUTED', 'CANCELLED', 'PARTIALLY_FILLED'));
+CREATE INDEX idx_orders_client_status ON orders (client_id, status);
+CREATE INDEX idx_orders_status ON orders (status);
+
+-- Trade tape: one row per fill, appended in batches by TradeTape. No foreign keys so
+-- appends stay cheap and trades outlive deleted clients and orders.
+CREATE TABLE trade (
+    id BIGINT NOT NULL,
+    instrument_id BIGINT NOT NULL,
+    buy_order_id BIGINT NOT NULL,
+    sell_order_id BIGINT NOT NULL,
+    buy_client_id BIGINT NOT NULL,
+    sell_client_id BIGINT NOT NULL,
+    aggressor_side VARCHAR(255) CHECK (aggressor_side IN ('BUY', 'SELL')),
+    quantity INTEGER NOT NULL,
+    price BIGINT NOT NULL,
+    trade_time TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_trade_buy_order ON trade (buy_order_id);
+CREATE INDEX idx_trade_sell_order ON trade (sell_order_id);
@@ -0,0 +1,3 @@
+-- Per-client pre-trade limits in 1/10000 rupee; NULL falls back to the risk.* defaults
+ALTER TABLE client ADD COLUMN max_order_value BIGINT;
+ALTER TABLE client ADD COLUMN exposure_limit BIGINT;
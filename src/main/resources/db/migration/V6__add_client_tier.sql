@@ -0,0 +1,2 @@
+-- Order rate limit tier; NULL is STANDARD
+ALTER TABLE client ADD COLUMN tier VARCHAR(255) CHECK (tier IN ('STANDARD', 'PREMIUM', 'ALGO'));
@@ -0,0 +1,3 @@
+-- Caller-chosen idempotency key, unique per client; NULL when the caller did not send one
+ALTER TABLE orders ADD COLUMN client_order_id VARCHAR(36);
+CREATE UNIQUE INDEX uk_orders_client_order_id ON orders (client_id, client_order_id);
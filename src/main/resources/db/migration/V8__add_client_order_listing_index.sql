@@ -0,0 +1,2 @@
+-- A client's orders newest first, paged by id, for listings older than the order index holds
+CREATE INDEX idx_orders_client_id ON orders (client_id, id);
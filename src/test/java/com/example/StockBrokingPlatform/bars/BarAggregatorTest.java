@@ -0,0 +1,163 @@
+package com.example.StockBrokingPlatform.bars;
+
+import com.example.StockBrokingPlatform.marketdata.PriceTable;
+import com.example.StockBrokingPlatform.marketdata.Tick;
+import com.example.StockBrokingPlatform.marketdata.TickIngestor;
+import com.example.StockBrokingPlatform.model.Trade;
+import com.example.StockBrokingPlatform.refdata.ReferenceDataCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class BarAggregatorTest {
+
+    @TempDir
+    Path dir;
+
+    private final TickIngestor tickIngestor = new TickIngestor(new PriceTable(), mock(ReferenceDataCache.class), new SimpleMeterRegistry(), 16, 16);
+    private BarAggregator aggregator;
+    // 10:00 today
+    private long base;
+
+    @BeforeEach
+    void setUp() {
+        aggregator = new BarAggregator(tickIngestor, dir.toString());
+        aggregator.start();
+        base = time(LocalDate.now().atTime(10, 0));
+    }
+
+    private static long time(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private void tick(long offsetMs, long price, long quantity) {
+        aggregator.onTick(new Tick(1L, price, quantity, base + offsetMs));
+    }
+
+    @Test
+    void ticksAndTradesBuildBarsOfEveryInterval() {
+        tick(0, 100, 1);
+        tick(500, 105, 2);
+        tick(1_200, 95, 3);
+        tick(61_000, 110, 4);
+        Trade trade = new Trade();
+        trade.setInstrumentId(1L);
+        trade.setPrice(90);
+        trade.setQuantity(5);
+        trade.setTradeTime(LocalDate.now().atTime(10, 1, 30));
+        aggregator.onTrade(trade);
+
+        assertEquals(List.of(new Bar(base, 100, 105, 100, 105, 3), new Bar(base + 1_000, 95, 95, 95, 95, 3)),
+                aggregator.bars(1L, BarInterval.ONE_SECOND, base, base + 2_000));
+        assertEquals(List.of(new Bar(base, 100, 105, 95, 95, 6), new Bar(base + 60_000, 110, 110, 90, 90, 9)),
+                aggregator.bars(1L, BarInterval.ONE_MINUTE, base, base + 120_000));
+        assertEquals(List.of(new Bar(base, 100, 110, 90, 90, 15)),
+                aggregator.bars(1L, BarInterval.FIVE_MINUTES, base, base + 300_000));
+        long dayStart = time(LocalDate.now().atStartOfDay());
+        assertEquals(List.of(new Bar(dayStart, 100, 110, 90, 90, 15)),
+                aggregator.bars(1L, BarInterval.ONE_DAY, dayStart, dayStart + 86_400_000L));
+        assertTrue(aggregator.bars(2L, BarInterval.ONE_MINUTE, base, base + 60_000).isEmpty());
+    }
+
+    @Test
+    void flushedBarsSurviveARestart() {
+        tick(0, 100, 1);
+        tick(60_000, 101, 2);
+        aggregator.flush();
+        assertTrue(Files.exists(dir.resolve("bars-" + LocalDate.now() + ".bin")));
+
+        BarAggregator restarted = new BarAggregator(tickIngestor, dir.toString());
+        restarted.start();
+
+        assertEquals(aggregator.bars(1L, BarInterval.ONE_MINUTE, base, base + 120_000),
+                restarted.bars(1L, BarInterval.ONE_MINUTE, base, base + 120_000));
+        assertEquals(List.of(new Bar(base, 100, 101, 100, 101, 3)),
+                restarted.bars(1L, BarInterval.FIVE_MINUTES, base, base + 300_000));
+    }
+
+    @Test
+    void rangesOlderThanTheRingBuffersAreRolledUpFromDayFiles() {
+        long old = time(LocalDate.now().minusDays(10).atTime(10, 0));
+        aggregator.onTick(new Tick(1L, 100, 1, old));
+        aggregator.onTick(new Tick(1L, 120, 2, old + 60_000));
+        aggregator.onTick(new Tick(1L, 80, 3, old + 360_000));
+        aggregator.flush();
+        // moves the one-minute ring on, overwriting the old 10:00 bar in memory
+        tick(0, 200, 1);
+        aggregator.flush();
+
+        assertEquals(List.of(new Bar(old, 100, 120, 100, 120, 3), new Bar(old + 300_000, 80, 80, 80, 80, 3)),
+                aggregator.bars(1L, BarInterval.FIVE_MINUTES, old, old + 600_000));
+        assertEquals(List.of(new Bar(old + 360_000, 80, 80, 80, 80, 3)),
+                aggregator.bars(1L, BarInterval.ONE_MINUTE, old + 120_000, old + 600_000));
+    }
+
+    @Test
+    void flushAppendsOnlyTheMinutesTouchedSinceTheLastFlush() throws Exception {
+        Path file = dir.resolve("bars-" + LocalDate.now() + ".bin");
+        tick(0, 100, 1);
+        tick(60_000, 101, 2);
+        aggregator.flush();
+        long size = Files.size(file);
+
+        tick(61_000, 103, 1);
+        aggregator.flush();
+        // one block: instrument count, one instrument with one bar, checksum
+        assertEquals(size + 4 + 12 + 42 + 4, Files.size(file));
+        aggregator.flush();
+        assertEquals(size + 62, Files.size(file));
+        assertEquals(2, BarFile.recover(file));
+
+        // the rewritten minute replaces the first version rather than adding to it
+        BarAggregator restarted = new BarAggregator(tickIngestor, dir.toString());
+        restarted.start();
+        assertEquals(List.of(new Bar(base, 100, 100, 100, 100, 1), new Bar(base + 60_000, 101, 103, 101, 103, 3)),
+                restarted.bars(1L, BarInterval.ONE_MINUTE, base, base + 120_000));
+    }
+
+    @Test
+    void finishedDaysAreCompactedIntoOneBlock() throws Exception {
+        long old = time(LocalDate.now().minusDays(3).atTime(10, 0));
+        Path file = dir.resolve("bars-" + LocalDate.now().minusDays(3) + ".bin");
+        aggregator.onTick(new Tick(1L, 100, 1, old));
+        aggregator.flush();
+        aggregator.onTick(new Tick(1L, 110, 2, old + 60_000));
+        aggregator.flush();
+        assertEquals(2, BarFile.recover(file));
+        // the day is over once bars of a later day arrive
+        tick(0, 200, 1);
+        aggregator.flush();
+
+        assertEquals(1, BarFile.recover(file));
+        assertEquals(List.of(new Bar(old, 100, 110, 100, 110, 3)),
+                aggregator.bars(1L, BarInterval.FIVE_MINUTES, old, old + 300_000));
+    }
+
+    @Test
+    void halfWrittenBlockIsCutOffOnStartup() throws Exception {
+        Path file = dir.resolve("bars-" + LocalDate.now() + ".bin");
+        tick(0, 100, 1);
+        aggregator.flush();
+        long size = Files.size(file);
+        Files.write(file, new byte[]{0, 0, 0, 1, 0, 0}, StandardOpenOption.APPEND);
+
+        BarAggregator restarted = new BarAggregator(tickIngestor, dir.toString());
+        restarted.start();
+
+        assertEquals(size, Files.size(file));
+        assertEquals(List.of(new Bar(base, 100, 100, 100, 100, 1)),
+                restarted.bars(1L, BarInterval.ONE_MINUTE, base, base + 60_000));
+    }
+}
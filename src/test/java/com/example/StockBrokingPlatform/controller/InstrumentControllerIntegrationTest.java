@@ -3,6 +3,7 @@ package com.example.StockBrokingPlatform.controller;
 import com.example.StockBrokingPlatform.DTO.InstrumentDTO;
 import com.example.StockBrokingPlatform.mapper.InstrumentMapper;
 import com.example.StockBrokingPlatform.model.Instrument;
+import com.example.StockBrokingPlatform.money.Prices;
 import com.example.StockBrokingPlatform.repository.InstrumentRepository;
 import com.example.StockBrokingPlatform.repository.OrderRepository;
 import com.example.StockBrokingPlatform.repository.WatchListItemRepository;
@@ -62,7 +63,7 @@ public class InstrumentControllerIntegrationTest {
         dto.setCompanyName(companyName);
         dto.setExchange(exchange);
         dto.setExchangeType(exchangeType);
-        dto.setCurrentPrice(2500.00);
+        dto.setCurrentPrice(Prices.of("2500"));
         dto.setLotSize(1);
         return dto;
     }
@@ -104,7 +105,7 @@ public class InstrumentControllerIntegrationTest {
         Instrument saved = instrumentRepository.save(InstrumentMapper.toEntity(dto));
 
         InstrumentDTO updateDTO = createSampleInstrumentDTO("HDFCBANK", "HDFC Bank Updated", Equity, BSE);
-        updateDTO.setCurrentPrice(1600.00);
+        updateDTO.setCurrentPrice(Prices.of("1600"));
         updateDTO.setLotSize(2);
 
         mockMvc.perform(put("/api/instruments/" + saved.getId())
@@ -117,10 +118,16 @@ public class InstrumentControllerIntegrationTest {
                 .andExpect(jsonPath("$.lotSize").value(2));
     }
 
+    private void addViaApi(InstrumentDTO dto) throws Exception {
+        mockMvc.perform(post("/api/instruments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void testSearchBySymbolOrCompanyName() throws Exception {
-        InstrumentDTO dto = createSampleInstrumentDTO("RELIANCE", "Reliance Industries", Equity, NSE);
-        instrumentRepository.save(InstrumentMapper.toEntity(dto));
+        addViaApi(createSampleInstrumentDTO("RELIANCE", "Reliance Industries", Equity, NSE));
 
         mockMvc.perform(get("/api/instruments/search")
                         .param("symbol", "RELI")
@@ -129,6 +136,23 @@ public class InstrumentControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].symbol").value("RELIANCE"));
     }
 
+    @Test
+    void testAutocomplete_RanksSymbolMatchesBeforeCompanyNames() throws Exception {
+        addViaApi(createSampleInstrumentDTO("TATAMOTORS", "Tata Motors", Equity, NSE));
+        addViaApi(createSampleInstrumentDTO("TATASTEEL", "Tata Steel", Equity, NSE));
+        addViaApi(createSampleInstrumentDTO("TCS", "Tata Consultancy Services", Equity, NSE));
+
+        mockMvc.perform(get("/api/instruments/autocomplete").param("q", "tata").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].symbol").value("TATASTEEL"))
+                .andExpect(jsonPath("$[1].symbol").value("TATAMOTORS"))
+                .andExpect(jsonPath("$[2].symbol").value("TCS"));
+
+        mockMvc.perform(get("/api/instruments/autocomplete").param("q", "tata").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetByExchangeType() throws Exception {
         InstrumentDTO dto1 = createSampleInstrumentDTO("TATAMOTORS", "Tata Motors", Equity, NSE);
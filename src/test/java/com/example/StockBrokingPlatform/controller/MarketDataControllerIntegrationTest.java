@@ -0,0 +1,184 @@
+package com.example.StockBrokingPlatform.controller;
+
+import com.example.StockBrokingPlatform.DTO.InstrumentDTO;
+import com.example.StockBrokingPlatform.DTO.TickDTO;
+import com.example.StockBrokingPlatform.marketdata.PriceSnapshotter;
+import com.example.StockBrokingPlatform.marketdata.Tick;
+import com.example.StockBrokingPlatform.marketdata.TickIngestor;
+import com.example.StockBrokingPlatform.marketdata.TickReplayFeed;
+import com.example.StockBrokingPlatform.money.Prices;
+import com.example.StockBrokingPlatform.repository.InstrumentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.example.StockBrokingPlatform.model.Instrument.Exchange.NSE;
+import static com.example.StockBrokingPlatform.model.Instrument.ExchangeType.Equity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MarketDataControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private InstrumentRepository instrumentRepository;
+
+    @Autowired
+    private TickIngestor tickIngestor;
+
+    @Autowired
+    private PriceSnapshotter priceSnapshotter;
+
+    @Autowired
+    private TickReplayFeed tickReplayFeed;
+
+    private Long instrumentId;
+
+    @BeforeEach
+    void setup() throws Exception {
+        InstrumentDTO dto = new InstrumentDTO();
+        dto.setSymbol("INFY");
+        dto.setCompanyName("Infosys");
+        dto.setExchange(NSE);
+        dto.setExchangeType(Equity);
+        dto.setCurrentPrice(Prices.of("1500"));
+        dto.setTickSize(Prices.of("0.05"));
+        dto.setLotSize(1);
+        String response = mockMvc.perform(post("/api/instruments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andReturn().getResponse().getContentAsString();
+        instrumentId = objectMapper.readValue(response, InstrumentDTO.class).getId();
+    }
+
+    private TickDTO tick(Long instrumentId, String price) {
+        TickDTO tick = new TickDTO();
+        tick.setInstrumentId(instrumentId);
+        tick.setPrice(Prices.of(price));
+        tick.setQuantity(10);
+        return tick;
+    }
+
+    @Test
+    void testTicks_UpdatePriceAndReachTheTableOnSnapshot() throws Exception {
+        mockMvc.perform(post("/api/market-data/ticks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                tick(instrumentId, "1501.5"), tick(instrumentId, "1502.25"), tick(999_999L, "10")))))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.accepted").value(3))
+                .andExpect(jsonPath("$.dropped").value(0));
+        tickIngestor.awaitProcessed();
+
+        mockMvc.perform(get("/api/instruments/" + instrumentId))
+                .andExpect(jsonPath("$.currentPrice").value(1502.25));
+        // the row only catches up on the next snapshot
+        assertEquals(Prices.of("1500"), instrumentRepository.findById(instrumentId).orElseThrow().getCurrentPrice());
+
+        priceSnapshotter.snapshot();
+        assertEquals(Prices.of("1502.25"), instrumentRepository.findById(instrumentId).orElseThrow().getCurrentPrice());
+    }
+
+    @Test
+    void testTicks_InvalidPriceIsRejected() throws Exception {
+        mockMvc.perform(post("/api/market-data/ticks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(tick(instrumentId, "0")))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testReplay_AppliesRecordedTicksInOrder(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("ticks.csv");
+        Files.write(file, List.of(
+                "# timestamp,instrumentId,price,quantity",
+                "1738574100000," + instrumentId + ",1510.00,5",
+                "not a tick",
+                "1738574100250," + instrumentId + ",1512.50,7",
+                // zero and off the tick grid: dropped by the stage like any other feed's
+                "1738574100500," + instrumentId + ",0,1",
+                "1738574100750," + instrumentId + ",1513.02,1"));
+
+        assertEquals(4, tickReplayFeed.replay(file));
+        tickIngestor.awaitProcessed();
+
+        mockMvc.perform(get("/api/instruments/" + instrumentId))
+                .andExpect(jsonPath("$.currentPrice").value(1512.5));
+    }
+
+    private boolean awaitContent(MvcResult result, String expected) throws Exception {
+        for (int i = 0; i < 100; i++) {
+            if (result.getResponse().getContentAsString().contains(expected)) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+
+    @Test
+    void testStream_SendsCurrentPriceThenChanges() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/market-data/stream").param("instrumentIds", instrumentId.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertTrue(awaitContent(result, "event:prices"));
+        assertTrue(awaitContent(result, "\"price\":1500"));
+
+        tickIngestor.publish(new Tick(instrumentId, Prices.of("1520.75"), 3, 1738574100000L));
+        assertTrue(awaitContent(result, "\"price\":1520.75"));
+        result.getRequest().getAsyncContext().complete();
+    }
+
+    @Test
+    void testStream_UnknownInstrumentOrClient() throws Exception {
+        mockMvc.perform(get("/api/market-data/stream").param("instrumentIds", "999999"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/market-data/stream/client/999999"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testBars_ChartRangeFromTicks() throws Exception {
+        long minute = System.currentTimeMillis() / 60_000 * 60_000;
+        tickIngestor.publish(new Tick(instrumentId, Prices.of("1501"), 5, minute + 1_000));
+        tickIngestor.publish(new Tick(instrumentId, Prices.of("1499.5"), 7, minute + 2_000));
+        tickIngestor.awaitProcessed();
+
+        mockMvc.perform(get("/api/market-data/bars/" + instrumentId)
+                        .param("interval", "1m")
+                        .param("from", String.valueOf(minute))
+                        .param("to", String.valueOf(minute + 60_000)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].time").value(minute))
+                .andExpect(jsonPath("$[0].open").value(1501))
+                .andExpect(jsonPath("$[0].low").value(1499.5))
+                .andExpect(jsonPath("$[0].volume").value(12));
+
+        mockMvc.perform(get("/api/market-data/bars/" + instrumentId).param("interval", "2m").param("from", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/market-data/bars/" + instrumentId).param("interval", "1s").param("from", "0"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -1,8 +1,13 @@
 package com.example.StockBrokingPlatform.controller;
 
 import com.example.StockBrokingPlatform.DTO.OrderDTO;
+import com.example.StockBrokingPlatform.index.OrderIndex;
+import com.example.StockBrokingPlatform.marketdata.PriceTable;
 import com.example.StockBrokingPlatform.model.Client;
 import com.example.StockBrokingPlatform.model.Instrument;
+import com.example.StockBrokingPlatform.model.Order;
+import com.example.StockBrokingPlatform.money.Prices;
+import com.example.StockBrokingPlatform.persistence.OrderWriteBehind;
 import com.example.StockBrokingPlatform.repository.ClientRepository;
 import com.example.StockBrokingPlatform.repository.InstrumentRepository;
 import com.example.StockBrokingPlatform.repository.OrderRepository;
@@ -16,6 +21,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static com.example.StockBrokingPlatform.model.Client.ClientStatus.ACTIVE;
 import static com.example.StockBrokingPlatform.model.Client.KYCStatus.COMPLETED;
@@ -23,7 +29,9 @@ import static com.example.StockBrokingPlatform.model.Instrument.Exchange.NSE;
 import static com.example.StockBrokingPlatform.model.Instrument.ExchangeType.Equity;
 import static com.example.StockBrokingPlatform.model.Order.OrderType.BUY;
 import static com.example.StockBrokingPlatform.model.Order.OrderType.SELL;
+import static com.example.StockBrokingPlatform.model.Order.Validity.IOC;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -43,6 +51,15 @@ class OrderControllerIntegrationTest {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderWriteBehind orderWriteBehind;
+
+    @Autowired
+    private OrderIndex orderIndex;
+
+    @Autowired
+    private PriceTable priceTable;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -51,7 +68,9 @@ class OrderControllerIntegrationTest {
 
     @BeforeEach
     void setup() {
+        orderWriteBehind.awaitFlushed();
         orderRepository.deleteAll();
+        orderIndex.clear();
         clientRepository.deleteAll();
         instrumentRepository.deleteAll();
 
@@ -68,17 +87,21 @@ class OrderControllerIntegrationTest {
         instrument.setCompanyName("Tata Consultancy Services");
         instrument.setExchange(NSE);
         instrument.setExchangeType(Equity);
-        instrument.setCurrentPrice(3500.0);
+        // no reference price, so the risk price band does not constrain the prices below
         instrument.setLotSize(1);
         instrumentId = instrumentRepository.save(instrument).getId();
     }
 
+    private void setCurrentPrice(String price) {
+        priceTable.register(instrumentId, Prices.of(price));
+    }
+
     @Test
     void testPlaceOrder_Success() throws Exception {
         OrderDTO dto = new OrderDTO();
         dto.setClientId(clientId);
         dto.setInstrumentId(instrumentId);
-        dto.setPrice(100.0);
+        dto.setPrice(Prices.of("100"));
         dto.setQuantity(5);
         dto.setOrderType(BUY);
 
@@ -90,13 +113,258 @@ class OrderControllerIntegrationTest {
                 .andExpect(jsonPath("$.status").value("PENDING"));
     }
 
+    @Test
+    void testPlaceOrder_RetryWithClientOrderIdIsNotPlacedTwice() throws Exception {
+        OrderDTO dto = new OrderDTO();
+        dto.setClientId(clientId);
+        dto.setInstrumentId(instrumentId);
+        dto.setPrice(Prices.of("100"));
+        dto.setQuantity(5);
+        dto.setOrderType(BUY);
+        dto.setClientOrderId("GW-20250203-0001");
+
+        String response = mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.clientOrderId").value("GW-20250203-0001"))
+                .andReturn().getResponse().getContentAsString();
+        OrderDTO created = objectMapper.readValue(response, OrderDTO.class);
+
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(created.getId()));
+
+        orderWriteBehind.awaitFlushed();
+        assertEquals(1, orderRepository.count());
+        assertEquals("GW-20250203-0001", orderRepository.findById(created.getId()).orElseThrow().getClientOrderId());
+    }
+
+    @Test
+    void testPlaceOrders_Batch() throws Exception {
+        OrderDTO buy = new OrderDTO();
+        buy.setClientId(clientId);
+        buy.setInstrumentId(instrumentId);
+        buy.setPrice(Prices.of("100"));
+        buy.setQuantity(5);
+        buy.setOrderType(BUY);
+
+        OrderDTO invalid = new OrderDTO();
+        invalid.setClientId(clientId);
+        invalid.setInstrumentId(instrumentId);
+        invalid.setPrice(Prices.of("100"));
+        invalid.setQuantity(0);
+        invalid.setOrderType(BUY);
+
+        OrderDTO sell = new OrderDTO();
+        sell.setClientId(clientId);
+        sell.setInstrumentId(instrumentId);
+        sell.setPrice(Prices.of("110"));
+        sell.setQuantity(5);
+        sell.setOrderType(SELL);
+
+        mockMvc.perform(post("/api/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(buy, invalid, sell))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].accepted").value(true))
+                .andExpect(jsonPath("$[0].order.status").value("PENDING"))
+                .andExpect(jsonPath("$[1].accepted").value(false))
+                .andExpect(jsonPath("$[1].error").value("Order quantity must be a positive number"))
+                .andExpect(jsonPath("$[2].accepted").value(true))
+                .andExpect(jsonPath("$[2].order.price").value(110.0));
+    }
+
+    @Test
+    void testPlaceOrder_UnmatchedIocIsCancelled() throws Exception {
+        OrderDTO dto = new OrderDTO();
+        dto.setClientId(clientId);
+        dto.setInstrumentId(instrumentId);
+        dto.setPrice(Prices.of("100"));
+        dto.setQuantity(5);
+        dto.setOrderType(BUY);
+        dto.setValidity(IOC);
+
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+
+        mockMvc.perform(get("/api/orders/pending"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void testPartialFill_IsTrackedAndPrintedToTheTape() throws Exception {
+        OrderDTO sell = new OrderDTO();
+        sell.setClientId(clientId);
+        sell.setInstrumentId(instrumentId);
+        sell.setPrice(Prices.of("100"));
+        sell.setQuantity(10);
+        sell.setOrderType(SELL);
+        OrderDTO placed = objectMapper.readValue(mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sell)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), OrderDTO.class);
+
+        OrderDTO buy = new OrderDTO();
+        buy.setClientId(clientId);
+        buy.setInstrumentId(instrumentId);
+        buy.setPrice(Prices.of("101"));
+        buy.setQuantity(4);
+        buy.setOrderType(BUY);
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(buy)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("EXECUTED"))
+                .andExpect(jsonPath("$.averagePrice").value(100.0));
+
+        mockMvc.perform(get("/api/orders/" + placed.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PARTIALLY_FILLED"))
+                .andExpect(jsonPath("$.filledQuantity").value(4));
+
+        mockMvc.perform(get("/api/trades/order/" + placed.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].sellOrderId").value(placed.getId()))
+                .andExpect(jsonPath("$[0].aggressorSide").value("BUY"))
+                .andExpect(jsonPath("$[0].quantity").value(4))
+                .andExpect(jsonPath("$[0].price").value(100.0));
+
+        mockMvc.perform(post("/api/orders/bulk-cancel").param("status", "PARTIALLY_FILLED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsUpdated").value(1));
+    }
+
+    @Test
+    void testFill_UpdatesBothClientsPositions() throws Exception {
+        Client seller = new Client();
+        seller.setName("Seller");
+        seller.setPhone("8888888888");
+        seller.setClientCode("S12345");
+        seller.setStatus(ACTIVE);
+        seller.setKycStatus(COMPLETED);
+        Long sellerId = clientRepository.save(seller).getId();
+        setCurrentPrice("3500");
+
+        OrderDTO sell = new OrderDTO();
+        sell.setClientId(sellerId);
+        sell.setInstrumentId(instrumentId);
+        sell.setPrice(Prices.of("3400"));
+        sell.setQuantity(3);
+        sell.setOrderType(SELL);
+        OrderDTO buy = new OrderDTO();
+        buy.setClientId(clientId);
+        buy.setInstrumentId(instrumentId);
+        buy.setPrice(Prices.of("3400"));
+        buy.setQuantity(3);
+        buy.setOrderType(BUY);
+        for (OrderDTO dto : List.of(sell, buy)) {
+            mockMvc.perform(post("/api/orders")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isOk());
+        }
+
+        // marked at the instrument's current price of 3500
+        mockMvc.perform(get("/api/positions/client/" + clientId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].netQuantity").value(3))
+                .andExpect(jsonPath("$[0].averageCost").value(3400.0))
+                .andExpect(jsonPath("$[0].unrealisedPnl").value(300.0));
+        mockMvc.perform(get("/api/positions/client/" + sellerId + "/instrument/" + instrumentId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.netQuantity").value(-3))
+                .andExpect(jsonPath("$.unrealisedPnl").value(-300.0));
+    }
+
+    @Test
+    void testRiskChecks_PriceBandAndExposure() throws Exception {
+        setCurrentPrice("100");
+        Client client = clientRepository.findById(clientId).orElseThrow();
+        client.setExposureLimit(Prices.of("1000"));
+        clientRepository.save(client);
+
+        OrderDTO dto = new OrderDTO();
+        dto.setClientId(clientId);
+        dto.setInstrumentId(instrumentId);
+        dto.setPrice(Prices.of("121"));
+        dto.setQuantity(1);
+        dto.setOrderType(BUY);
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("outside the 20% band")));
+
+        dto.setPrice(Prices.of("100"));
+        dto.setQuantity(8);
+        OrderDTO first = objectMapper.readValue(mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), OrderDTO.class);
+
+        dto.setQuantity(3);
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("open exposure would reach 1100.0")));
+
+        // cancelling releases the first order's exposure
+        mockMvc.perform(delete("/api/orders/" + first.getId()))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testBulkCancel() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            OrderDTO dto = new OrderDTO();
+            dto.setClientId(clientId);
+            dto.setInstrumentId(instrumentId);
+            dto.setPrice(Prices.of("100"));
+            dto.setQuantity(1);
+            dto.setOrderType(BUY);
+
+            mockMvc.perform(post("/api/orders")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(post("/api/orders/bulk-cancel")
+                        .param("validity", "DAY")
+                        .param("instrumentId", String.valueOf(instrumentId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cancelled").value(3))
+                .andExpect(jsonPath("$.rowsUpdated").value(3));
+
+        mockMvc.perform(get("/api/orders/pending"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
     @Test
     void testGetAllOrders() throws Exception {
         // First, place an order
         OrderDTO dto = new OrderDTO();
         dto.setClientId(clientId);
         dto.setInstrumentId(instrumentId);
-        dto.setPrice(150.0);
+        dto.setPrice(Prices.of("150"));
         dto.setQuantity(10);
         dto.setOrderType(SELL);
 
@@ -110,13 +378,71 @@ class OrderControllerIntegrationTest {
                 .andExpect(jsonPath("$", hasSize(1)));
     }
 
+    @Test
+    void testGetOrders_KeysetPages() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            OrderDTO dto = new OrderDTO();
+            dto.setClientId(clientId);
+            dto.setInstrumentId(instrumentId);
+            dto.setPrice(Prices.of("150"));
+            dto.setQuantity(i);
+            dto.setOrderType(SELL);
+            mockMvc.perform(post("/api/orders")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isOk());
+        }
+
+        String nextAfterId = mockMvc.perform(get("/api/orders").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].quantity").value(1))
+                .andExpect(header().exists("X-Next-After-Id"))
+                .andReturn().getResponse().getHeader("X-Next-After-Id");
+
+        mockMvc.perform(get("/api/orders").param("afterId", nextAfterId).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].quantity").value(3))
+                .andExpect(header().doesNotExist("X-Next-After-Id"));
+    }
+
+    @Test
+    void testExportOrders_Ndjson() throws Exception {
+        OrderDTO dto = new OrderDTO();
+        dto.setClientId(clientId);
+        dto.setInstrumentId(instrumentId);
+        dto.setPrice(Prices.of("150.25"));
+        dto.setQuantity(10);
+        dto.setOrderType(SELL);
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/orders")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isOk());
+        }
+
+        String body = mockMvc.perform(get("/api/orders/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        for (String line : lines) {
+            OrderDTO exported = objectMapper.readValue(line, OrderDTO.class);
+            assertEquals(Prices.of("150.25"), exported.getPrice());
+            assertEquals(clientId, exported.getClientId());
+        }
+    }
+
     @Test
     void testGetOrderById() throws Exception {
         // First place an order
         OrderDTO dto = new OrderDTO();
         dto.setClientId(clientId);
         dto.setInstrumentId(instrumentId);
-        dto.setPrice(120.0);
+        dto.setPrice(Prices.of("120"));
         dto.setQuantity(3);
         dto.setOrderType(BUY);
 
@@ -138,7 +464,7 @@ class OrderControllerIntegrationTest {
         OrderDTO dto = new OrderDTO();
         dto.setClientId(clientId);
         dto.setInstrumentId(instrumentId);
-        dto.setPrice(130.0);
+        dto.setPrice(Prices.of("130"));
         dto.setQuantity(8);
         dto.setOrderType(BUY);
 
@@ -149,7 +475,7 @@ class OrderControllerIntegrationTest {
 
         OrderDTO created = objectMapper.readValue(response, OrderDTO.class);
 
-        created.setPrice(200.0);
+        created.setPrice(Prices.of("200"));
         created.setQuantity(15);
 
         mockMvc.perform(put("/api/orders/" + created.getId() + "/modify")
@@ -160,12 +486,65 @@ class OrderControllerIntegrationTest {
                 .andExpect(jsonPath("$.quantity").value(15));
     }
 
+    @Test
+    void testModifyOrder_StaleVersionConflicts() throws Exception {
+        OrderDTO dto = new OrderDTO();
+        dto.setClientId(clientId);
+        dto.setInstrumentId(instrumentId);
+        dto.setPrice(Prices.of("130"));
+        dto.setQuantity(8);
+        dto.setOrderType(BUY);
+
+        String response = mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(jsonPath("$.version").value(0))
+                .andReturn().getResponse().getContentAsString();
+        OrderDTO created = objectMapper.readValue(response, OrderDTO.class);
+
+        created.setPrice(Prices.of("131"));
+        mockMvc.perform(put("/api/orders/" + created.getId() + "/modify")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(created)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+
+        // a second amendment based on the same version loses
+        created.setPrice(Prices.of("132"));
+        mockMvc.perform(put("/api/orders/" + created.getId() + "/modify")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(created)))
+                .andExpect(status().isConflict());
+
+        orderWriteBehind.awaitFlushed();
+        Order stored = orderRepository.findById(created.getId()).orElseThrow();
+        assertEquals(1L, stored.getVersion());
+        assertEquals(Prices.of("131"), stored.getPrice());
+    }
+
+    @Test
+    void testPlaceOrder_PriceIsDecimalRupeesInJson() throws Exception {
+        String body = "{\"clientId\":" + clientId + ",\"instrumentId\":" + instrumentId
+                + ",\"orderType\":\"BUY\",\"quantity\":1,\"price\":%s,\"validity\":\"DAY\"}";
+
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format(body, "2450.55")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(2450.55));
+
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format(body, "2450.00001")))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testCancelOrder() throws Exception {
         OrderDTO dto = new OrderDTO();
         dto.setClientId(clientId);
         dto.setInstrumentId(instrumentId);
-        dto.setPrice(100.0);
+        dto.setPrice(Prices.of("100"));
         dto.setQuantity(2);
         dto.setOrderType(SELL);
 
@@ -189,7 +568,7 @@ class OrderControllerIntegrationTest {
         OrderDTO dto = new OrderDTO();
         dto.setClientId(clientId);
         dto.setInstrumentId(instrumentId);
-        dto.setPrice(400.0);
+        dto.setPrice(Prices.of("400"));
         dto.setQuantity(1);
         dto.setOrderType(BUY);
 
@@ -208,7 +587,7 @@ class OrderControllerIntegrationTest {
         OrderDTO dto = new OrderDTO();
         dto.setClientId(clientId);
         dto.setInstrumentId(instrumentId);
-        dto.setPrice(180.0);
+        dto.setPrice(Prices.of("180"));
         dto.setQuantity(7);
         dto.setOrderType(BUY);
 
@@ -220,9 +599,13 @@ class OrderControllerIntegrationTest {
         OrderDTO order = objectMapper.readValue(response, OrderDTO.class);
 
         mockMvc.perform(put("/api/orders/" + order.getId() + "/status")
-                        .param("orderStatus", "EXECUTED")) // <-- ✅ Correct param name
+                        .param("orderStatus", "EXECUTED"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(put("/api/orders/" + order.getId() + "/status")
+                        .param("orderStatus", "CANCELLED"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.status").value("EXECUTED"));
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
     }
 
     @Test
@@ -230,17 +613,31 @@ class OrderControllerIntegrationTest {
         OrderDTO dto = new OrderDTO();
         dto.setClientId(clientId);
         dto.setInstrumentId(instrumentId);
-        dto.setPrice(999.0);
+        dto.setPrice(Prices.of("999"));
         dto.setQuantity(3);
         dto.setOrderType(SELL);
 
-        mockMvc.perform(post("/api/orders")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(dto)))
-                .andExpect(status().isOk());
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/orders")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isOk());
+        }
 
         mockMvc.perform(get("/api/orders/client/" + clientId))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].clientId").value(clientId));
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].clientId").value(clientId))
+                .andExpect(header().doesNotExist("X-Next-Before-Id"));
+
+        // newest first, one per page
+        String newest = mockMvc.perform(get("/api/orders/client/" + clientId).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().exists("X-Next-Before-Id"))
+                .andReturn().getResponse().getHeader("X-Next-Before-Id");
+        mockMvc.perform(get("/api/orders/client/" + clientId).param("beforeId", newest).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(Long.parseLong(newest) - 1));
     }
 }
@@ -4,6 +4,7 @@ import com.example.StockBrokingPlatform.DTO.WatchListDTO;
 import com.example.StockBrokingPlatform.DTO.WatchListItemDTO;
 import com.example.StockBrokingPlatform.model.Client;
 import com.example.StockBrokingPlatform.model.Instrument;
+import com.example.StockBrokingPlatform.money.Prices;
 import com.example.StockBrokingPlatform.repository.ClientRepository;
 import com.example.StockBrokingPlatform.repository.InstrumentRepository;
 import com.example.StockBrokingPlatform.repository.WatchListRepository;
@@ -70,7 +71,7 @@ class WatchListControllerIntegrationTest {
         instrument.setCompanyName("Tata Consultancy Services");
         instrument.setExchange(NSE);
         instrument.setExchangeType(Equity);
-        instrument.setCurrentPrice(3500.0);
+        instrument.setCurrentPrice(Prices.of("3500"));
         instrument.setLotSize(1);
         instrument = instrumentRepository.save(instrument);
         instrumentId = instrument.getId();
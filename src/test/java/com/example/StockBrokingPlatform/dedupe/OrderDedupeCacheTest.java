@@ -0,0 +1,91 @@
+package com.example.StockBrokingPlatform.dedupe;
+
+import com.example.StockBrokingPlatform.DTO.OrderDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderDedupeCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private long now = TimeUnit.SECONDS.toNanos(100);
+    private final OrderDedupeCache cache = new OrderDedupeCache(meterRegistry, () -> now, TimeUnit.SECONDS.toNanos(60), 2);
+    private final AtomicInteger placements = new AtomicInteger();
+
+    private OrderDTO order() {
+        OrderDTO dto = new OrderDTO();
+        dto.setId((long) placements.incrementAndGet());
+        return dto;
+    }
+
+    @Test
+    void retryInsideWindowGetsOriginalResult() {
+        OrderDTO first = cache.place(1L, "A", this::order);
+
+        assertSame(first, cache.place(1L, "A", this::order));
+        assertSame(first, cache.get(1L, "A"));
+        // the key is per client
+        assertNotSame(first, cache.place(2L, "A", this::order));
+        assertEquals(2, placements.get());
+        assertEquals(2.0, meterRegistry.counter("orders.dedupe.hits").count());
+    }
+
+    @Test
+    void entriesExpireAndOldestAreEvictedWhenFull() {
+        cache.place(1L, "A", this::order);
+        now += TimeUnit.SECONDS.toNanos(61);
+        assertNull(cache.get(1L, "A"));
+        assertEquals(2L, cache.place(1L, "A", this::order).getId());
+
+        cache.place(1L, "B", this::order);
+        cache.place(1L, "C", this::order);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get(1L, "A"));
+        assertNotNull(cache.get(1L, "C"));
+    }
+
+    @Test
+    void failedPlacementIsNotRemembered() {
+        assertThrows(IllegalStateException.class, () -> cache.place(1L, "A", () -> {
+            throw new IllegalStateException("rejected");
+        }));
+
+        assertNull(cache.get(1L, "A"));
+        assertEquals(1L, cache.place(1L, "A", this::order).getId());
+    }
+
+    @Test
+    void concurrentRetryWaitsForTheFirstAttempt() throws Exception {
+        CountDownLatch placing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<OrderDTO> first = CompletableFuture.supplyAsync(() -> cache.place(1L, "A", () -> {
+            placing.countDown();
+            await(release);
+            return order();
+        }));
+        placing.await();
+        // still running: nothing to answer a batch leg with yet
+        assertNull(cache.get(1L, "A"));
+
+        CompletableFuture<OrderDTO> retry = CompletableFuture.supplyAsync(() -> cache.place(1L, "A", this::order));
+        release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), retry.get(5, TimeUnit.SECONDS));
+        assertEquals(1, placements.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
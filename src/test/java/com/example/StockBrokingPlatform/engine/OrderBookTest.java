@@ -0,0 +1,139 @@
+package com.example.StockBrokingPlatform.engine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.example.StockBrokingPlatform.model.Order.OrderType.BUY;
+import static com.example.StockBrokingPlatform.model.Order.OrderType.SELL;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderBookTest {
+
+    private OrderBook book;
+
+    @BeforeEach
+    void setUp() {
+        book = new OrderBook(1L);
+    }
+
+    @Test
+    void testNonCrossingOrdersRest() {
+        assertTrue(book.match(new LiveOrder(1L, 1L, 1L, BUY, 99, 10)).isEmpty());
+        assertTrue(book.match(new LiveOrder(2L, 2L, 1L, SELL, 101, 10)).isEmpty());
+
+        assertEquals(99L, book.bestBid());
+        assertEquals(101L, book.bestAsk());
+        assertEquals(2, book.size());
+    }
+
+    @Test
+    void testMatchesBestPriceFirstAtRestingPrice() {
+        book.match(new LiveOrder(1L, 1L, 1L, SELL, 102, 5));
+        book.match(new LiveOrder(2L, 1L, 1L, SELL, 101, 5));
+
+        List<Fill> fills = book.match(new LiveOrder(3L, 2L, 1L, BUY, 102, 7));
+
+        assertEquals(2, fills.size());
+        assertEquals(2L, fills.get(0).restingOrderId());
+        assertEquals(101, fills.get(0).price());
+        assertEquals(5, fills.get(0).quantity());
+        assertEquals(1L, fills.get(1).restingOrderId());
+        assertEquals(102, fills.get(1).price());
+        assertEquals(2, fills.get(1).quantity());
+        assertEquals(0, fills.get(1).aggressorRemaining());
+        assertEquals(3, fills.get(1).restingRemaining());
+        assertEquals(3, book.quantityAt(SELL, 102));
+    }
+
+    @Test
+    void testTimePriorityWithinPriceLevel() {
+        book.match(new LiveOrder(1L, 1L, 1L, BUY, 100, 5));
+        book.match(new LiveOrder(2L, 1L, 1L, BUY, 100, 5));
+
+        List<Fill> fills = book.match(new LiveOrder(3L, 2L, 1L, SELL, 100, 5));
+
+        assertEquals(1, fills.size());
+        assertEquals(1L, fills.get(0).restingOrderId());
+        assertEquals(3L, fills.get(0).sellOrderId());
+        assertNull(book.get(1L));
+        assertNotNull(book.get(2L));
+    }
+
+    @Test
+    void testUnfilledRemainderRests() {
+        book.match(new LiveOrder(1L, 1L, 1L, SELL, 100, 5));
+
+        List<Fill> fills = book.match(new LiveOrder(2L, 2L, 1L, BUY, 100, 8));
+
+        assertEquals(1, fills.size());
+        assertEquals(3, fills.get(0).aggressorRemaining());
+        assertNull(book.bestAsk());
+        assertEquals(100L, book.bestBid());
+        assertEquals(3, book.get(2L).getRemainingQuantity());
+    }
+
+    @Test
+    void testCancelRemovesOrderAndEmptyLevel() {
+        book.match(new LiveOrder(1L, 1L, 1L, BUY, 100, 5));
+
+        assertNotNull(book.cancel(1L));
+        assertNull(book.cancel(1L));
+        assertNull(book.bestBid());
+        assertEquals(0, book.size());
+    }
+
+    @Test
+    void testAmendQuantityDownKeepsPriority() {
+        book.match(new LiveOrder(1L, 1L, 1L, BUY, 100, 5));
+        book.match(new LiveOrder(2L, 1L, 1L, BUY, 100, 5));
+
+        book.amend(1L, 100, 2, 9L);
+        assertEquals(0L, book.get(1L).getPriority());
+        List<Fill> fills = book.match(new LiveOrder(3L, 2L, 1L, SELL, 100, 2));
+
+        assertEquals(1L, fills.get(0).restingOrderId());
+        assertEquals(5, book.quantityAt(BUY, 100));
+    }
+
+    @Test
+    void testAmendQuantityUpRequeuesWithNewPriority() {
+        LiveOrder first = new LiveOrder(1L, 1L, 1L, BUY, 100, 5);
+        first.setPriority(1L);
+        book.match(first);
+        LiveOrder second = new LiveOrder(2L, 1L, 1L, BUY, 100, 5);
+        second.setPriority(2L);
+        book.match(second);
+
+        book.amend(1L, 100, 8, 3L);
+
+        assertEquals(3L, book.get(1L).getPriority());
+        assertEquals(2L, book.match(new LiveOrder(3L, 2L, 1L, SELL, 100, 2)).get(0).restingOrderId());
+    }
+
+    @Test
+    void testAmendPriceCanTrade() {
+        book.match(new LiveOrder(1L, 1L, 1L, SELL, 101, 5));
+        book.match(new LiveOrder(2L, 2L, 1L, BUY, 100, 5));
+
+        List<Fill> fills = book.amend(2L, 101, 5, 9L);
+
+        assertEquals(1, fills.size());
+        assertEquals(2L, fills.get(0).aggressorOrderId());
+        assertEquals(0, book.size());
+    }
+
+    @Test
+    void testAmendCountsFilledQuantity() {
+        book.match(new LiveOrder(1L, 1L, 1L, BUY, 100, 10));
+        book.match(new LiveOrder(2L, 2L, 1L, SELL, 100, 4));
+
+        // new total of 6 with 4 filled leaves 2 resting, still first in the queue
+        book.amend(1L, 100, 6, 9L);
+
+        assertEquals(2, book.get(1L).getRemainingQuantity());
+        assertEquals(4, book.get(1L).getFilledQuantity());
+        assertEquals(1L, book.match(new LiveOrder(3L, 2L, 1L, SELL, 100, 2)).get(0).restingOrderId());
+    }
+}
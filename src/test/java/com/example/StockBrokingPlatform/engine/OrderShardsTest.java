@@ -0,0 +1,75 @@
+package com.example.StockBrokingPlatform.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderShardsTest {
+
+    private final OrderShards shards = new OrderShards(4);
+
+    @AfterEach
+    void tearDown() {
+        shards.shutdown();
+    }
+
+    @Test
+    void testSameInstrumentAlwaysRunsOnSameThread() {
+        String first = shards.execute(42L, () -> Thread.currentThread().getName());
+        String second = shards.execute(42L, () -> Thread.currentThread().getName());
+
+        assertEquals(first, second);
+        assertEquals("order-shard-" + shards.shardOf(42L), first);
+    }
+
+    @Test
+    void testCommandsForOneInstrumentAreSerialised() {
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        int[] counter = new int[1];
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            futures.add(CompletableFuture.runAsync(() -> shards.execute(7L, () -> counter[0]++), callers));
+        }
+        futures.forEach(CompletableFuture::join);
+        callers.shutdown();
+
+        assertEquals(1000, shards.execute(7L, () -> counter[0]));
+    }
+
+    @Test
+    void testNestedCallOnOwningShardRunsInline() {
+        assertEquals(1, shards.execute(3L, () -> shards.execute(3L, () -> 1)));
+    }
+
+    @Test
+    void testExceptionsPropagateToCaller() {
+        assertThrows(IllegalStateException.class, () -> shards.execute(1L, () -> {
+            throw new IllegalStateException("rejected");
+        }));
+    }
+
+    @Test
+    void testNoShardRunsWhilePaused() throws Exception {
+        int[] counter = new int[1];
+        CompletableFuture<Integer> queued = new CompletableFuture<>();
+
+        int seen = shards.whilePaused(() -> {
+            shards.submit(7L, () -> queued.complete(++counter[0]));
+            // the shard is parked, so the command cannot have run yet
+            assertFalse(queued.isDone());
+            return counter[0];
+        });
+
+        assertEquals(0, seen);
+        assertEquals(1, queued.get(5, TimeUnit.SECONDS));
+        assertThrows(IllegalStateException.class, () -> shards.execute(7L, () -> shards.whilePaused(() -> 0)));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.StockBrokingPlatform.expiry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private final TimingWheel wheel = new TimingWheel(100, 8, 0);
+    private final List<Long> expired = new ArrayList<>();
+
+    @Test
+    void firesAtDeadlineNotBefore() {
+        wheel.schedule(1L, 1L, 250);
+
+        wheel.advanceTo(200, timer -> expired.add(timer.orderId()));
+        assertTrue(expired.isEmpty());
+
+        wheel.advanceTo(300, timer -> expired.add(timer.orderId()));
+        assertEquals(List.of(1L), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deadlinesBeyondOneRevolutionWaitForTheirRound() {
+        // 8 slots of 100 ms: 2500 ms is three revolutions out
+        wheel.schedule(1L, 1L, 2500);
+        wheel.schedule(2L, 1L, 500);
+
+        wheel.advanceTo(900, timer -> expired.add(timer.orderId()));
+        assertEquals(List.of(2L), expired);
+
+        wheel.advanceTo(2400, timer -> expired.add(timer.orderId()));
+        assertEquals(List.of(2L), expired);
+
+        wheel.advanceTo(2500, timer -> expired.add(timer.orderId()));
+        assertEquals(List.of(2L, 1L), expired);
+    }
+
+    @Test
+    void cancelledTimerNeverFires() {
+        TimingWheel.Timer timer = wheel.schedule(1L, 1L, 300);
+        wheel.schedule(2L, 1L, 300);
+
+        wheel.cancel(timer);
+        wheel.cancel(timer);
+        wheel.advanceTo(1000, fired -> expired.add(fired.orderId()));
+
+        assertEquals(List.of(2L), expired);
+    }
+
+    @Test
+    void pastDeadlineFiresOnNextTick() {
+        wheel.advanceTo(1000, fired -> expired.add(fired.orderId()));
+        wheel.schedule(1L, 1L, 0);
+
+        wheel.advanceTo(1100, fired -> expired.add(fired.orderId()));
+        assertEquals(List.of(1L), expired);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.StockBrokingPlatform.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongSetTest {
+
+    @Test
+    void testAddRemoveContains() {
+        LongSet set = new LongSet();
+        assertTrue(set.add(7));
+        assertFalse(set.add(7));
+        assertTrue(set.contains(7));
+        assertTrue(set.remove(7));
+        assertFalse(set.remove(7));
+        assertFalse(set.contains(7));
+        assertEquals(0, set.size());
+    }
+
+    @Test
+    void testRejectsNonPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new LongSet().add(0));
+    }
+
+    @Test
+    void testMatchesTreeSetUnderRandomChurn() {
+        LongSet set = new LongSet();
+        TreeSet<Long> expected = new TreeSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            long value = 1 + random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), set.toSortedArray());
+        for (long value = 1; value <= 2_000; value++) {
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+    }
+}
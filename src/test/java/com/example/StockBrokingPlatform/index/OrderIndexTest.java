@@ -0,0 +1,116 @@
+package com.example.StockBrokingPlatform.index;
+
+import com.example.StockBrokingPlatform.model.Order;
+import com.example.StockBrokingPlatform.persistence.OrderRow;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.example.StockBrokingPlatform.model.Order.OrderStatus.CANCELLED;
+import static com.example.StockBrokingPlatform.model.Order.OrderStatus.EXECUTED;
+import static com.example.StockBrokingPlatform.model.Order.OrderStatus.PENDING;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderIndexTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final OrderIndex index = new OrderIndex(now::get, 100);
+
+    private static OrderRow row(long id, long clientId, Order.OrderStatus status, String clientOrderId) {
+        return new OrderRow(id, clientId, 1L, Order.OrderType.BUY, Order.Validity.DAY, status, 10, 100, null,
+                0, 0, clientOrderId, 0);
+    }
+
+    private static List<Long> ids(List<OrderRow> rows) {
+        return rows.stream().map(OrderRow::id).toList();
+    }
+
+    @Test
+    void testClientPagesNewestFirst() {
+        for (long id = 1; id <= 5; id++) {
+            index.put(row(id, id % 2 == 0 ? 2L : 1L, PENDING, null));
+        }
+
+        assertEquals(List.of(5L, 3L, 1L), ids(index.byClient(1L, Long.MAX_VALUE, 10).rows()));
+        assertEquals(List.of(3L), ids(index.byClient(1L, 5L, 1).rows()));
+        assertEquals(List.of(4L, 2L), ids(index.byClient(2L, Long.MAX_VALUE, 10).rows()));
+        assertEquals(0, index.byClient(1L, Long.MAX_VALUE, 10).historyThrough());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids(index.open()));
+    }
+
+    @Test
+    void testClosedOrdersAreEvictedAfterRetention() {
+        index.put(row(1L, 1L, PENDING, "A"));
+        index.put(row(2L, 1L, PENDING, "B"));
+        index.put(row(1L, 1L, EXECUTED, "A"));
+        now.set(50);
+        index.put(row(2L, 1L, CANCELLED, "B"));
+
+        now.set(120);
+        assertEquals(1, index.evictClosed());
+        assertNull(index.get(1L));
+        assertNull(index.byClientOrderId(1L, "A"));
+        assertEquals(CANCELLED, index.get(2L).status());
+        assertEquals(2L, index.byClientOrderId(1L, "B"));
+        // the evicted order is left to the table
+        OrderIndex.ClientPage page = index.byClient(1L, Long.MAX_VALUE, 10);
+        assertEquals(List.of(2L), ids(page.rows()));
+        assertEquals(1L, page.historyThrough());
+        assertEquals(1L, index.historyThrough(1L));
+
+        now.set(150);
+        assertEquals(1, index.evictClosed());
+        assertEquals(0, index.size());
+        assertEquals(2L, index.historyThrough(1L));
+    }
+
+    @Test
+    void testOpenOrdersAreNeverEvicted() {
+        index.put(row(1L, 1L, PENDING, null));
+        now.set(1_000);
+        assertEquals(0, index.evictClosed());
+        assertEquals(PENDING, index.get(1L).status());
+    }
+
+    @Test
+    void testOrdersBelowLoadedHistoryAreLeftToTheTable() {
+        index.clear(10L);
+        index.put(row(4L, 1L, PENDING, null));
+        index.put(row(11L, 1L, PENDING, null));
+
+        OrderIndex.ClientPage page = index.byClient(1L, Long.MAX_VALUE, 10);
+        assertEquals(List.of(11L), ids(page.rows()));
+        assertEquals(10L, page.historyThrough());
+        assertEquals(10L, index.historyThrough(2L));
+        assertEquals(List.of(4L, 11L), ids(index.open()));
+    }
+
+    @Test
+    void testClaimAndReleaseClientOrderId() {
+        assertNull(index.claimClientOrderId(1L, "A", 1L));
+        assertEquals(1L, index.claimClientOrderId(1L, "A", 2L));
+        assertNull(index.claimClientOrderId(2L, "A", 3L));
+        index.releaseClientOrderId(1L, "A", 1L);
+        assertNull(index.claimClientOrderId(1L, "A", 2L));
+    }
+
+    @Test
+    void testCancelOpenAndRemoveClient() {
+        index.put(row(1L, 1L, PENDING, "A"));
+        index.put(row(2L, 1L, EXECUTED, null));
+        index.put(row(3L, 2L, PENDING, null));
+
+        index.cancelOpen(List.of(1L, 2L));
+        assertEquals(CANCELLED, index.get(1L).status());
+        assertEquals(EXECUTED, index.get(2L).status());
+        assertEquals(List.of(3L), ids(index.open()));
+
+        index.removeClient(1L);
+        assertNull(index.get(1L));
+        assertNull(index.byClientOrderId(1L, "A"));
+        assertEquals(1, index.size());
+        now.set(1_000);
+        assertEquals(0, index.evictClosed());
+    }
+}
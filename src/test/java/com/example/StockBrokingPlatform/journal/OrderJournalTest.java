@@ -0,0 +1,184 @@
+package com.example.StockBrokingPlatform.journal;
+
+import com.example.StockBrokingPlatform.model.Client;
+import com.example.StockBrokingPlatform.model.Instrument;
+import com.example.StockBrokingPlatform.model.Order;
+import com.example.StockBrokingPlatform.model.Trade;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.example.StockBrokingPlatform.model.Order.OrderStatus.PARTIALLY_FILLED;
+import static com.example.StockBrokingPlatform.model.Order.OrderStatus.PENDING;
+import static com.example.StockBrokingPlatform.model.Order.OrderType.BUY;
+import static com.example.StockBrokingPlatform.model.Order.OrderType.SELL;
+import static com.example.StockBrokingPlatform.model.Order.Validity.DAY;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private OrderJournal open(int segmentSize) {
+        OrderJournal journal = new OrderJournal(dir.toString(), segmentSize, 0);
+        journal.open();
+        return journal;
+    }
+
+    private OrderEvent event(long orderId, int quantity) {
+        return new OrderEvent(OrderEvent.Type.PLACED, orderId, 1L, 2L, BUY, DAY, PENDING, quantity, 1012500,
+                LocalDateTime.of(2025, 2, 3, 9, 15, 0, 123456789), 0, 0, orderId % 2 == 0 ? "CO-" + orderId : null);
+    }
+
+    private List<OrderEvent> replay(OrderJournal journal, long from) {
+        List<OrderEvent> events = new ArrayList<>();
+        journal.replay(from, events::add);
+        return events;
+    }
+
+    @Test
+    void testAppendedRecordsSurviveReopen() {
+        OrderJournal journal = open(4096);
+        journal.append(event(1L, 10));
+        journal.append(event(2L, 20));
+        journal.close();
+
+        OrderJournal reopened = open(4096);
+        List<OrderEvent> events = replay(reopened, 0);
+
+        assertEquals(2, events.size());
+        assertEquals(2, reopened.lastSequence());
+        OrderEvent first = events.get(0);
+        assertEquals(1L, first.getSequence());
+        assertEquals(1L, first.getOrderId());
+        assertEquals(BUY, first.getOrderType());
+        assertEquals(DAY, first.getValidity());
+        assertEquals(PENDING, first.getStatus());
+        assertEquals(10, first.getQuantity());
+        assertEquals(1012500, first.getPrice());
+        assertEquals(LocalDateTime.of(2025, 2, 3, 9, 15, 0, 123456789), first.getOrderDate());
+        assertNull(first.getClientOrderId());
+        assertEquals("CO-2", events.get(1).getClientOrderId());
+
+        assertEquals(3L, reopened.append(event(3L, 30)));
+    }
+
+    @Test
+    void testFillRecordCarriesTheTrade() {
+        Order resting = new Order();
+        resting.setId(7L);
+        Client client = new Client();
+        client.setId(3L);
+        resting.setClient(client);
+        Instrument instrument = new Instrument();
+        instrument.setId(2L);
+        resting.setInstrument(instrument);
+        resting.setOrderType(SELL);
+        resting.setOrderStatus(PARTIALLY_FILLED);
+        resting.setQuantity(10);
+        resting.setFilledQuantity(4);
+        Trade trade = new Trade();
+        trade.setId(12L);
+        trade.setInstrumentId(2L);
+        trade.setBuyOrderId(8L);
+        trade.setSellOrderId(7L);
+        trade.setBuyClientId(5L);
+        trade.setSellClientId(3L);
+        trade.setAggressorSide(BUY);
+        trade.setQuantity(4);
+        trade.setPrice(1012500);
+        trade.setTradeTime(LocalDateTime.of(2025, 2, 3, 9, 15, 1));
+
+        OrderJournal journal = open(4096);
+        journal.append(OrderEvent.filled(resting, trade));
+        journal.append(event(1L, 10));
+        List<OrderEvent> events = replay(journal, 0);
+        journal.close();
+
+        Trade replayed = events.get(0).toTrade();
+        assertEquals(4, events.get(0).getFilledQuantity());
+        assertEquals(12L, replayed.getId());
+        assertEquals(2L, replayed.getInstrumentId());
+        assertEquals(8L, replayed.getBuyOrderId());
+        assertEquals(7L, replayed.getSellOrderId());
+        assertEquals(5L, replayed.getBuyClientId());
+        assertEquals(3L, replayed.getSellClientId());
+        assertEquals(BUY, replayed.getAggressorSide());
+        assertEquals(4, replayed.getQuantity());
+        assertEquals(1012500, replayed.getPrice());
+        assertEquals(LocalDateTime.of(2025, 2, 3, 9, 15, 1), replayed.getTradeTime());
+        assertNull(events.get(1).toTrade());
+    }
+
+    @Test
+    void testRollsSegmentsAndReplaysFromSequence() throws IOException {
+        OrderJournal journal = open(256);
+        for (int i = 1; i <= 20; i++) {
+            journal.append(event(i, i));
+        }
+        journal.close();
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertTrue(files.count() > 1);
+        }
+        OrderJournal reopened = open(256);
+        assertEquals(20, replay(reopened, 0).size());
+        List<OrderEvent> tail = replay(reopened, 15);
+        assertEquals(6, tail.size());
+        assertEquals(15L, tail.get(0).getSequence());
+    }
+
+    @Test
+    void testTornRecordIsIgnoredAndOverwritten() throws IOException {
+        OrderJournal journal = open(4096);
+        journal.append(event(1L, 10));
+        journal.append(event(2L, 20));
+        journal.close();
+
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // corrupt one payload byte of the second record
+            channel.write(ByteBuffer.wrap(new byte[]{0x7F}), 8 + 8 + OrderEvent.PAYLOAD_SIZE + 8 + 20);
+        }
+
+        OrderJournal reopened = open(4096);
+        assertEquals(1, replay(reopened, 0).size());
+        assertEquals(2L, reopened.append(event(3L, 30)));
+        assertEquals(3L, replay(reopened, 0).get(1).getOrderId());
+    }
+
+    @Test
+    void testTruncateKeepsSegmentsFromTheGivenSequence() throws IOException {
+        OrderJournal journal = open(256);
+        for (int i = 1; i <= 20; i++) {
+            journal.append(event(i, i));
+        }
+
+        assertTrue(journal.truncateBefore(15) > 0);
+        List<OrderEvent> remaining = replay(journal, 0);
+        assertTrue(remaining.get(0).getSequence() <= 15);
+        assertEquals(20L, remaining.get(remaining.size() - 1).getSequence());
+
+        // the segment being written survives even a truncation past its end
+        journal.truncateBefore(Long.MAX_VALUE);
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+        assertEquals(21L, journal.append(event(21L, 21)));
+        journal.close();
+    }
+}
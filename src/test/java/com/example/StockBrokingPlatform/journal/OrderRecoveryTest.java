@@ -0,0 +1,115 @@
+package com.example.StockBrokingPlatform.journal;
+
+import com.example.StockBrokingPlatform.engine.LiveOrder;
+import com.example.StockBrokingPlatform.engine.MatchingEngine;
+import com.example.StockBrokingPlatform.engine.OrderShards;
+import com.example.StockBrokingPlatform.persistence.OrderIdAllocator;
+import com.example.StockBrokingPlatform.position.PositionKeeper;
+import com.example.StockBrokingPlatform.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.example.StockBrokingPlatform.model.Order.OrderStatus.PARTIALLY_FILLED;
+import static com.example.StockBrokingPlatform.model.Order.OrderStatus.PENDING;
+import static com.example.StockBrokingPlatform.model.Order.OrderType.BUY;
+import static com.example.StockBrokingPlatform.model.Order.Validity.DAY;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderRecoveryTest {
+
+    @Mock
+    private OrderJournal orderJournal;
+
+    @Mock
+    private OrderSnapshotter orderSnapshotter;
+
+    @Mock
+    private OrderService orderService;
+
+    @Spy
+    private MatchingEngine matchingEngine = new MatchingEngine();
+
+    @Spy
+    private OrderShards orderShards = new OrderShards(2);
+
+    @Mock
+    private OrderIdAllocator orderIdAllocator;
+
+    @Mock
+    private PositionKeeper positionKeeper;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private OrderRecovery orderRecovery;
+
+    @AfterEach
+    void tearDown() {
+        orderShards.shutdown();
+    }
+
+    private static LiveOrder snapshotted(long orderId, int quantity, long priority) {
+        LiveOrder order = new LiveOrder(orderId, 9L, 1L, BUY, DAY, null, 100, quantity, quantity);
+        order.setPriority(priority);
+        return order;
+    }
+
+    private static OrderEvent event(long sequence, OrderEvent.Type type, long orderId, int quantity, int filled) {
+        OrderEvent event = new OrderEvent(type, orderId, 9L, 1L, BUY, DAY, filled > 0 ? PARTIALLY_FILLED : PENDING,
+                quantity, 100, null, filled, filled > 0 ? 100 : 0, null);
+        event.setSequence(sequence);
+        return event;
+    }
+
+    private void journal(OrderEvent... events) {
+        doAnswer(invocation -> {
+            Consumer<OrderEvent> consumer = invocation.getArgument(1);
+            List.of(events).forEach(consumer);
+            return null;
+        }).when(orderJournal).replay(eq(11L), any());
+    }
+
+    @Test
+    void testOrdersTouchedAfterTheSnapshotKeepTheirQueuePosition() {
+        when(orderSnapshotter.loadLatest()).thenReturn(new OrderSnapshot(10L, 50L, List.of(
+                snapshotted(1L, 5, 1L), snapshotted(2L, 5, 2L), snapshotted(3L, 5, 3L), snapshotted(5L, 5, 5L)),
+                0, List.of()));
+        journal(
+                // a partial fill and a reduction keep their place, an increase goes to the back
+                event(11L, OrderEvent.Type.FILLED, 2L, 5, 2),
+                event(12L, OrderEvent.Type.MODIFIED, 3L, 4, 0),
+                event(13L, OrderEvent.Type.MODIFIED, 1L, 8, 0),
+                event(14L, OrderEvent.Type.PLACED, 4L, 5, 0));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class))).thenReturn(List.of(9L), List.of(1L));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(5L);
+
+        orderRecovery.recover();
+
+        List<Long> queue = new ArrayList<>();
+        matchingEngine.getBook(1L).forEach(order -> queue.add(order.getOrderId()));
+        assertEquals(List.of(2L, 3L, 5L, 1L, 4L), queue);
+        assertEquals(3, matchingEngine.getBook(1L).get(2L).getRemainingQuantity());
+        assertEquals(4, matchingEngine.getBook(1L).get(3L).getQuantity());
+        // only the journaled orders are written back
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> rows) -> rows.size() == 4));
+        verify(orderIdAllocator).reserveThrough(50L);
+        verify(positionKeeper).load(List.of(), List.of());
+        verify(orderService).loadOrderIndex();
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.StockBrokingPlatform.journal;
+
+import com.example.StockBrokingPlatform.engine.LiveOrder;
+import com.example.StockBrokingPlatform.engine.MatchingEngine;
+import com.example.StockBrokingPlatform.engine.OrderShards;
+import com.example.StockBrokingPlatform.model.Trade;
+import com.example.StockBrokingPlatform.persistence.OrderIdAllocator;
+import com.example.StockBrokingPlatform.persistence.OrderWriteBehind;
+import com.example.StockBrokingPlatform.persistence.TradeTape;
+import com.example.StockBrokingPlatform.position.Position;
+import com.example.StockBrokingPlatform.position.PositionKeeper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.example.StockBrokingPlatform.model.Order.OrderType.BUY;
+import static com.example.StockBrokingPlatform.model.Order.OrderType.SELL;
+import static com.example.StockBrokingPlatform.model.Order.Validity.DAY;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class OrderSnapshotterTest {
+
+    @TempDir
+    Path dir;
+
+    private final MatchingEngine matchingEngine = new MatchingEngine();
+    private final OrderShards orderShards = new OrderShards(2);
+    private final OrderJournal orderJournal = mock(OrderJournal.class);
+    private final OrderIdAllocator orderIdAllocator = mock(OrderIdAllocator.class);
+    private final TradeTape tradeTape = mock(TradeTape.class);
+    private final OrderWriteBehind orderWriteBehind = mock(OrderWriteBehind.class);
+    private final PositionKeeper positionKeeper = new PositionKeeper();
+    private OrderSnapshotter snapshotter;
+
+    @BeforeEach
+    void setUp() {
+        snapshotter = new OrderSnapshotter(matchingEngine, orderShards, orderJournal, orderIdAllocator,
+                orderWriteBehind, tradeTape, positionKeeper, dir.toString(), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderShards.shutdown();
+    }
+
+    private void rest(long orderId, long instrumentId, long price, int quantity) {
+        LiveOrder order = new LiveOrder(orderId, 9L, instrumentId, BUY, DAY,
+                LocalDateTime.of(2025, 2, 3, 9, 15), price, quantity, quantity);
+        order.setClientOrderId(orderId == 2L ? "GW-2" : null);
+        matchingEngine.rest(order);
+    }
+
+    private static Trade trade(long id, long buyClientId, long sellClientId, int quantity, long price) {
+        Trade trade = new Trade();
+        trade.setId(id);
+        trade.setInstrumentId(1L);
+        trade.setBuyClientId(buyClientId);
+        trade.setSellClientId(sellClientId);
+        trade.setQuantity(quantity);
+        trade.setPrice(price);
+        return trade;
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    void testNoSnapshotLoadsEmpty() {
+        OrderSnapshot snapshot = snapshotter.loadLatest();
+
+        assertEquals(0, snapshot.getSequence());
+        assertTrue(snapshot.getOrders().isEmpty());
+    }
+
+    @Test
+    void testRoundTripPreservesOrdersAndPriority() {
+        rest(1L, 1L, 100, 10);
+        rest(2L, 1L, 101, 5);
+        rest(3L, 1L, 100, 7);
+        matchingEngine.submit(new LiveOrder(4L, 8L, 1L, SELL, 101, 2));
+        rest(5L, 2L, 50, 1);
+        when(orderJournal.lastSequence()).thenReturn(42L);
+
+        snapshotter.snapshot();
+        OrderSnapshot snapshot = snapshotter.loadLatest();
+
+        assertEquals(42L, snapshot.getSequence());
+        List<LiveOrder> instrumentOne = snapshot.getOrders().stream()
+                .filter(order -> order.getInstrumentId() == 1L)
+                .collect(Collectors.toList());
+        assertEquals(List.of(2L, 1L, 3L), instrumentOne.stream().map(LiveOrder::getOrderId).collect(Collectors.toList()));
+        LiveOrder partiallyFilled = instrumentOne.get(0);
+        assertEquals(5, partiallyFilled.getQuantity());
+        assertEquals(3, partiallyFilled.getRemainingQuantity());
+        assertEquals(101, partiallyFilled.getPrice());
+        assertEquals(DAY, partiallyFilled.getValidity());
+        assertEquals(LocalDateTime.of(2025, 2, 3, 9, 15), partiallyFilled.getOrderDate());
+        assertEquals("GW-2", partiallyFilled.getClientOrderId());
+        assertNull(instrumentOne.get(1).getClientOrderId());
+        assertEquals(4, snapshot.getOrders().size());
+    }
+
+    @Test
+    void testIdHighWaterMarkLastTradeIdAndQueuePrioritySurvive() {
+        rest(1L, 1L, 100, 10);
+        rest(2L, 1L, 100, 5);
+        matchingEngine.getBook(1L).get(1L).setPriority(11L);
+        matchingEngine.getBook(1L).get(2L).setPriority(12L);
+        when(orderJournal.lastSequence()).thenReturn(7L);
+        when(orderIdAllocator.highestIssued()).thenReturn(60L);
+        when(tradeTape.lastId()).thenReturn(4L);
+
+        snapshotter.snapshot();
+        OrderSnapshot snapshot = snapshotter.loadLatest();
+
+        assertEquals(60L, snapshot.getHighestOrderId());
+        assertEquals(4L, snapshot.getLastTradeId());
+        assertEquals(List.of(11L, 12L), snapshot.getOrders().stream().map(LiveOrder::getPriority).collect(Collectors.toList()));
+        // live state only: the tables are not read
+        verify(orderWriteBehind).awaitFlushed();
+        verify(tradeTape).awaitFlushed();
+        verify(tradeTape, never()).forEach(anyLong(), any());
+    }
+
+    @Test
+    void testKeepsJournalWhileOrderWritesAreDeadLettered() {
+        rest(1L, 1L, 100, 10);
+        when(orderJournal.lastSequence()).thenReturn(7L);
+        when(orderWriteBehind.deadLetters()).thenReturn(1);
+
+        snapshotter.snapshot();
+        assertEquals(OrderSnapshot.EMPTY, snapshotter.loadLatest());
+        verify(orderJournal, never()).truncateBefore(anyLong());
+
+        // taken once the retry gets through
+        when(orderWriteBehind.deadLetters()).thenReturn(0);
+        snapshotter.snapshot();
+        assertEquals(7L, snapshotter.loadLatest().getSequence());
+        verify(orderJournal).truncateBefore(8L);
+    }
+
+    @Test
+    void testPositionsSurviveAndLaterTradesApplyOnTop() {
+        positionKeeper.onTrade(trade(1L, 8L, 9L, 10, 100));
+        positionKeeper.onTrade(trade(2L, 9L, 8L, 4, 110));
+        when(orderJournal.lastSequence()).thenReturn(5L);
+
+        snapshotter.snapshot();
+        OrderSnapshot snapshot = snapshotter.loadLatest();
+
+        assertEquals(new Position(8L, 1L, 6, 100, 40), positionKeeper.get(8L, 1L));
+        assertEquals(2, snapshot.getPositions().size());
+        assertTrue(snapshot.getPositions().contains(positionKeeper.get(8L, 1L)));
+        assertTrue(snapshot.getPositions().contains(positionKeeper.get(9L, 1L)));
+
+        PositionKeeper restarted = new PositionKeeper();
+        restarted.load(snapshot.getPositions(), List.of(trade(3L, 9L, 8L, 6, 120)));
+
+        assertEquals(new Position(8L, 1L, 0, 0, 160), restarted.get(8L, 1L));
+        assertEquals(new Position(9L, 1L, 0, 0, -160), restarted.get(9L, 1L));
+    }
+
+    @Test
+    void testKeepsRetainedSnapshotsAndFallsBackWhenLatestIsDamaged() throws IOException {
+        rest(1L, 1L, 100, 10);
+        when(orderJournal.lastSequence()).thenReturn(1L, 2L, 3L);
+        snapshotter.snapshot();
+        snapshotter.snapshot();
+        snapshotter.snapshot();
+
+        List<Path> files = files();
+        assertEquals(2, files.size());
+        Files.write(files.get(1), new byte[]{1, 2, 3}, java.nio.file.StandardOpenOption.APPEND);
+
+        assertEquals(2L, snapshotter.loadLatest().getSequence());
+        // the journal is kept from the oldest retained snapshot on
+        verify(orderJournal).truncateBefore(3L);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.StockBrokingPlatform.marketdata;
+
+import com.example.StockBrokingPlatform.refdata.ReferenceDataCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class PriceStreamerTest {
+
+    private final PriceTable priceTable = new PriceTable();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PriceStreamer streamer;
+
+    @BeforeEach
+    void setUp() {
+        priceTable.register(1L, 100);
+        priceTable.register(2L, 200);
+        priceTable.register(3L, 300);
+        TickIngestor tickIngestor = new TickIngestor(priceTable, mock(ReferenceDataCache.class), meterRegistry, 16, 16);
+        streamer = new PriceStreamer(priceTable, tickIngestor, meterRegistry, 10, 1, 2, 1_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamer.stop();
+    }
+
+    private static class RecordingSink implements PriceStreamer.PriceSink {
+        final BlockingQueue<List<PriceTable.Quote>> batches = new LinkedBlockingQueue<>();
+        final CountDownLatch release;
+        volatile boolean closed;
+
+        RecordingSink(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(List<PriceTable.Quote> quotes) {
+            batches.add(quotes);
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        List<PriceTable.Quote> next() throws InterruptedException {
+            return batches.poll(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private void tick(long instrumentId, long price, long time) {
+        priceTable.update(instrumentId, price, time);
+        streamer.changed(instrumentId);
+    }
+
+    @Test
+    void slowSubscriberGetsOnlyTheLatestPriceOfEachInstrument() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink(release);
+        streamer.subscribe(List.of(1L, 2L), sink);
+
+        // the snapshot is sent and the sink stalls on it while ticks keep arriving
+        assertEquals(List.of(new PriceTable.Quote(1L, 100, 0), new PriceTable.Quote(2L, 200, 0)), sink.next());
+        for (long i = 1; i <= 1_000; i++) {
+            tick(1L, 100 + i, i);
+        }
+        tick(3L, 999, 1);
+        release.countDown();
+
+        assertEquals(List.of(new PriceTable.Quote(1L, 1_100, 1_000)), sink.next());
+        assertNull(sink.batches.poll(100, TimeUnit.MILLISECONDS));
+        assertEquals(999, meterRegistry.get("market_data.stream.conflated").counter().count());
+    }
+
+    @Test
+    void unsubscribedSinkGetsNothingMore() throws InterruptedException {
+        RecordingSink sink = new RecordingSink(new CountDownLatch(0));
+        PriceStreamer.Subscription subscription = streamer.subscribe(List.of(1L), sink);
+        assertNotNull(sink.next());
+
+        streamer.unsubscribe(subscription);
+        tick(1L, 150, 1);
+
+        assertTrue(sink.closed);
+        assertTrue(subscription.isClosed());
+        assertNull(sink.batches.poll(100, TimeUnit.MILLISECONDS));
+        assertEquals(0, streamer.subscriberCount());
+    }
+
+    @Test
+    void failingSinkIsUnsubscribed() throws InterruptedException {
+        CountDownLatch failed = new CountDownLatch(1);
+        PriceStreamer.Subscription subscription = streamer.subscribe(List.of(1L), new PriceStreamer.PriceSink() {
+            @Override
+            public void send(List<PriceTable.Quote> quotes) throws IOException {
+                failed.countDown();
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 50 && !subscription.isClosed(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(subscription.isClosed());
+        assertEquals(0, streamer.subscriberCount());
+    }
+
+    @Test
+    void stalledSubscriberDoesNotHoldUpOthersAndIsDropped() throws InterruptedException {
+        // one sender thread; the first sink never returns from its write
+        RecordingSink stalled = new RecordingSink(new CountDownLatch(1));
+        PriceStreamer.Subscription stalledSubscription = streamer.subscribe(List.of(1L), stalled);
+        assertNotNull(stalled.next());
+        RecordingSink healthy = new RecordingSink(new CountDownLatch(0));
+        streamer.subscribe(List.of(1L), healthy);
+        assertNotNull(healthy.next());
+
+        tick(1L, 150, 1);
+        assertEquals(List.of(new PriceTable.Quote(1L, 150, 1)), healthy.next());
+
+        for (int i = 0; i < 500 && !stalled.closed; i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(stalledSubscription.isClosed());
+        assertTrue(stalled.closed);
+        assertEquals(1, streamer.subscriberCount());
+        assertEquals(1, meterRegistry.get("market_data.stream.timed_out").counter().count());
+    }
+
+    @Test
+    void subscriptionsAreBounded() {
+        RecordingSink sink = new RecordingSink(new CountDownLatch(0));
+
+        assertThrows(IllegalStateException.class, () -> streamer.subscribe(List.of(), sink));
+        assertThrows(IllegalStateException.class, () -> streamer.subscribe(List.of(1L, 2L, 3L), sink));
+    }
+}
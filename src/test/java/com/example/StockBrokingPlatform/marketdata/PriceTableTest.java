@@ -0,0 +1,67 @@
+package com.example.StockBrokingPlatform.marketdata;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceTableTest {
+
+    private final PriceTable priceTable = new PriceTable();
+
+    @Test
+    void onlyRegisteredInstrumentsTakeUpdates() {
+        priceTable.register(1L, 100);
+
+        assertTrue(priceTable.update(1L, 101, 5));
+        assertFalse(priceTable.update(2L, 50, 5));
+        assertFalse(priceTable.update(PriceTable.MAX_ID, 50, 5));
+        assertEquals(101, priceTable.price(1L));
+        assertEquals(new PriceTable.Quote(1L, 101, 5), priceTable.quote(1L));
+        assertEquals(0, priceTable.price(2L));
+        assertNull(priceTable.quote(2L));
+        assertEquals(1, priceTable.size());
+    }
+
+    @Test
+    void drainReturnsLastPriceOfEachChangedInstrumentOnce() {
+        priceTable.register(1L, 100);
+        priceTable.register(2L, 200);
+        // on another page
+        priceTable.register(100_000L, 300);
+        priceTable.update(1L, 101, 1);
+        priceTable.update(1L, 102, 2);
+        priceTable.update(2L, 201, 1);
+
+        assertEquals(Map.of(1L, 102L, 2L, 201L), priceTable.drainChanged());
+        assertTrue(priceTable.drainChanged().isEmpty());
+
+        priceTable.markChanged(100_000L);
+        assertEquals(Map.of(100_000L, 300L), priceTable.drainChanged());
+    }
+
+    @Test
+    void readersNeverSeeAHalfWrittenQuote() throws InterruptedException {
+        priceTable.register(7L, 0);
+        AtomicBoolean torn = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            for (long i = 1; i <= 200_000; i++) {
+                // time always mirrors the price, so a mixed read shows up
+                priceTable.update(7L, i, -i);
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            PriceTable.Quote quote = priceTable.quote(7L);
+            if (quote.time() != -quote.price()) {
+                torn.set(true);
+            }
+        }
+        writer.join();
+
+        assertFalse(torn.get());
+        assertEquals(new PriceTable.Quote(7L, 200_000, -200_000), priceTable.quote(7L));
+    }
+}
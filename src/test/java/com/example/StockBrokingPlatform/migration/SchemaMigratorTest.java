@@ -0,0 +1,37 @@
+package com.example.StockBrokingPlatform.migration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// validate makes Hibernate check the migrated tables against the entity mappings
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+class SchemaMigratorTest {
+
+    @Autowired
+    private SchemaMigrator schemaMigrator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testAllMigrationsApplied() {
+        List<SchemaMigrator.Migration> migrations = schemaMigrator.scan();
+        assertEquals(migrations.get(migrations.size() - 1).version(), schemaMigrator.currentVersion());
+        assertEquals(0, schemaMigrator.migrate());
+    }
+
+    @Test
+    void testQueryIndexesExist() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT LOWER(index_name) FROM information_schema.indexes WHERE index_name LIKE 'IDX_%'", String.class);
+        assertTrue(indexes.containsAll(List.of("idx_orders_client_status", "idx_orders_status",
+                "idx_watchlist_item_watchlist_instrument", "idx_watchlist_client",
+                "idx_instrument_symbol", "idx_client_client_code")), indexes.toString());
+    }
+}
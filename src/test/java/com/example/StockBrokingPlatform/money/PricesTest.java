@@ -0,0 +1,30 @@
+package com.example.StockBrokingPlatform.money;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricesTest {
+
+    @Test
+    void convertsDecimalRupeesExactly() {
+        assertEquals(24505000L, Prices.of("2450.50"));
+        assertEquals(25L, Prices.of("0.0025"));
+        assertThrows(ArithmeticException.class, () -> Prices.of("0.00001"));
+    }
+
+    @Test
+    void formatsWithAtLeastOneDecimal() {
+        assertEquals("2450.5", Prices.format(24505000L));
+        assertEquals("62500.0", Prices.format(625000000L));
+        assertEquals("82.7525", Prices.format(827525L));
+    }
+
+    @Test
+    void weightsAverageByFilledQuantity() {
+        assertEquals(Prices.of("100"), Prices.weightedAverage(0, 0, Prices.of("100"), 4));
+        assertEquals(Prices.of("100.5"), Prices.weightedAverage(Prices.of("100"), 4, Prices.of("101"), 4));
+        // 1 @ 0.0001 + 2 @ 0.0002 = 0.0005 / 3, rounded half up
+        assertEquals(2L, Prices.weightedAverage(1, 1, 2, 2));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.StockBrokingPlatform.position;
+
+import com.example.StockBrokingPlatform.money.Prices;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionTest {
+
+    @Test
+    void buyingMovesAverageCost() {
+        Position position = Position.empty(1L, 2L)
+                .apply(10, Prices.of("100"))
+                .apply(10, Prices.of("110"));
+
+        assertEquals(20, position.netQuantity());
+        assertEquals(Prices.of("105"), position.averageCost());
+        assertEquals(0, position.realisedPnl());
+        assertEquals(Prices.of("100"), position.unrealisedPnl(Prices.of("110")));
+    }
+
+    @Test
+    void sellingRealisesAgainstAverageCost() {
+        Position position = Position.empty(1L, 2L)
+                .apply(10, Prices.of("100"))
+                .apply(-4, Prices.of("120"));
+
+        assertEquals(6, position.netQuantity());
+        assertEquals(Prices.of("100"), position.averageCost());
+        assertEquals(Prices.of("80"), position.realisedPnl());
+    }
+
+    @Test
+    void flippingSidesOpensTheRestAtTradePrice() {
+        Position position = Position.empty(1L, 2L)
+                .apply(5, Prices.of("100"))
+                .apply(-8, Prices.of("90"));
+
+        assertEquals(-3, position.netQuantity());
+        assertEquals(Prices.of("90"), position.averageCost());
+        assertEquals(Prices.of("-50"), position.realisedPnl());
+        // short 3 from 90, marked at 80
+        assertEquals(Prices.of("30"), position.unrealisedPnl(Prices.of("80")));
+    }
+
+    @Test
+    void closingOutResetsAverageCost() {
+        Position position = Position.empty(1L, 2L)
+                .apply(-5, Prices.of("100"))
+                .apply(5, Prices.of("95"));
+
+        assertEquals(0, position.netQuantity());
+        assertEquals(0, position.averageCost());
+        assertEquals(Prices.of("25"), position.realisedPnl());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.StockBrokingPlatform.refdata;
+
+import com.example.StockBrokingPlatform.model.Client;
+import com.example.StockBrokingPlatform.model.Instrument;
+import com.example.StockBrokingPlatform.repository.ClientRepository;
+import com.example.StockBrokingPlatform.repository.InstrumentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static com.example.StockBrokingPlatform.model.Client.ClientStatus.ACTIVE;
+import static com.example.StockBrokingPlatform.model.Client.ClientStatus.INACTIVE;
+import static com.example.StockBrokingPlatform.model.Client.KYCStatus.COMPLETED;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReferenceDataCacheTest {
+
+    private ClientRepository clientRepository;
+    private InstrumentRepository instrumentRepository;
+    private ReferenceDataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clientRepository = mock(ClientRepository.class);
+        instrumentRepository = mock(InstrumentRepository.class);
+        cache = new ReferenceDataCache(clientRepository, instrumentRepository);
+    }
+
+    @Test
+    void clientIsReadFromRepositoryOnlyOnce() {
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client(1L, ACTIVE)));
+
+        assertTrue(cache.client(1L).canTrade());
+        assertTrue(cache.client(1L).canTrade());
+        verify(clientRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void evictedClientIsReloaded() {
+        when(clientRepository.findById(1L))
+                .thenReturn(Optional.of(client(1L, ACTIVE)))
+                .thenReturn(Optional.of(client(1L, INACTIVE)));
+
+        assertTrue(cache.client(1L).canTrade());
+        cache.evictClient(1L);
+        assertFalse(cache.client(1L).canTrade());
+    }
+
+    @Test
+    void missingClientIsNotCached() {
+        when(clientRepository.findById(7L)).thenReturn(Optional.empty());
+
+        assertNull(cache.client(7L));
+        assertNull(cache.client(7L));
+        verify(clientRepository, times(2)).findById(7L);
+    }
+
+    @Test
+    void instrumentsBeyondInitialCapacityAreCached() {
+        Instrument instrument = new Instrument();
+        instrument.setId(5000L);
+        instrument.setLotSize(50);
+        when(instrumentRepository.findById(5000L)).thenReturn(Optional.of(instrument));
+
+        assertEquals(50, cache.instrument(5000L).lotSize());
+        assertEquals(50, cache.instrument(5000L).lotSize());
+        verify(instrumentRepository, times(1)).findById(5000L);
+
+        cache.evictInstrument(5000L);
+        cache.instrument(5000L);
+        verify(instrumentRepository, times(2)).findById(5000L);
+    }
+
+    private static Client client(long id, Client.ClientStatus status) {
+        Client client = new Client();
+        client.setId(id);
+        client.setKycStatus(COMPLETED);
+        client.setStatus(status);
+        return client;
+    }
+}
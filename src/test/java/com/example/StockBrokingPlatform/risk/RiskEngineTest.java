@@ -0,0 +1,75 @@
+package com.example.StockBrokingPlatform.risk;
+
+import com.example.StockBrokingPlatform.marketdata.PriceTable;
+import com.example.StockBrokingPlatform.money.Prices;
+import com.example.StockBrokingPlatform.refdata.ReferenceDataCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static com.example.StockBrokingPlatform.model.Client.ClientStatus.ACTIVE;
+import static com.example.StockBrokingPlatform.model.Client.KYCStatus.COMPLETED;
+import static com.example.StockBrokingPlatform.model.Client.Tier.STANDARD;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiskEngineTest {
+
+    private final ReferenceDataCache.InstrumentRef instrument =
+            new ReferenceDataCache.InstrumentRef(1L, 1, 500);
+    private RiskEngine riskEngine;
+
+    @BeforeEach
+    void setUp() {
+        PriceTable priceTable = new PriceTable();
+        priceTable.register(1L, Prices.of("100"));
+        riskEngine = new RiskEngine(priceTable, new SimpleMeterRegistry(), new BigDecimal("5000"), new BigDecimal("10000"), 20);
+    }
+
+    private static ReferenceDataCache.ClientRef client(Long maxOrderValue, Long exposureLimit) {
+        return new ReferenceDataCache.ClientRef(7L, COMPLETED, ACTIVE, maxOrderValue, exposureLimit, STANDARD);
+    }
+
+    @Test
+    void rejectsOrderValueAboveLimit() {
+        assertThrows(IllegalStateException.class,
+                () -> riskEngine.checkNewOrder(client(null, null), instrument, Prices.of("100"), 51));
+        riskEngine.checkNewOrder(client(Prices.of("6000"), null), instrument, Prices.of("100"), 51);
+        assertEquals(Prices.of("5100"), riskEngine.exposure(7L));
+    }
+
+    @Test
+    void rejectsPriceOutsideBand() {
+        assertThrows(IllegalStateException.class,
+                () -> riskEngine.checkNewOrder(client(null, null), instrument, Prices.of("79.95"), 1));
+        assertThrows(IllegalStateException.class,
+                () -> riskEngine.checkNewOrder(client(null, null), instrument, Prices.of("120.05"), 1));
+        riskEngine.checkNewOrder(client(null, null), instrument, Prices.of("120"), 1);
+    }
+
+    @Test
+    void reservesAndReleasesExposure() {
+        ReferenceDataCache.ClientRef client = client(null, Prices.of("1000"));
+        riskEngine.checkNewOrder(client, instrument, Prices.of("100"), 6);
+        assertThrows(IllegalStateException.class, () -> riskEngine.checkNewOrder(client, instrument, Prices.of("100"), 5));
+        // a rejected check reserves nothing
+        assertEquals(Prices.of("600"), riskEngine.exposure(7L));
+
+        riskEngine.release(7L, Prices.of("200"));
+        riskEngine.checkNewOrder(client, instrument, Prices.of("100"), 6);
+        assertEquals(Prices.of("1000"), riskEngine.exposure(7L));
+    }
+
+    @Test
+    void amendmentReservesOnlyTheIncrease() {
+        ReferenceDataCache.ClientRef client = client(null, Prices.of("1000"));
+        riskEngine.checkNewOrder(client, instrument, Prices.of("100"), 5);
+
+        riskEngine.checkAmendment(client, instrument, Prices.of("100"), Prices.of("500"));
+        assertThrows(IllegalStateException.class,
+                () -> riskEngine.checkAmendment(client, instrument, Prices.of("100"), Prices.of("100")));
+        riskEngine.checkAmendment(client, instrument, Prices.of("100"), -Prices.of("300"));
+        assertEquals(Prices.of("700"), riskEngine.exposure(7L));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.StockBrokingPlatform.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentSearchIndexTest {
+
+    private final InstrumentSearchIndex index = new InstrumentSearchIndex(null);
+
+    @BeforeEach
+    void setUp() {
+        index.put(1L, "RELIANCE", "Reliance Industries");
+        index.put(2L, "REL", "Relaxo Footwears");
+        index.put(3L, "RELINFRA", "Reliance Infrastructure");
+        index.put(4L, "INFY", "Infosys");
+        // the same symbol on another exchange
+        index.put(5L, "RELIANCE", "Reliance Industries");
+    }
+
+    @Test
+    void symbolPrefixesAreRankedShortestFirstAndBounded() {
+        assertEquals(List.of(2L, 1L, 5L, 3L), index.search("rel", null, 10));
+        assertEquals(List.of(2L, 1L), index.search("REL", null, 2));
+        assertEquals(List.of(1L, 5L, 3L), index.search("RELI", null, 10));
+        assertEquals(List.of(1L, 5L), index.search("RELIANCE", null, 10));
+        assertTrue(index.search("RELIANCEX", null, 10).isEmpty());
+        assertTrue(index.search("TCS", null, 10).isEmpty());
+    }
+
+    @Test
+    void companyNameWordsNarrowOrDriveTheSearch() {
+        assertEquals(List.of(3L), index.search("REL", "infra", 10));
+        assertEquals(List.of(4L, 3L), index.search(null, "inf", 10));
+        // symbols first, then name words, each instrument once
+        assertEquals(List.of(4L, 3L), index.complete("inf", 10));
+        assertTrue(index.complete(" ", 10).isEmpty());
+        assertTrue(index.search(null, " ", 10).isEmpty());
+    }
+
+    @Test
+    void updatesAndRemovalsAreReflected() {
+        index.put(2L, "RELAXO", "Relaxo Footwears");
+        index.remove(3L);
+
+        assertEquals(List.of(2L, 1L, 5L), index.search("REL", null, 10));
+        assertTrue(index.search("RELINFRA", null, 10).isEmpty());
+        assertTrue(index.search(null, "infrastructure", 10).isEmpty());
+        assertEquals(4, index.size());
+
+        index.remove(1L);
+        index.remove(5L);
+        index.remove(2L);
+        assertTrue(index.search("R", null, 10).isEmpty());
+        assertEquals(List.of(4L), index.search("I", null, 10));
+    }
+}
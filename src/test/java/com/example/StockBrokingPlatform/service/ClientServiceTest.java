@@ -2,11 +2,16 @@ package com.example.StockBrokingPlatform.service;
 
 import com.example.StockBrokingPlatform.DTO.ClientDTO;
 import com.example.StockBrokingPlatform.exception.ResourceNotFoundException;
+import com.example.StockBrokingPlatform.index.OrderIndex;
 import com.example.StockBrokingPlatform.mapper.ClientMapper;
 import com.example.StockBrokingPlatform.model.Client;
+import com.example.StockBrokingPlatform.refdata.ReferenceDataCache;
 import com.example.StockBrokingPlatform.repository.ClientRepository;
+import com.example.StockBrokingPlatform.risk.RiskEngine;
+import com.example.StockBrokingPlatform.throttle.OrderThrottle;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -23,6 +28,21 @@ class ClientServiceTest {
     @Mock
     private ClientRepository clientRepository;
 
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
+    @Mock
+    private OrderIndex orderIndex;
+
+    @Mock
+    private RiskEngine riskEngine;
+
+    @Mock
+    private OrderThrottle orderThrottle;
+
+    @Mock
+    private OrderService orderService;
+
     @InjectMocks
     private ClientService clientService;
 
@@ -90,6 +110,7 @@ class ClientServiceTest {
         assertNotNull(updatedDTO);
         assertEquals("CLI001", updatedDTO.getClientCode());
         verify(clientRepository, times(1)).save(any(Client.class));
+        verify(referenceDataCache).evictClient(1L);
     }
 
     @Test
@@ -104,7 +125,16 @@ class ClientServiceTest {
         doNothing().when(clientRepository).delete(client);
 
         assertDoesNotThrow(() -> clientService.deleteClient(1L));
-        verify(clientRepository, times(1)).delete(client);
+        // open orders leave the books before the rows go
+        InOrder inOrder = inOrder(clientRepository, orderService);
+        inOrder.verify(clientRepository).save(client);
+        inOrder.verify(orderService).cancelOrders(null, null, null, 1L);
+        inOrder.verify(clientRepository).delete(client);
+        assertEquals(Client.ClientStatus.INACTIVE, client.getStatus());
+        verify(referenceDataCache, times(2)).evictClient(1L);
+        verify(orderIndex).removeClient(1L);
+        verify(riskEngine).removeClient(1L);
+        verify(orderThrottle).removeClient(1L);
     }
 
     @Test
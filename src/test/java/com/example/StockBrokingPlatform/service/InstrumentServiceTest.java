@@ -3,8 +3,12 @@ package com.example.StockBrokingPlatform.service;
 import com.example.StockBrokingPlatform.DTO.InstrumentDTO;
 import com.example.StockBrokingPlatform.exception.ResourceNotFoundException;
 import com.example.StockBrokingPlatform.mapper.InstrumentMapper;
+import com.example.StockBrokingPlatform.marketdata.PriceTable;
 import com.example.StockBrokingPlatform.model.Instrument;
+import com.example.StockBrokingPlatform.money.Prices;
+import com.example.StockBrokingPlatform.refdata.ReferenceDataCache;
 import com.example.StockBrokingPlatform.repository.InstrumentRepository;
+import com.example.StockBrokingPlatform.search.InstrumentSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -24,6 +28,15 @@ class InstrumentServiceTest {
     @Mock
     private InstrumentRepository instrumentRepository;
 
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
+    @Mock
+    private PriceTable priceTable;
+
+    @Mock
+    private InstrumentSearchIndex searchIndex;
+
     @InjectMocks
     private InstrumentService instrumentService;
 
@@ -39,7 +52,7 @@ class InstrumentServiceTest {
         instrument.setCompanyName("Reliance Industries");
         instrument.setExchange(NSE);
         instrument.setExchangeType(Equity);
-        instrument.setCurrentPrice(2450.50);
+        instrument.setCurrentPrice(Prices.of("2450.50"));
         instrument.setLotSize(1);
         return instrument;
     }
@@ -82,6 +95,7 @@ class InstrumentServiceTest {
 
         assertEquals("RELIANCE", result.getSymbol());
         verify(instrumentRepository, times(1)).save(any(Instrument.class));
+        verify(searchIndex).put(1L, "RELIANCE", "Reliance Industries");
     }
 
     @Test
@@ -96,6 +110,8 @@ class InstrumentServiceTest {
         InstrumentDTO result = instrumentService.updateInstrument(1L, updatedDto);
         assertEquals("Reliance Updated", result.getCompanyName());
         verify(instrumentRepository).save(any(Instrument.class));
+        verify(referenceDataCache).evictInstrument(1L);
+        verify(searchIndex).put(1L, "RELIANCE", "Reliance Updated");
     }
 
     @Test
@@ -107,11 +123,26 @@ class InstrumentServiceTest {
     @Test
     void testSearchBySymbolOrCompanyName() {
         Instrument instrument = createInstrument();
-        when(instrumentRepository.findBySymbolContainingIgnoreCaseOrCompanyNameContainingIgnoreCase("REL", "REL"))
-                .thenReturn(List.of(instrument));
+        when(searchIndex.search("REL", "REL", 10)).thenReturn(List.of(1L));
+        when(instrumentRepository.findAllById(List.of(1L))).thenReturn(List.of(instrument));
 
-        List<InstrumentDTO> result = instrumentService.searchBySymbolOrCompanyName("REL", "REL");
+        List<InstrumentDTO> result = instrumentService.searchBySymbolOrCompanyName("REL", "REL", 10);
         assertEquals(1, result.size());
+        assertThrows(IllegalStateException.class, () -> instrumentService.searchBySymbolOrCompanyName("REL", null, 51));
+    }
+
+    @Test
+    void testAutocomplete_KeepsRankingAndDropsMissingRows() {
+        Instrument reliance = createInstrument();
+        Instrument relaxo = createInstrument();
+        relaxo.setId(2L);
+        relaxo.setSymbol("RELAXO");
+        when(searchIndex.complete("rel", 5)).thenReturn(List.of(2L, 3L, 1L), List.of(2L, 1L));
+        when(instrumentRepository.findAllById(anyIterable())).thenReturn(List.of(reliance, relaxo));
+
+        List<InstrumentDTO> result = instrumentService.autocomplete("rel", 5);
+        assertEquals(List.of("RELAXO", "RELIANCE"), result.stream().map(InstrumentDTO::getSymbol).toList());
+        verify(searchIndex).remove(3L);
     }
 
     @Test
@@ -1,23 +1,53 @@
 package com.example.StockBrokingPlatform.service;
 
+import com.example.StockBrokingPlatform.DTO.BulkCancelResultDTO;
 import com.example.StockBrokingPlatform.DTO.OrderDTO;
+import com.example.StockBrokingPlatform.DTO.OrderResultDTO;
+import com.example.StockBrokingPlatform.bars.BarAggregator;
+import com.example.StockBrokingPlatform.dedupe.OrderDedupeCache;
+import com.example.StockBrokingPlatform.engine.LiveOrder;
+import com.example.StockBrokingPlatform.engine.MatchingEngine;
+import com.example.StockBrokingPlatform.engine.OrderShards;
+import com.example.StockBrokingPlatform.exception.OrderConflictException;
 import com.example.StockBrokingPlatform.exception.ResourceNotFoundException;
+import com.example.StockBrokingPlatform.expiry.OrderExpiry;
+import com.example.StockBrokingPlatform.index.OrderIndex;
+import com.example.StockBrokingPlatform.journal.OrderEvent;
+import com.example.StockBrokingPlatform.journal.OrderJournal;
 import com.example.StockBrokingPlatform.model.Client;
 import com.example.StockBrokingPlatform.model.Instrument;
 import com.example.StockBrokingPlatform.model.Order;
+import com.example.StockBrokingPlatform.model.Trade;
+import com.example.StockBrokingPlatform.money.Prices;
+import com.example.StockBrokingPlatform.persistence.OrderCursor;
+import com.example.StockBrokingPlatform.persistence.OrderIdAllocator;
+import com.example.StockBrokingPlatform.persistence.OrderRow;
+import com.example.StockBrokingPlatform.persistence.OrderWriteBehind;
+import com.example.StockBrokingPlatform.persistence.TradeTape;
+import com.example.StockBrokingPlatform.position.PositionKeeper;
+import com.example.StockBrokingPlatform.refdata.ReferenceDataCache;
 import com.example.StockBrokingPlatform.repository.ClientRepository;
 import com.example.StockBrokingPlatform.repository.InstrumentRepository;
 import com.example.StockBrokingPlatform.repository.OrderRepository;
+import com.example.StockBrokingPlatform.risk.RiskEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.example.StockBrokingPlatform.model.Client.ClientStatus.ACTIVE;
 import static com.example.StockBrokingPlatform.model.Client.ClientStatus.INACTIVE;
@@ -25,6 +55,7 @@ import static com.example.StockBrokingPlatform.model.Client.KYCStatus.COMPLETED;
 import static com.example.StockBrokingPlatform.model.Client.KYCStatus.NOT_COMPLETED;
 import static com.example.StockBrokingPlatform.model.Order.OrderStatus.*;
 import static com.example.StockBrokingPlatform.model.Order.OrderType.BUY;
+import static com.example.StockBrokingPlatform.model.Order.OrderType.SELL;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -40,12 +71,53 @@ class OrderServiceTest {
     @Mock
     private InstrumentRepository instrumentRepository;
 
+    @Spy
+    private MatchingEngine matchingEngine = new MatchingEngine();
+
+    @Spy
+    private OrderShards orderShards = new OrderShards(2);
+
+    @Mock
+    private OrderJournal orderJournal;
+
+    @Mock
+    private OrderIdAllocator orderIdAllocator;
+
+    @Mock
+    private OrderWriteBehind orderWriteBehind;
+
+    @Mock
+    private OrderExpiry orderExpiry;
+
+    @Mock
+    private OrderCursor orderCursor;
+
+    @Spy
+    private OrderIndex orderIndex = new OrderIndex(3600);
+
+    @Mock
+    private TradeTape tradeTape;
+
+    @Mock
+    private PositionKeeper positionKeeper;
+
+    @Mock
+    private BarAggregator barAggregator;
+
+    @Mock
+    private RiskEngine riskEngine;
+
+    @Spy
+    private OrderDedupeCache orderDedupeCache = new OrderDedupeCache(new SimpleMeterRegistry(), 300, 1000);
+
     @InjectMocks
     private OrderService orderService;
 
     private Client client;
     private Instrument instrument;
     private Order order;
+    // the orders table as the write-behind leaves it, for closed orders the index drops
+    private final Map<Long, OrderRow> table = new TreeMap<>();
 
     @BeforeEach
     void init() {
@@ -60,6 +132,35 @@ class OrderServiceTest {
         order.setClient(client);
         order.setInstrument(instrument);
         order.setOrderStatus(PENDING);
+
+        ReflectionTestUtils.setField(orderService, "referenceDataCache",
+                new ReferenceDataCache(clientRepository, instrumentRepository));
+
+        AtomicLong tradeIds = new AtomicLong();
+        lenient().when(tradeTape.append(any(Trade.class))).thenAnswer(invocation -> {
+            Trade trade = invocation.getArgument(0);
+            trade.setId(tradeIds.incrementAndGet());
+            return trade;
+        });
+        lenient().doAnswer(invocation -> write(invocation.getArgument(0))).when(orderWriteBehind).insert(any(Order.class));
+        lenient().doAnswer(invocation -> write(invocation.getArgument(0))).when(orderWriteBehind).update(any(Order.class));
+        lenient().when(orderCursor.find(anyLong())).thenAnswer(invocation -> table.get(invocation.<Long>getArgument(0)));
+        lenient().when(orderCursor.byClient(anyLong(), anyLong(), anyInt())).thenAnswer(invocation -> table.values().stream()
+                .filter(row -> row.clientId() == invocation.<Long>getArgument(0) && row.id() < invocation.<Long>getArgument(1))
+                .sorted(Comparator.comparingLong(OrderRow::id).reversed())
+                .limit(invocation.<Integer>getArgument(2))
+                .toList());
+    }
+
+    private Object write(Order order) {
+        table.put(order.getId(), OrderRow.from(order));
+        return null;
+    }
+
+    // An order that closed before the test started, still within the index's retention window
+    private void putClosed(Order order) {
+        orderIndex.put(OrderRow.from(order));
+        write(order);
     }
 
     @Test
@@ -80,21 +181,185 @@ class OrderServiceTest {
         dto.setClientId(1L);
         dto.setInstrumentId(1L);
         dto.setQuantity(10);
-        dto.setPrice(100.0);
+        dto.setPrice(Prices.of("100"));
         dto.setOrderType(BUY);
 
         // ✅ Mock behavior
         when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
         when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
-        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderIdAllocator.next()).thenReturn(1L);
 
         // ✅ Call and verify
         OrderDTO result = orderService.placeOrder(dto);
 
         assertNotNull(result);
-        assertEquals("PENDING", result.getStatus());
+        assertEquals(1L, result.getId());
+        assertEquals(PENDING, result.getStatus());
+        verify(orderWriteBehind).insert(any(Order.class));
+        verify(orderRepository, never()).save(any(Order.class));
     }
 
+    @Test
+    void testPlaceOrder_CrossingOrderExecutesAgainstRestingOrder() {
+        client.setStatus(ACTIVE);
+        client.setKycStatus(COMPLETED);
+        instrument.setLotSize(1);
+        matchingEngine.rest(new LiveOrder(1L, 2L, 1L, BUY, Prices.of("105"), 10));
+
+        OrderDTO dto = new OrderDTO();
+        dto.setClientId(1L);
+        dto.setInstrumentId(1L);
+        dto.setQuantity(10);
+        dto.setPrice(Prices.of("100"));
+        dto.setOrderType(SELL);
+
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
+        when(orderIdAllocator.next()).thenReturn(2L);
+        orderIndex.put(OrderRow.from(order));
+
+        OrderDTO result = orderService.placeOrder(dto);
+
+        assertEquals(EXECUTED, result.getStatus());
+        assertEquals(EXECUTED, orderIndex.get(1L).status());
+        assertTrue(orderIndex.open().isEmpty());
+        assertEquals(EXECUTED, orderService.getOrderById(1L).getStatus());
+        assertEquals(0, matchingEngine.getBook(1L).size());
+    }
+
+    @Test
+    void testPlaceOrder_PartialFillsTrackAveragePriceAndGoOnTheTape() {
+        client.setStatus(ACTIVE);
+        client.setKycStatus(COMPLETED);
+        instrument.setLotSize(1);
+        Client seller = new Client();
+        seller.setId(2L);
+        Order resting = new Order();
+        resting.setId(1L);
+        resting.setClient(seller);
+        resting.setInstrument(instrument);
+        resting.setOrderType(SELL);
+        resting.setOrderStatus(PENDING);
+        resting.setQuantity(4);
+        resting.setPrice(Prices.of("100"));
+        orderIndex.put(OrderRow.from(resting));
+        matchingEngine.rest(LiveOrder.from(resting));
+        Order secondResting = new Order();
+        secondResting.setId(2L);
+        secondResting.setClient(seller);
+        secondResting.setInstrument(instrument);
+        secondResting.setOrderType(SELL);
+        secondResting.setOrderStatus(PENDING);
+        secondResting.setQuantity(10);
+        secondResting.setPrice(Prices.of("101"));
+        orderIndex.put(OrderRow.from(secondResting));
+        matchingEngine.rest(LiveOrder.from(secondResting));
+
+        OrderDTO dto = new OrderDTO();
+        dto.setClientId(1L);
+        dto.setInstrumentId(1L);
+        dto.setQuantity(8);
+        dto.setPrice(Prices.of("101"));
+        dto.setOrderType(BUY);
+
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
+        when(orderIdAllocator.next()).thenReturn(3L);
+
+        OrderDTO result = orderService.placeOrder(dto);
+
+        // 4 @ 100 + 4 @ 101
+        assertEquals(EXECUTED, result.getStatus());
+        assertEquals(8, result.getFilledQuantity());
+        assertEquals(Prices.of("100.5"), result.getAveragePrice());
+        assertEquals(EXECUTED, orderIndex.get(1L).status());
+        assertEquals(PARTIALLY_FILLED, orderIndex.get(2L).status());
+        assertEquals(4, orderIndex.get(2L).filledQuantity());
+        assertEquals(6, matchingEngine.getBook(1L).get(2L).getRemainingQuantity());
+
+        ArgumentCaptor<Trade> trades = ArgumentCaptor.forClass(Trade.class);
+        verify(tradeTape, times(2)).append(trades.capture());
+        Trade first = trades.getAllValues().get(0);
+        assertEquals(3L, first.getBuyOrderId());
+        assertEquals(1L, first.getSellOrderId());
+        assertEquals(1L, first.getBuyClientId());
+        assertEquals(2L, first.getSellClientId());
+        assertEquals(4, first.getQuantity());
+        assertEquals(Prices.of("100"), first.getPrice());
+        verify(positionKeeper).onTrade(first);
+    }
+
+    @Test
+    void testModifyOrder_QuantityMustExceedFilled() {
+        order.setQuantity(10);
+        order.setFilledQuantity(6);
+        order.setOrderStatus(PARTIALLY_FILLED);
+        orderIndex.put(OrderRow.from(order));
+        OrderDTO dto = new OrderDTO();
+        dto.setPrice(Prices.of("200"));
+        dto.setQuantity(6);
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.modifyOrder(1L, dto));
+    }
+
+
+    @Test
+    void testPlaceOrder_DayOrderIsScheduledForExpiry() {
+        Client client = new Client();
+        client.setId(1L);
+        client.setStatus(ACTIVE);
+        client.setKycStatus(COMPLETED);
+
+        Instrument instrument = new Instrument();
+        instrument.setId(1L);
+
+        OrderDTO dto = new OrderDTO();
+        dto.setClientId(1L);
+        dto.setInstrumentId(1L);
+        dto.setQuantity(10);
+        dto.setPrice(Prices.of("100"));
+        dto.setOrderType(BUY);
+        dto.setValidity(Order.Validity.DAY);
+
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
+        when(orderIdAllocator.next()).thenReturn(3L);
+
+        assertEquals(PENDING, orderService.placeOrder(dto).getStatus());
+        verify(orderExpiry).scheduleDayExpiry(eq(3L), eq(1L), any());
+    }
+
+    @Test
+    void testPlaceOrder_UnfilledIocRemainderIsCancelled() {
+        Client client = new Client();
+        client.setId(1L);
+        client.setStatus(ACTIVE);
+        client.setKycStatus(COMPLETED);
+
+        Instrument instrument = new Instrument();
+        instrument.setId(1L);
+
+        matchingEngine.rest(new LiveOrder(1L, 2L, 1L, SELL, Prices.of("100"), 4));
+
+        OrderDTO dto = new OrderDTO();
+        dto.setClientId(1L);
+        dto.setInstrumentId(1L);
+        dto.setQuantity(10);
+        dto.setPrice(Prices.of("100"));
+        dto.setOrderType(BUY);
+        dto.setValidity(Order.Validity.IOC);
+
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
+        when(orderIdAllocator.next()).thenReturn(2L);
+        orderIndex.put(OrderRow.from(order));
+
+        OrderDTO result = orderService.placeOrder(dto);
+
+        assertEquals(CANCELLED, result.getStatus());
+        assertNull(matchingEngine.getBook(1L).get(2L));
+        verify(orderExpiry, never()).scheduleDayExpiry(anyLong(), anyLong(), any());
+    }
 
     @Test
     void testPlaceOrder_ClientNotFound() {
@@ -131,7 +396,7 @@ class OrderServiceTest {
         dto.setClientId(1L);
         dto.setInstrumentId(1L);
         dto.setQuantity(10);
-        dto.setPrice(100.0);
+        dto.setPrice(Prices.of("100"));
 
         when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
         when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
@@ -153,8 +418,9 @@ class OrderServiceTest {
         OrderDTO dto = new OrderDTO();
         dto.setClientId(1L);
         dto.setInstrumentId(1L);
+        dto.setOrderType(BUY);
         dto.setQuantity(7); // Not multiple of 10
-        dto.setPrice(100.0);
+        dto.setPrice(Prices.of("100"));
 
         when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
         when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
@@ -162,6 +428,30 @@ class OrderServiceTest {
         assertThrows(IllegalArgumentException.class, () -> orderService.placeOrder(dto));
     }
 
+    @Test
+    void testPlaceOrder_MissingOrderType_ThrowsException() {
+        Client client = new Client();
+        client.setId(1L);
+        client.setStatus(ACTIVE);
+        client.setKycStatus(COMPLETED);
+
+        Instrument instrument = new Instrument();
+        instrument.setId(1L);
+        instrument.setLotSize(1);
+
+        OrderDTO dto = new OrderDTO();
+        dto.setClientId(1L);
+        dto.setInstrumentId(1L);
+        dto.setQuantity(1);
+        dto.setPrice(Prices.of("100"));
+
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
+
+        assertThrows(IllegalStateException.class, () -> orderService.placeOrder(dto));
+        verify(matchingEngine, never()).submit(any());
+    }
+
     @Test
     void testPlaceOrder_InvalidPrice_ThrowsException() {
         Client client = new Client();
@@ -176,8 +466,9 @@ class OrderServiceTest {
         OrderDTO dto = new OrderDTO();
         dto.setClientId(1L);
         dto.setInstrumentId(1L);
+        dto.setOrderType(BUY);
         dto.setQuantity(10);
-        dto.setPrice(-1.0); // Invalid
+        dto.setPrice(Prices.of("-1")); // Invalid
 
         when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
         when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
@@ -186,91 +477,470 @@ class OrderServiceTest {
     }
 
     @Test
-    void testGetAllOrders() {
-        when(orderRepository.findAll()).thenReturn(List.of(order, new Order()));
-        List<OrderDTO> orders = orderService.getAllOrders();
-        assertEquals(2, orders.size());
+    void testPlaceOrder_PriceNotMultipleOfTickSize_ThrowsException() {
+        Client client = new Client();
+        client.setId(1L);
+        client.setStatus(ACTIVE);
+        client.setKycStatus(COMPLETED);
+
+        Instrument instrument = new Instrument();
+        instrument.setId(1L);
+        instrument.setLotSize(1);
+        instrument.setTickSize(Prices.of("0.05"));
+
+        OrderDTO dto = new OrderDTO();
+        dto.setClientId(1L);
+        dto.setInstrumentId(1L);
+        dto.setOrderType(BUY);
+        dto.setQuantity(1);
+        dto.setPrice(Prices.of("100.02")); // Not multiple of 0.05
+
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> orderService.placeOrder(dto));
+        assertTrue(ex.getMessage().contains("0.05"));
+    }
+
+    @Test
+    void testPlaceOrders_ReportsEachLeg() {
+        Client client = new Client();
+        client.setId(1L);
+        client.setStatus(ACTIVE);
+        client.setKycStatus(COMPLETED);
+
+        Instrument instrument = new Instrument();
+        instrument.setId(1L);
+        instrument.setLotSize(1);
+
+        OrderDTO valid = new OrderDTO();
+        valid.setClientId(1L);
+        valid.setInstrumentId(1L);
+        valid.setQuantity(10);
+        valid.setPrice(Prices.of("100"));
+        valid.setOrderType(BUY);
+
+        OrderDTO unknownInstrument = new OrderDTO();
+        unknownInstrument.setClientId(1L);
+        unknownInstrument.setInstrumentId(9L);
+        unknownInstrument.setQuantity(10);
+        unknownInstrument.setPrice(Prices.of("100"));
+        unknownInstrument.setOrderType(BUY);
+
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
+        when(instrumentRepository.findById(9L)).thenReturn(Optional.empty());
+        when(orderIdAllocator.next()).thenReturn(1L);
+
+        List<OrderResultDTO> results = orderService.placeOrders(List.of(valid, unknownInstrument));
+
+        assertTrue(results.get(0).isAccepted());
+        assertEquals(1L, results.get(0).getOrder().getId());
+        assertFalse(results.get(1).isAccepted());
+        assertEquals("Instrument not found", results.get(1).getError());
+        verify(orderWriteBehind, times(1)).insert(any(Order.class));
+    }
+
+    @Test
+    void testPlaceOrder_RetryWithSameClientOrderIdReturnsOriginal() {
+        client.setStatus(ACTIVE);
+        client.setKycStatus(COMPLETED);
+        instrument.setLotSize(1);
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
+        when(orderIdAllocator.next()).thenReturn(7L);
+
+        OrderDTO first = orderService.placeOrder(clientOrder("GW-1"));
+        OrderDTO retry = orderService.placeOrder(clientOrder("GW-1"));
+
+        assertEquals(7L, first.getId());
+        assertEquals("GW-1", first.getClientOrderId());
+        assertSame(first, retry);
+        verify(orderIdAllocator, times(1)).next();
+        verify(orderWriteBehind, times(1)).insert(any(Order.class));
+        verify(riskEngine, times(1)).checkNewOrder(any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void testPlaceOrder_ClientOrderIdTakenOutsideDedupeWindowIsConflict() {
+        client.setStatus(ACTIVE);
+        client.setKycStatus(COMPLETED);
+        instrument.setLotSize(1);
+        order.setClientOrderId("GW-1");
+        orderIndex.put(OrderRow.from(order));
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
+        when(orderIdAllocator.next()).thenReturn(7L);
+
+        OrderConflictException ex = assertThrows(OrderConflictException.class,
+                () -> orderService.placeOrder(clientOrder("GW-1")));
+        assertTrue(ex.getMessage().contains("order 1"));
+        verify(riskEngine).release(eq(1L), anyLong());
+        verify(orderWriteBehind, never()).insert(any(Order.class));
+    }
+
+    @Test
+    void testPlaceOrder_ClientOrderIdOfOrderOnlyInTableIsConflict() {
+        client.setStatus(ACTIVE);
+        client.setKycStatus(COMPLETED);
+        instrument.setLotSize(1);
+        // order 1 holds GW-1 but was loaded into the table before the index
+        orderIndex.clear(1L);
+        when(orderCursor.findIdByClientOrderId(1L, "GW-1")).thenReturn(1L);
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
+        when(orderIdAllocator.next()).thenReturn(7L);
+
+        OrderConflictException ex = assertThrows(OrderConflictException.class,
+                () -> orderService.placeOrder(clientOrder("GW-1")));
+        assertTrue(ex.getMessage().contains("order 1"));
+        assertNull(orderIndex.byClientOrderId(1L, "GW-1"));
+        verify(orderWriteBehind, never()).insert(any(Order.class));
+    }
+
+    @Test
+    void testPlaceOrder_InvalidClientOrderId() {
+        assertThrows(IllegalArgumentException.class, () -> orderService.placeOrder(clientOrder("has space")));
+        assertThrows(IllegalArgumentException.class, () -> orderService.placeOrder(clientOrder("x".repeat(37))));
+    }
+
+    @Test
+    void testPlaceOrders_ClientOrderIdsAreDeduplicated() {
+        client.setStatus(ACTIVE);
+        client.setKycStatus(COMPLETED);
+        instrument.setLotSize(1);
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
+        when(orderIdAllocator.next()).thenReturn(7L, 8L);
+        OrderDTO placed = orderService.placeOrder(clientOrder("GW-1"));
+
+        List<OrderResultDTO> results = orderService.placeOrders(
+                List.of(clientOrder("GW-1"), clientOrder("GW-2"), clientOrder("GW-2")));
+
+        assertSame(placed, results.get(0).getOrder());
+        assertEquals(8L, results.get(1).getOrder().getId());
+        assertFalse(results.get(2).isAccepted());
+        assertTrue(results.get(2).getError().contains("repeated"));
+        assertSame(results.get(1).getOrder(), orderService.placeOrder(clientOrder("GW-2")));
+        verify(orderWriteBehind, times(2)).insert(any(Order.class));
+    }
+
+    private static OrderDTO clientOrder(String clientOrderId) {
+        OrderDTO dto = new OrderDTO();
+        dto.setClientId(1L);
+        dto.setInstrumentId(1L);
+        dto.setQuantity(10);
+        dto.setPrice(Prices.of("100"));
+        dto.setOrderType(BUY);
+        dto.setClientOrderId(clientOrderId);
+        return dto;
+    }
+
+    @Test
+    void testGetOrders_SeeksPastLastId() {
+        when(orderCursor.page(1L, 2)).thenReturn(List.of(OrderRow.from(order)));
+        List<OrderDTO> orders = orderService.getOrders(1L, 2);
+        assertEquals(1, orders.size());
+        verify(orderWriteBehind).awaitFlushed();
+        verify(orderRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetOrders_PageSizeOutOfRange() {
+        assertThrows(IllegalStateException.class, () -> orderService.getOrders(0L, 0));
+        assertThrows(IllegalStateException.class, () -> orderService.getOrders(0L, 1001));
     }
 
     @Test
     void testGetOrderById_Success() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        orderIndex.put(OrderRow.from(order));
         OrderDTO result = orderService.getOrderById(1L);
         assertEquals(1L, result.getId());
     }
 
+    @Test
+    void testGetOrderById_OpenOrderServedFromIndex() {
+        orderIndex.put(OrderRow.from(order));
+
+        assertEquals(PENDING, orderService.getOrderById(1L).getStatus());
+        verifyNoInteractions(orderRepository, orderCursor);
+    }
+
+    @Test
+    void testGetOrderById_RecentlyClosedOrderServedFromIndex() {
+        order.setOrderStatus(CANCELLED);
+        putClosed(order);
+
+        assertEquals(CANCELLED, orderService.getOrderById(1L).getStatus());
+        verifyNoInteractions(orderRepository, orderCursor);
+    }
+
+    @Test
+    void testGetOrderById_EvictedOrderReadFromTable() {
+        Order closed = new Order();
+        closed.setId(5L);
+        closed.setClient(client);
+        closed.setInstrument(instrument);
+        closed.setOrderStatus(CANCELLED);
+        write(closed);
+
+        assertNull(orderIndex.get(5L));
+        assertEquals(CANCELLED, orderService.getOrderById(5L).getStatus());
+        verify(orderCursor).find(5L);
+        verify(orderWriteBehind, never()).awaitFlushed();
+    }
+
     @Test
     void testGetOrderById_NotFound() {
-        when(orderRepository.findById(999L)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> orderService.getOrderById(999L));
     }
 
     @Test
     void testModifyOrder_Success() {
         OrderDTO dto = new OrderDTO();
-        dto.setPrice(200.0);
+        dto.setPrice(Prices.of("200"));
         dto.setQuantity(20);
 
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        orderIndex.put(OrderRow.from(order));
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
 
         OrderDTO modified = orderService.modifyOrder(1L, dto);
 
-        assertEquals(200.0, modified.getPrice());
+        assertEquals(Prices.of("200"), modified.getPrice());
         assertEquals(20, modified.getQuantity());
+        verify(orderWriteBehind).update(any(Order.class));
+    }
+
+    @Test
+    void testModifyOrder_FailedJournalAppendUndoesTheReservation() {
+        OrderDTO dto = new OrderDTO();
+        dto.setPrice(Prices.of("200"));
+        dto.setQuantity(20);
+
+        orderIndex.put(OrderRow.from(order));
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
+        when(orderJournal.append(eq(OrderEvent.Type.MODIFIED), any(Order.class))).thenThrow(new IllegalStateException("Journal is full"));
+
+        assertThrows(IllegalStateException.class, () -> orderService.modifyOrder(1L, dto));
+        ArgumentCaptor<Long> reserved = ArgumentCaptor.forClass(Long.class);
+        verify(riskEngine).checkAmendment(any(), any(), eq(Prices.of("200")), reserved.capture());
+        assertTrue(reserved.getValue() > 0);
+        verify(riskEngine).release(1L, reserved.getValue());
+        verify(orderWriteBehind, never()).update(any(Order.class));
+        assertEquals(0L, orderIndex.get(1L).version());
+    }
+
+    @Test
+    void testModifyOrder_MovesToNextVersion() {
+        OrderDTO dto = new OrderDTO();
+        dto.setPrice(Prices.of("200"));
+        dto.setQuantity(20);
+        dto.setVersion(0L);
+
+        orderIndex.put(OrderRow.from(order));
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
+
+        assertEquals(1L, orderService.modifyOrder(1L, dto).getVersion());
+        assertEquals(1L, orderIndex.get(1L).version());
+    }
+
+    @Test
+    void testModifyOrder_StaleVersionIsRejected() {
+        order.setVersion(3);
+        orderIndex.put(OrderRow.from(order));
+        OrderDTO dto = new OrderDTO();
+        dto.setPrice(Prices.of("200"));
+        dto.setQuantity(20);
+        dto.setVersion(2L);
+
+        assertThrows(OrderConflictException.class, () -> orderService.modifyOrder(1L, dto));
+        verify(orderWriteBehind, never()).update(any(Order.class));
+        assertEquals(3L, orderIndex.get(1L).version());
     }
 
     @Test
     void testModifyOrder_InvalidStatus() {
         order.setOrderStatus(EXECUTED);
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        putClosed(order);
         assertThrows(IllegalStateException.class, () -> orderService.modifyOrder(1L, new OrderDTO()));
     }
 
     @Test
     void testCancelOrder_Success() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        orderIndex.put(OrderRow.from(order));
         orderService.cancelOrder(1L);
-        assertEquals("CANCELLED", order.getOrderStatus());
+        assertEquals(CANCELLED, orderIndex.get(1L).status());
+        assertEquals(CANCELLED, orderService.getOrderById(1L).getStatus());
+        verify(orderExpiry).cancel(1L);
     }
 
     @Test
     void testCancelOrder_InvalidStatus() {
         order.setOrderStatus(EXECUTED);
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        putClosed(order);
         assertThrows(IllegalStateException.class, () -> orderService.cancelOrder(1L));
     }
 
+    @Test
+    void testCancelOrders_CancelsMatchingRestingOrdersInBulk() {
+        matchingEngine.rest(new LiveOrder(1L, 1L, 1L, BUY, Order.Validity.DAY, null, Prices.of("100"), 5, 5));
+        matchingEngine.rest(new LiveOrder(2L, 2L, 1L, BUY, Order.Validity.DAY, null, Prices.of("99"), 5, 5));
+        matchingEngine.rest(new LiveOrder(3L, 1L, 2L, SELL, Order.Validity.DAY, null, Prices.of("50"), 5, 5));
+        when(orderWriteBehind.cancelOpen(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        BulkCancelResultDTO result = orderService.cancelOrders(PENDING, Order.Validity.DAY, null, 1L);
+
+        assertEquals(2, result.getCancelled());
+        assertEquals(2, result.getRowsUpdated());
+        assertNull(matchingEngine.getBook(1L).get(1L));
+        assertNotNull(matchingEngine.getBook(1L).get(2L));
+        assertNull(matchingEngine.getBook(2L).get(3L));
+        verify(orderExpiry).cancel(1L);
+        verify(orderExpiry).cancel(3L);
+        verify(orderWriteBehind, never()).update(any(Order.class));
+    }
+
+    @Test
+    void testCancelOrders_PartiallyFilledFilterSkipsUnfilledOrders() {
+        LiveOrder filled = new LiveOrder(1L, 1L, 1L, BUY, Order.Validity.DAY, null, Prices.of("100"), 5, 3);
+        matchingEngine.rest(filled);
+        matchingEngine.rest(new LiveOrder(2L, 1L, 1L, BUY, Order.Validity.DAY, null, Prices.of("99"), 5, 5));
+        when(orderWriteBehind.cancelOpen(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        BulkCancelResultDTO result = orderService.cancelOrders(PARTIALLY_FILLED, null, null, null);
+
+        assertEquals(1, result.getCancelled());
+        assertNull(matchingEngine.getBook(1L).get(1L));
+        assertNotNull(matchingEngine.getBook(1L).get(2L));
+    }
+
+    @Test
+    void testCancelOrders_OnlyPendingCanBeCancelled() {
+        assertThrows(IllegalStateException.class, () -> orderService.cancelOrders(EXECUTED, null, null, null));
+    }
+
     @Test
     void testGetOrdersByClientId() {
-        when(orderRepository.findByClientId(1L)).thenReturn(Arrays.asList(order, new Order()));
-        List<OrderDTO> result = orderService.getOrdersByClientId(1L);
-        assertEquals(2, result.size());
+        Order other = new Order();
+        other.setId(2L);
+        other.setClient(client);
+        other.setInstrument(instrument);
+        other.setOrderStatus(EXECUTED);
+        putClosed(other);
+        orderIndex.put(OrderRow.from(order));
+        write(order);
+
+        List<OrderDTO> result = orderService.getOrdersByClientId(1L, Long.MAX_VALUE, 100);
+        assertEquals(Arrays.asList(2L, 1L), result.stream().map(OrderDTO::getId).toList());
+        assertEquals(List.of(1L), orderService.getOrdersByClientId(1L, 2L, 100).stream().map(OrderDTO::getId).toList());
+        assertEquals(List.of(2L), orderService.getOrdersByClientId(1L, Long.MAX_VALUE, 1).stream().map(OrderDTO::getId).toList());
+        verifyNoInteractions(orderRepository, orderCursor, orderWriteBehind);
+    }
+
+    @Test
+    void testGetOrdersByClientId_OlderHistoryReadFromTable() {
+        // orders 1 and 2 were in the table before the index was loaded; only the open one is indexed
+        Order closed = new Order();
+        closed.setId(2L);
+        closed.setClient(client);
+        closed.setInstrument(instrument);
+        closed.setOrderStatus(EXECUTED);
+        write(closed);
+        write(order);
+        orderIndex.clear(2L);
+        orderIndex.put(OrderRow.from(order));
+        Order recent = new Order();
+        recent.setId(3L);
+        recent.setClient(client);
+        recent.setInstrument(instrument);
+        recent.setOrderStatus(PENDING);
+        orderIndex.put(OrderRow.from(recent));
+
+        List<OrderDTO> result = orderService.getOrdersByClientId(1L, Long.MAX_VALUE, 100);
+        assertEquals(Arrays.asList(3L, 2L, 1L), result.stream().map(OrderDTO::getId).toList());
+        verify(orderWriteBehind).awaitFlushed();
+        verify(orderCursor).byClient(1L, 3L, 99);
+        // a full page from the index never reaches the table
+        assertEquals(List.of(3L), orderService.getOrdersByClientId(1L, Long.MAX_VALUE, 1).stream().map(OrderDTO::getId).toList());
+        verify(orderCursor, times(1)).byClient(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void testGetOrdersByClientId_PageSizeOutOfRange() {
+        assertThrows(IllegalStateException.class, () -> orderService.getOrdersByClientId(1L, Long.MAX_VALUE, 0));
+        assertThrows(IllegalStateException.class, () -> orderService.getOrdersByClientId(1L, Long.MAX_VALUE, 1001));
     }
 
     @Test
     void testGetPendingOrders() {
-        when(orderRepository.findByOrderStatus(PENDING)).thenReturn(List.of(order, new Order()));
-        Order incomplete = new Order();
-        incomplete.setClient(client);
-        incomplete.setInstrument(instrument);
+        Order other = new Order();
+        other.setId(2L);
+        other.setClient(client);
+        other.setInstrument(instrument);
+        other.setOrderStatus(PENDING);
+        orderIndex.put(OrderRow.from(order));
+        orderIndex.put(OrderRow.from(other));
         List<OrderDTO> result = orderService.getPendingOrders();
         assertEquals(2, result.size());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void testUpdateStatus_MovesOrderOutOfPendingIndex() {
+        orderIndex.put(OrderRow.from(order));
+
+        orderService.updateStatus(1L, CANCELLED);
+
+        assertTrue(orderService.getPendingOrders().isEmpty());
+        assertEquals(CANCELLED, orderService.getOrdersByClientId(1L, Long.MAX_VALUE, 100).get(0).getStatus());
     }
 
     @Test
     void testUpdateStatus_Success() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        orderIndex.put(OrderRow.from(order));
+
+        OrderDTO updated = orderService.updateStatus(1L, CANCELLED);
+
+        assertEquals(CANCELLED, updated.getStatus());
+    }
 
-        OrderDTO updated = orderService.updateStatus(1L, EXECUTED);
+    @Test
+    void testUpdateStatus_RejectsStatusTheFillsDoNotMatch() {
+        order.setQuantity(10);
+        orderIndex.put(OrderRow.from(order));
+
+        assertThrows(IllegalStateException.class, () -> orderService.updateStatus(1L, EXECUTED));
+        assertThrows(IllegalStateException.class, () -> orderService.updateStatus(1L, PARTIALLY_FILLED));
+        assertEquals(PENDING, orderService.updateStatus(1L, PENDING).getStatus());
+
+        order.setFilledQuantity(4);
+        order.setOrderStatus(PARTIALLY_FILLED);
+        order.setVersion(1);
+        orderIndex.put(OrderRow.from(order));
+        assertThrows(IllegalStateException.class, () -> orderService.updateStatus(1L, PENDING));
+        assertThrows(IllegalStateException.class, () -> orderService.updateStatus(1L, EXECUTED));
+        assertEquals(PARTIALLY_FILLED, orderService.getPendingOrders().get(0).getStatus());
+        verify(riskEngine, never()).release(anyLong(), anyLong());
+        verifyNoInteractions(orderJournal);
+    }
 
-        assertEquals("EXECUTED", updated.getStatus());
+    @Test
+    void testUpdateStatus_ClosedOrderCannotBeReopened() {
+        orderIndex.put(OrderRow.from(order));
+        orderService.updateStatus(1L, CANCELLED);
+
+        assertThrows(IllegalStateException.class, () -> orderService.updateStatus(1L, PENDING));
+        assertThrows(IllegalStateException.class, () -> orderService.updateStatus(1L, EXECUTED));
+        assertEquals(CANCELLED, orderService.updateStatus(1L, CANCELLED).getStatus());
+        assertTrue(orderService.getPendingOrders().isEmpty());
+        verify(riskEngine, times(1)).release(eq(1L), anyLong());
     }
 
     @Test
     void testUpdateStatus_NotFound() {
-        when(orderRepository.findById(999L)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> orderService.updateStatus(999L, CANCELLED));
     }
 }
@@ -5,7 +5,9 @@ import com.example.StockBrokingPlatform.DTO.WatchListItemDTO;
 import com.example.StockBrokingPlatform.exception.ResourceNotFoundException;
 import com.example.StockBrokingPlatform.mapper.WatchListItemMapper;
 import com.example.StockBrokingPlatform.mapper.WatchListMapper;
+import com.example.StockBrokingPlatform.marketdata.PriceTable;
 import com.example.StockBrokingPlatform.model.*;
+import com.example.StockBrokingPlatform.money.Prices;
 import com.example.StockBrokingPlatform.repository.*;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -30,6 +32,8 @@ class WatchListServiceTest {
     private InstrumentRepository instrumentRepository;
     @Mock
     private WatchListItemRepository watchListItemRepository;
+    @Spy
+    private PriceTable priceTable = new PriceTable();
 
     @BeforeEach
     void setUp() {
@@ -163,21 +167,14 @@ class WatchListServiceTest {
 
     @Test
     void testGetWatchListSummary() {
-        Instrument i1 = new Instrument();
-        i1.setCurrentPrice(100.0);
-        Instrument i2 = new Instrument();
-        i2.setCurrentPrice(200.0);
-
-        WatchListItem item1 = new WatchListItem();
-        item1.setInstrument(i1);
-        WatchListItem item2 = new WatchListItem();
-        item2.setInstrument(i2);
+        priceTable.register(1L, Prices.of("100"));
+        priceTable.register(2L, Prices.of("200"));
 
         WatchList watchList = new WatchList();
         watchList.setName("MyList");
-        watchList.setItems(List.of(item1, item2));
 
         when(watchListRepository.findById(1L)).thenReturn(Optional.of(watchList));
+        when(watchListItemRepository.findInstrumentIdsByWatchListId(1L)).thenReturn(List.of(1L, 2L));
 
         String summary = watchListService.getWatchListSummary(1L);
 
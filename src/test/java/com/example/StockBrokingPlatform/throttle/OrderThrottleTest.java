@@ -0,0 +1,97 @@
+package com.example.StockBrokingPlatform.throttle;
+
+import com.example.StockBrokingPlatform.exception.OrderThrottledException;
+import com.example.StockBrokingPlatform.model.Client;
+import com.example.StockBrokingPlatform.refdata.ReferenceDataCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.StockBrokingPlatform.model.Client.ClientStatus.ACTIVE;
+import static com.example.StockBrokingPlatform.model.Client.KYCStatus.COMPLETED;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OrderThrottleTest {
+
+    private final ReferenceDataCache referenceDataCache = mock(ReferenceDataCache.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private long now = TimeUnit.SECONDS.toNanos(100);
+    private OrderThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        throttle = new OrderThrottle(referenceDataCache, meterRegistry, () -> now, Map.of(
+                Client.Tier.STANDARD, new OrderThrottle.Limits(2, 4),
+                Client.Tier.PREMIUM, new OrderThrottle.Limits(10, 20),
+                Client.Tier.ALGO, new OrderThrottle.Limits(100, 200)));
+        tier(1L, Client.Tier.STANDARD);
+        tier(2L, Client.Tier.STANDARD);
+    }
+
+    private void tier(long clientId, Client.Tier tier) {
+        when(referenceDataCache.client(clientId))
+                .thenReturn(new ReferenceDataCache.ClientRef(clientId, COMPLETED, ACTIVE, null, null, tier));
+    }
+
+    @Test
+    void allowsBurstThenThrottles() {
+        throttle.acquire(1L, 3);
+        throttle.acquire(1L, 1);
+
+        OrderThrottledException ex = assertThrows(OrderThrottledException.class, () -> throttle.acquire(1L, 1));
+        assertEquals(1, ex.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.counter("orders.throttled", "tier", "STANDARD").count());
+        // other clients have their own bucket
+        throttle.acquire(2L, 4);
+    }
+
+    @Test
+    void refillsAtTheTierRate() {
+        throttle.acquire(1L, 4);
+        now += TimeUnit.MILLISECONDS.toNanos(500);
+
+        throttle.acquire(1L, 1);
+        assertThrows(OrderThrottledException.class, () -> throttle.acquire(1L, 1));
+    }
+
+    @Test
+    void tierChangeResizesTheBucket() {
+        throttle.acquire(1L, 4);
+        tier(1L, Client.Tier.PREMIUM);
+
+        throttle.acquire(1L, 20);
+        assertThrows(OrderThrottledException.class, () -> throttle.acquire(1L, 1));
+    }
+
+    @Test
+    void unknownClientsPassThrough() {
+        throttle.acquire(99L, 1000);
+        throttle.acquire(null, 1);
+    }
+
+    @Test
+    void basketLargerThanTheBurstTakesTheWholeBucket() {
+        throttle.acquire(1L, 10);
+
+        assertThrows(OrderThrottledException.class, () -> throttle.acquire(1L, 1));
+        now += TimeUnit.SECONDS.toNanos(2);
+        throttle.acquire(1L, 10);
+    }
+
+    @Test
+    void basketAcrossClientsIsAllOrNothing() {
+        throttle.acquire(2L, 4);
+        Map<Long, Integer> basket = new LinkedHashMap<>();
+        basket.put(1L, 3);
+        basket.put(2L, 1);
+
+        assertThrows(OrderThrottledException.class, () -> throttle.acquire(basket));
+        // client 1 got its tokens back
+        throttle.acquire(1L, 4);
+    }
+}